@@ -0,0 +1,152 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of turning a batch into the bytes that are sent, for every encoder the sender has: the Malti
+ * JSON batch and OTLP spans, each uncompressed and gzip-compressed. The score is time per batch; the
+ * {@code records} counter gives time per record, {@code bytesPerRecord} the encoded size per record,
+ * and {@code -prof gc}'s {@code gc.alloc.rate.norm} the allocation per batch.
+ * <p>
+ * Records have the field distributions of real traffic: a few dozen endpoints, consumers and contexts
+ * of varying length (including empty ones), mostly successful statuses, and measured timings and sizes
+ * on most records. gzip is not a sender setting yet; it is measured to show what compressing would cost.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar BatchEncoding -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchEncodingBenchmark {
+
+    private static final String[] METHODS = {"GET", "GET", "GET", "POST", "PUT", "DELETE"};
+    private static final int[] STATUSES = {200, 200, 200, 200, 200, 201, 204, 400, 401, 404, 500, 503};
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    @Param({"100", "1000", "10000", "50000"})
+    int batchSize;
+
+    @Param({"json", "otlp"})
+    String encoder;
+
+    @Param({"none", "gzip"})
+    String compression;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<TelemetryRecord> batch;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class PerRecord {
+        public long records;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            records = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public double bytesPerRecord;
+    }
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] endpoints = new String[40];
+        for (int i = 0; i < endpoints.length; i++) {
+            endpoints[i] = "/api/v1/" + word(random, 4, 12) + (i % 3 == 0 ? "/{id}" : "") + (i % 5 == 0 ? "/items" : "");
+        }
+        String[] consumers = new String[200];
+        for (int i = 0; i < consumers.length; i++) {
+            // Empty for anonymous traffic, up to long client identifiers
+            consumers[i] = i % 10 == 0 ? "" : word(random, 4, 64);
+        }
+        String[] contexts = new String[20];
+        for (int i = 0; i < contexts.length; i++) {
+            contexts[i] = i % 2 == 0 ? "" : word(random, 8, 128);
+        }
+
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            int status = STATUSES[random.nextInt(STATUSES.length)];
+            long durationMicros = (long) (1000 * Math.exp(random.nextDouble() * 6));
+            TelemetryRecord record = new TelemetryRecord("orders-service", METHODS[random.nextInt(METHODS.length)],
+                endpoints[random.nextInt(endpoints.length)], status, (int) (durationMicros / 1000),
+                consumers[random.nextInt(consumers.length)], "node-1", contexts[random.nextInt(contexts.length)]);
+            if (random.nextInt(10) > 0) {
+                record.setTtfbMicros(durationMicros / 2);
+                record.setTtlbMicros(durationMicros);
+                record.setResponseBytes(random.nextLong(64, 64_000));
+            }
+            if (random.nextInt(4) == 0) {
+                record.setSampleRate(0.25);
+            }
+            batch.add(record);
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(PerRecord perRecord, Size size) throws IOException {
+        perRecord.records += batchSize;
+        byte[] payload = encode();
+        size.bytesPerRecord = (double) payload.length / batchSize;
+        return payload;
+    }
+
+    private byte[] encode() throws IOException {
+        // created_at is formatted once per record when first serialized; reset it so every batch pays for it
+        for (TelemetryRecord record : batch) {
+            record.setCreatedAt(null);
+        }
+        byte[] payload = switch (encoder) {
+            case "json" -> objectMapper.writeValueAsBytes(new TelemetryBatchRequest(batch));
+            case "otlp" -> OtlpEncoder.encode(batch, "orders-service", "node-1");
+            default -> throw new IllegalArgumentException(encoder);
+        };
+        return "gzip".equals(compression) ? gzip(payload) : payload;
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+
+    private static String word(SplittableRandom random, int minLength, int maxLength) {
+        int length = random.nextInt(minLength, maxLength + 1);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+}
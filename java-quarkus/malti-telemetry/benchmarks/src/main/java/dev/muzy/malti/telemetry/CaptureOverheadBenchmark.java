@@ -0,0 +1,155 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import io.quarkus.vertx.http.runtime.filters.Filters;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of capturing a request with the JAX-RS filter versus the Vert.x router handler.
+ * Recording itself is stubbed out, so only the capture path (timing, property storage, template
+ * lookup, header extraction) is measured. The request objects are reused plain stub classes whose
+ * accessors only read a field, so they add next to nothing to the measured time and allocation.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar CaptureOverhead -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaptureOverheadBenchmark {
+
+    private static final Map<String, String> HEADERS = Map.of("X-Consumer-Id", "mobile-app");
+
+    private Stubs.CountingTelemetryService telemetryService;
+    private TelemetryPipelines pipelines;
+    private PathNormalizer pathNormalizer;
+    private ConsumerResolver consumerResolver;
+    private OverheadGovernor governor;
+    private TelemetryEvents events;
+    private TelemetryFilter jaxrsFilter;
+    private TelemetryFilter taggingFilter;
+    private TelemetryRouteHandler routeHandler;
+    private CurrentVertxRequest currentVertxRequest;
+    private ContainerResponseStub responseContext;
+    private ContainerRequestStub request;
+    private RoutingContextStub routing;
+    private RoutingContextStub unmatchedRouting;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Stubs.infoLogging();
+        TelemetryConfig config = Stubs.config(Map.of("malti.capture-mode", "vertx"));
+        TelemetryRules rules = new TelemetryRules(List.of());
+        pipelines = new TelemetryPipelines(config, new TelemetryBuffer());
+        telemetryService = new Stubs.CountingTelemetryService();
+        pathNormalizer = new PathNormalizer(50, 10_000, 10_000);
+        consumerResolver = new ConsumerResolver(List.of("header:X-Consumer-Id", "header:X-User-Id"), "Authorization",
+            1000, new ObjectMapper());
+        governor = new OverheadGovernor(2.0, 200, 0.1, 3);
+        events = new TelemetryEvents(false, 100);
+        responseContext = new ContainerResponseStub(200);
+        request = new ContainerRequestStub("GET", "users/42", HEADERS);
+        routing = new RoutingContextStub("GET", "/users/42", 200, HEADERS);
+        unmatchedRouting = new RoutingContextStub("GET", "/static/app.js", 200, HEADERS);
+
+        routeHandler = new TelemetryRouteHandler();
+        routeHandler.telemetryService = telemetryService;
+        routeHandler.rules = rules;
+        routeHandler.pipelines = pipelines;
+        routeHandler.pathNormalizer = pathNormalizer;
+        routeHandler.consumerResolver = consumerResolver;
+        routeHandler.governor = governor;
+        routeHandler.events = events;
+        routeHandler.config = config;
+        routeHandler.register(new Filters());
+
+        currentVertxRequest = new CurrentVertxRequest();
+        jaxrsFilter = filter(rules, new TelemetryRouteHandler());
+        taggingFilter = filter(rules, routeHandler);
+    }
+
+    private TelemetryFilter filter(TelemetryRules rules, TelemetryRouteHandler routeHandler) throws NoSuchMethodException {
+        TelemetryFilter filter = new TelemetryFilter();
+        filter.telemetryService = telemetryService;
+        filter.rules = rules;
+        filter.pipelines = pipelines;
+        filter.routeHandler = routeHandler;
+        filter.pathNormalizer = pathNormalizer;
+        filter.consumerResolver = consumerResolver;
+        filter.governor = governor;
+        filter.events = events;
+        filter.currentVertxRequest = currentVertxRequest;
+        filter.resourceInfo = Stubs.resourceInfo(UserResource.class,
+            UserResource.class.getMethod("get", String.class));
+        return filter;
+    }
+
+    /**
+     * Default mode: request and response filter on a matched resource method, recorded at response end.
+     */
+    @Benchmark
+    public long jaxrsFilter() throws IOException {
+        routing.reset();
+        request.reset();
+        currentVertxRequest.setCurrent(routing);
+        jaxrsFilter.filter(request);
+        jaxrsFilter.filter(request, responseContext);
+        routing.complete();
+        return telemetryService.recorded;
+    }
+
+    /**
+     * Vert.x mode on a matched resource method: router handler plus the template-tagging filter.
+     */
+    @Benchmark
+    public long vertxHandler() throws IOException {
+        routing.reset();
+        request.reset();
+        currentVertxRequest.setCurrent(routing);
+        routeHandler.handle(routing);
+        taggingFilter.filter(request);
+        routing.complete();
+        return telemetryService.recorded;
+    }
+
+    /**
+     * Vert.x mode for a request that never reaches JAX-RS, e.g. a static resource or a 404.
+     */
+    @Benchmark
+    public long vertxHandlerUnmatched() {
+        unmatchedRouting.reset();
+        routeHandler.handle(unmatchedRouting);
+        unmatchedRouting.complete();
+        return telemetryService.recorded;
+    }
+
+    @Path("/users")
+    public static class UserResource {
+
+        @GET
+        @Path("{id}")
+        public String get(@PathParam("id") String id) {
+            return id;
+        }
+    }
+}
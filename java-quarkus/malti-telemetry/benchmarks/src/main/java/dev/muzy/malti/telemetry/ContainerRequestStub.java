@@ -0,0 +1,166 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JAX-RS request context of a benchmark request: method, path, headers and a property map cleared by
+ * {@link #reset()} between requests. Everything else is unsupported.
+ */
+final class ContainerRequestStub implements ContainerRequestContext {
+
+    private final String method;
+    private final UriInfo uriInfo;
+    private final Map<String, String> headers;
+    private final Map<String, Object> properties = new HashMap<>();
+
+    ContainerRequestStub(String method, String path, Map<String, String> headers) {
+        this.method = method;
+        this.uriInfo = new UriInfoStub(path);
+        this.headers = headers;
+    }
+
+    void reset() {
+        properties.clear();
+    }
+
+    @Override
+    public Object getProperty(String arg0) {
+        return properties.get(arg0);
+    }
+
+    @Override
+    public Collection<String> getPropertyNames() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setProperty(String arg0, Object arg1) {
+        properties.put(arg0, arg1);
+    }
+
+    @Override
+    public void removeProperty(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public UriInfo getUriInfo() {
+        return uriInfo;
+    }
+
+    @Override
+    public void setRequestUri(URI arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setRequestUri(URI arg0, URI arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Request getRequest() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public void setMethod(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getHeaders() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String getHeaderString(String arg0) {
+        return headers.get(arg0);
+    }
+
+    @Override
+    public Date getDate() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Locale getLanguage() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public int getLength() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public List<MediaType> getAcceptableMediaTypes() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public List<Locale> getAcceptableLanguages() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Map<String, Cookie> getCookies() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean hasEntity() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public InputStream getEntityStream() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setEntityStream(InputStream arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public SecurityContext getSecurityContext() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setSecurityContext(SecurityContext arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void abortWith(Response arg0) {
+        throw Stubs.unsupported();
+    }
+}
@@ -0,0 +1,175 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Link;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.core.Response;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JAX-RS response context of a benchmark request; only the status is supported.
+ */
+final class ContainerResponseStub implements ContainerResponseContext {
+
+    private final int status;
+
+    ContainerResponseStub(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setStatus(int arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Response.StatusType getStatusInfo() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setStatusInfo(Response.StatusType arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultivaluedMap<String, Object> getHeaders() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getStringHeaders() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String getHeaderString(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Set<String> getAllowedMethods() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Date getDate() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Locale getLanguage() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public int getLength() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Map<String, NewCookie> getCookies() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public EntityTag getEntityTag() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Date getLastModified() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public URI getLocation() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Set<Link> getLinks() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean hasLink(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Link getLink(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Link.Builder getLinkBuilder(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean hasEntity() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Object getEntity() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Class<?> getEntityClass() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Type getEntityType() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setEntity(Object arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setEntity(Object arg0, Annotation[] arg1, MediaType arg2) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Annotation[] getEntityAnnotations() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public OutputStream getEntityStream() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setEntityStream(OutputStream arg0) {
+        throw Stubs.unsupported();
+    }
+}
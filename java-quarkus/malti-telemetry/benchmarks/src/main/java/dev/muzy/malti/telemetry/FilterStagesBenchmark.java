@@ -0,0 +1,180 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.UriInfo;
+import org.jboss.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The stages of {@link TelemetryFilter} in isolation, to find which one a hot-path regression is in:
+ * route template building (build-time table and path normalization fallback), rule resolution,
+ * consumer and context extraction from JAX-RS and Vert.x headers, {@code recordRequest} on a fully
+ * wired {@link TelemetryService}, and the cost of a disabled debug log with and without its level guard.
+ * {@link CaptureOverheadBenchmark} measures the stages together.
+ * <p>
+ * The recording service buffers into a real {@link TelemetryBuffer} that is drained every
+ * {@value #DRAIN_EVERY} requests, so records are never evicted; the drain adds a few bytes per request.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar FilterStages -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterStagesBenchmark {
+
+    static final int DRAIN_EVERY = 1024;
+
+    private static final Map<String, String> HEADERS = Map.of("X-Consumer-Id", "mobile-app",
+        ConsumerResolver.CONTEXT_HEADER, "checkout");
+    private static final Logger LOG = Logger.getLogger(TelemetryFilter.class);
+
+    private TelemetryFilter matchedFilter;
+    private TelemetryFilter unmatchedFilter;
+    private TelemetryRules rules;
+    private ConsumerResolver consumerResolver;
+    private TelemetryService telemetryService;
+    private TelemetryBuffer buffer;
+    private TelemetryPipeline pipeline;
+    private TelemetryRules.RouteDecision route;
+    private Method resourceMethod;
+    private UriInfo uriInfo;
+    private ContainerRequestStub request;
+    private HttpServerRequest vertxRequest;
+    private int recorded;
+    private String method = "GET";
+    private String endpoint = "/users/{id}";
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Stubs.infoLogging();
+        TelemetryConfig config = Stubs.config(Map.of(
+            "malti.api-key", "benchmark-key",
+            // The benchmark drains the buffer every DRAIN_EVERY records, far below a full buffer, so no send
+            // is ever triggered
+            "malti.overflow-threshold-percent", "100"));
+        rules = new TelemetryRules(List.of());
+        PathNormalizer pathNormalizer = new PathNormalizer(50, 10_000, 10_000);
+        consumerResolver = new ConsumerResolver(List.of("header:X-Consumer-Id", "header:X-User-Id"), "Authorization",
+            1000, new ObjectMapper());
+        resourceMethod = UserResource.class.getMethod("get", String.class);
+
+        matchedFilter = filter(pathNormalizer, Stubs.resourceInfo(UserResource.class, resourceMethod));
+        unmatchedFilter = filter(pathNormalizer, Stubs.resourceInfo(null, null));
+        request = new ContainerRequestStub("GET", "users/42", HEADERS);
+        uriInfo = request.getUriInfo();
+        vertxRequest = new RoutingContextStub("GET", "/users/42", 200, HEADERS).request();
+
+        telemetryService = new TelemetryService();
+        telemetryService.config = config;
+        buffer = new TelemetryBuffer();
+        telemetryService.pipelines = new TelemetryPipelines(config, buffer);
+        telemetryService.sampler = new AdaptiveSampler();
+        telemetryService.tuning = new TelemetryTuning(config, telemetryService.pipelines, telemetryService.sampler);
+        pipeline = telemetryService.pipelines.defaultPipeline();
+        telemetryService.windowStore = new RollingWindowStore(128, 15);
+        telemetryService.heavyHitters = new HeavyHitterTracker(100, 10);
+        telemetryService.cardinalityGuard = new CardinalityGuard(500, 1000, 100);
+        telemetryService.rules = rules;
+        telemetryService.governor = new OverheadGovernor(2.0, 200, 0.1, 3);
+        telemetryService.events = new TelemetryEvents(false, 100);
+        route = rules.forTemplate("/users/{id}");
+    }
+
+    private TelemetryFilter filter(PathNormalizer pathNormalizer, ResourceInfo resourceInfo) {
+        TelemetryFilter filter = new TelemetryFilter();
+        filter.pathNormalizer = pathNormalizer;
+        filter.resourceInfo = resourceInfo;
+        return filter;
+    }
+
+    /**
+     * Template of a matched resource method, from the cached build-time table.
+     */
+    @Benchmark
+    public String routeTemplate() {
+        return matchedFilter.buildRouteTemplate(uriInfo);
+    }
+
+    /**
+     * Template of a request without a resource method, from the path normalizer's cache.
+     */
+    @Benchmark
+    public String routeTemplateNormalized() {
+        return unmatchedFilter.buildRouteTemplate(uriInfo);
+    }
+
+    @Benchmark
+    public TelemetryRules.RouteDecision routeRules() {
+        return rules.forResourceMethod(UserResource.class, resourceMethod, "/users/{id}");
+    }
+
+    @Benchmark
+    public int consumerAndContext() {
+        return consumerResolver.consumer(request).length() + consumerResolver.context(request).length();
+    }
+
+    @Benchmark
+    public int consumerAndContextVertx() {
+        return consumerResolver.consumer(vertxRequest).length() + consumerResolver.context(vertxRequest).length();
+    }
+
+    @Benchmark
+    public int recordRequest() {
+        telemetryService.recordRequest(pipeline, route, "GET", "/users/{id}", 200, 150, 1200, 64, 512, "mobile-app", "checkout");
+        if (++recorded == DRAIN_EVERY) {
+            recorded = 0;
+            buffer.getBatch(DRAIN_EVERY);
+        }
+        return recorded;
+    }
+
+    /**
+     * Disabled debug log behind a level check, as the filter does it.
+     */
+    @Benchmark
+    public void debugLogGuarded() {
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Request started: %s %s", method, endpoint);
+        }
+    }
+
+    /**
+     * Disabled debug log without the level check, for comparison.
+     */
+    @Benchmark
+    public void debugLogUnguarded() {
+        LOG.debugf("Request started: %s %s", method, endpoint);
+    }
+
+    @Path("/users")
+    public static class UserResource {
+
+        @GET
+        @Path("{id}")
+        public String get(@PathParam("id") String id) {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package dev.muzy.malti.telemetry;
+
+import io.netty.handler.codec.DecoderResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.http.HttpFrame;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerFileUpload;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.StreamPriority;
+import io.vertx.core.net.HostAndPort;
+import io.vertx.core.net.NetSocket;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.security.cert.X509Certificate;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vert.x request of a benchmark request: method, path, headers and a read byte count. Everything else
+ * is unsupported.
+ */
+final class HttpServerRequestStub implements HttpServerRequest {
+
+    private final HttpMethod method;
+    private final String path;
+    private final Map<String, String> headers;
+
+    HttpServerRequestStub(String method, String path, Map<String, String> headers) {
+        this.method = HttpMethod.valueOf(method);
+        this.path = path;
+        this.headers = headers;
+    }
+
+    @Override
+    public String getHeader(String headerName) {
+        return headers.get(headerName);
+    }
+
+    @Override
+    public String getHeader(CharSequence headerName) {
+        return headers.get(headerName.toString());
+    }
+
+    @Override
+    public HttpServerRequest exceptionHandler(Handler<Throwable> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest handler(Handler<Buffer> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest pause() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest resume() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest fetch(long arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest endHandler(Handler<Void> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpVersion version() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpMethod method() {
+        return method;
+    }
+
+    @Override
+    public String scheme() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String uri() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String path() {
+        return path;
+    }
+
+    @Override
+    public String query() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HostAndPort authority() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HostAndPort authority(boolean arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String host() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public long bytesRead() {
+        return 0;
+    }
+
+    @Override
+    public HttpServerResponse response() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultiMap headers() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest setParamsCharset(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String getParamsCharset() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultiMap params(boolean arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    @SuppressWarnings("removal")
+    public X509Certificate[] peerCertificateChain() throws SSLPeerUnverifiedException {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String absoluteURI() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Buffer> body() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> end() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<NetSocket> toNetSocket() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest setExpectMultipart(boolean arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean isExpectMultipart() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest uploadHandler(Handler<HttpServerFileUpload> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultiMap formAttributes() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String getFormAttribute(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<ServerWebSocket> toWebSocket() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean isEnded() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest customFrameHandler(Handler<HttpFrame> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpConnection connection() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerRequest streamPriorityHandler(Handler<StreamPriority> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public DecoderResult decoderResult() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Cookie getCookie(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Cookie getCookie(String arg0, String arg1, String arg2) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Set<Cookie> cookies(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Set<Cookie> cookies() {
+        throw Stubs.unsupported();
+    }
+}
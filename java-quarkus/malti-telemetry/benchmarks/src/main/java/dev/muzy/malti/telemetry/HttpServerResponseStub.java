@@ -0,0 +1,315 @@
+package dev.muzy.malti.telemetry;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.net.HostAndPort;
+
+import java.util.Set;
+
+/**
+ * Vert.x response of a benchmark request; only the status and the written byte count are supported.
+ */
+final class HttpServerResponseStub implements HttpServerResponse {
+
+    private final int status;
+
+    HttpServerResponseStub(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public HttpServerResponse exceptionHandler(Handler<Throwable> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse setWriteQueueMaxSize(int arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse drainHandler(Handler<Void> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return status;
+    }
+
+    @Override
+    public HttpServerResponse setStatusCode(int arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String getStatusMessage() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse setStatusMessage(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse setChunked(boolean arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean isChunked() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultiMap headers() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse putHeader(String arg0, String arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse putHeader(CharSequence arg0, CharSequence arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse putHeader(String arg0, Iterable<String> arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse putHeader(CharSequence arg0, Iterable<CharSequence> arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultiMap trailers() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(String arg0, String arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(CharSequence arg0, CharSequence arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(String arg0, Iterable<String> arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(CharSequence arg0, Iterable<CharSequence> arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse closeHandler(Handler<Void> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse endHandler(Handler<Void> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> writeHead() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> write(String arg0, String arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void write(String arg0, String arg1, Handler<AsyncResult<Void>> arg2) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> write(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void write(String arg0, Handler<AsyncResult<Void>> arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse writeContinue() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> writeEarlyHints(MultiMap arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void writeEarlyHints(MultiMap arg0, Handler<AsyncResult<Void>> arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> end(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void end(String arg0, Handler<AsyncResult<Void>> arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> end(String arg0, String arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void end(String arg0, String arg1, Handler<AsyncResult<Void>> arg2) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> end(Buffer arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void end(Buffer arg0, Handler<AsyncResult<Void>> arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> end() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> sendFile(String arg0, long arg1, long arg2) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse sendFile(String arg0, long arg1, long arg2, Handler<AsyncResult<Void>> arg3) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void close() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean ended() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean closed() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean headWritten() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse headersEndHandler(Handler<Void> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse bodyEndHandler(Handler<Void> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public long bytesWritten() {
+        return 512;
+    }
+
+    @Override
+    public int streamId() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<HttpServerResponse> push(HttpMethod arg0, String arg1, String arg2, MultiMap arg3) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<HttpServerResponse> push(HttpMethod arg0, HostAndPort arg1, String arg2, MultiMap arg3) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean reset(long arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse writeCustomFrame(int arg0, int arg1, Buffer arg2) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public HttpServerResponse addCookie(Cookie arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Cookie removeCookie(String arg0, boolean arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Set<Cookie> removeCookies(String arg0, boolean arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Cookie removeCookie(String arg0, String arg1, String arg2, boolean arg3) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void write(Buffer data, Handler<AsyncResult<Void>> handler) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void end(Handler<AsyncResult<Void>> handler) {
+        throw Stubs.unsupported();
+    }
+}
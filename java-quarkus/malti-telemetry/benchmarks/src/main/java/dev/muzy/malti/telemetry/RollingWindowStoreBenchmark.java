@@ -0,0 +1,60 @@
+package dev.muzy.malti.telemetry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of aggregating one request (counts, byte totals and latency histogram) into the rolling
+ * window store, for a handful of hot series or many series spread over the whole cap.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar RollingWindowStore -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RollingWindowStoreBenchmark {
+
+    @Param({"4", "128"})
+    int endpoints;
+
+    private RollingWindowStore store;
+    private String[] paths;
+
+    @Setup
+    public void setup() {
+        store = new RollingWindowStore(128, 15);
+        paths = new String[endpoints];
+        for (int i = 0; i < endpoints; i++) {
+            paths[i] = "/api/resource-" + i + "/{id}";
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        store.record("GET", paths[random.nextInt(paths.length)], "consumer", 200,
+            random.nextLong(100, 50_000), 0, random.nextLong(64, 16_384));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        record();
+    }
+}
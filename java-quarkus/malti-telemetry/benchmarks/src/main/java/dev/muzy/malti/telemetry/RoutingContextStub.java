@@ -0,0 +1,296 @@
+package dev.muzy.malti.telemetry;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.FileUpload;
+import io.vertx.ext.web.ParsedHeaderValues;
+import io.vertx.ext.web.RequestBody;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.UserContext;
+
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routing context of a benchmark request, with its own data map. The headers-end and end handlers run
+ * when {@link #complete()} is called; {@link #reset()} clears them between requests. Everything else is
+ * unsupported.
+ */
+final class RoutingContextStub implements RoutingContext {
+
+    private final HttpServerRequestStub request;
+    private final HttpServerResponseStub response;
+    private final String path;
+    private final Map<String, Object> data = new HashMap<>();
+    private Handler<Void> headersEndHandler;
+    private Handler<AsyncResult<Void>> endHandler;
+
+    RoutingContextStub(String method, String path, int status, Map<String, String> headers) {
+        this.request = new HttpServerRequestStub(method, path, headers);
+        this.response = new HttpServerResponseStub(status);
+        this.path = path;
+    }
+
+    /**
+     * Finish the request: run the headers-end handler, then the end handler.
+     */
+    void complete() {
+        if (headersEndHandler != null) {
+            headersEndHandler.handle(null);
+        }
+        if (endHandler != null) {
+            endHandler.handle(Future.succeededFuture());
+        }
+    }
+
+    void reset() {
+        data.clear();
+        headersEndHandler = null;
+        endHandler = null;
+    }
+
+    @Override
+    public HttpServerRequest request() {
+        return request;
+    }
+
+    @Override
+    public HttpServerResponse response() {
+        return response;
+    }
+
+    @Override
+    public void next() {
+    }
+
+    @Override
+    public void fail(int arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void fail(Throwable arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void fail(int arg0, Throwable arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public RoutingContext put(String arg0, Object arg1) {
+        data.put(arg0, arg1);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String arg0) {
+        return (T) data.get(arg0);
+    }
+
+    @Override
+    public <T> T get(String arg0, T arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public <T> T remove(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Map<String, Object> data() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Vertx vertx() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String mountPoint() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Route currentRoute() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String normalizedPath() {
+        return path;
+    }
+
+    @Override
+    public Cookie getCookie(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public RoutingContext addCookie(Cookie arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Cookie removeCookie(String arg0, boolean arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public int cookieCount() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Map<String, Cookie> cookieMap() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public RequestBody body() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public List<FileUpload> fileUploads() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void cancelAndCleanupFileUploads() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Session session() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean isSessionAccessed() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public UserContext userContext() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Throwable failure() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public int statusCode() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String getAcceptableContentType() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public ParsedHeaderValues parsedHeaders() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public int addHeadersEndHandler(Handler<Void> arg0) {
+        headersEndHandler = arg0;
+        return 0;
+    }
+
+    @Override
+    public boolean removeHeadersEndHandler(int arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public int addBodyEndHandler(Handler<Void> arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean removeBodyEndHandler(int arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public int addEndHandler(Handler<AsyncResult<Void>> arg0) {
+        endHandler = arg0;
+        return 0;
+    }
+
+    @Override
+    public boolean removeEndHandler(int arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public boolean failed() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setBody(Buffer arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setSession(Session arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void setAcceptableContentType(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public void reroute(HttpMethod arg0, String arg1) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public Map<String, String> pathParams() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public String pathParam(String arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultiMap queryParams() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultiMap queryParams(Charset arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public List<String> queryParam(String arg0) {
+        throw Stubs.unsupported();
+    }
+}
@@ -0,0 +1,78 @@
+package dev.muzy.malti.telemetry;
+
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import jakarta.ws.rs.container.ResourceInfo;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Configuration and services for the benchmarks. The request objects the capture code touches are plain
+ * classes of their own, such as {@link ContainerRequestStub} and {@link RoutingContextStub}, so calling them
+ * costs what a field read costs and no more.
+ */
+final class Stubs {
+
+    // Held so the level set by infoLogging() is not lost when the logger is collected
+    private static final Logger EXTENSION_LOGGER = Logger.getLogger(TelemetryService.class.getPackageName());
+
+    private Stubs() {
+    }
+
+    /**
+     * Logs the extension at INFO, the level applications run at. Without a logging configuration the
+     * log manager enables every level, and guarded debug logs would be formatted on every request.
+     */
+    static void infoLogging() {
+        EXTENSION_LOGGER.setLevel(Level.INFO);
+    }
+
+    static TelemetryConfig config(Map<String, String> properties) {
+        return new SmallRyeConfigBuilder()
+            .withMapping(TelemetryConfig.class)
+            .withSources(new PropertiesConfigSource(properties, "benchmark", 100))
+            .build()
+            .getConfigMapping(TelemetryConfig.class);
+    }
+
+    /**
+     * A telemetry service that only counts recorded requests, so benchmarks measure capture alone.
+     */
+    static final class CountingTelemetryService extends TelemetryService {
+
+        long recorded;
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        void recordRequest(TelemetryPipeline pipeline, TelemetryRules.RouteDecision route, String method,
+                           String endpoint, int status, long ttfbMicros, long durationMicros, long requestBytes,
+                           long responseBytes, String consumer, String context) {
+            recorded += status + endpoint.length() + consumer.length() + requestBytes + responseBytes;
+        }
+    }
+
+    static ResourceInfo resourceInfo(Class<?> resourceClass, Method resourceMethod) {
+        return new ResourceInfo() {
+            @Override
+            public Method getResourceMethod() {
+                return resourceMethod;
+            }
+
+            @Override
+            public Class<?> getResourceClass() {
+                return resourceClass;
+            }
+        };
+    }
+
+    static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Not used by the capture path");
+    }
+}
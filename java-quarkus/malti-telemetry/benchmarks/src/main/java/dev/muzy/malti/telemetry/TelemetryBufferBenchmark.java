@@ -0,0 +1,134 @@
+package dev.muzy.malti.telemetry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TelemetryBuffer#add} under producer contention, reported as throughput and as sampled
+ * latency percentiles:
+ * <ul>
+ *   <li>{@code addBelowCapacity}: each producer takes back its own records every {@value #PRODUCER_BATCH}
+ *       adds, so the buffer never fills and adds never evict</li>
+ *   <li>{@code addEvicting}: the buffer starts full and nothing drains it, so every add evicts</li>
+ *   <li>{@code drained}: producers add while one drainer thread takes batches of {@value #DRAIN_BATCH}
+ *       with {@link TelemetryBuffer#getBatch}, as the sender does</li>
+ * </ul>
+ * All producers add the same record instance, so allocation rates show the buffer's own cost.
+ * <p>
+ * {@link #main} runs the set at 1, 4, 16 and 64 producer threads with the GC profiler and writes one
+ * JSON result file per thread count and variant to the working directory, to keep as a baseline:
+ * {@code java -cp benchmarks/target/benchmarks.jar dev.muzy.malti.telemetry.TelemetryBufferBenchmark}.
+ * Extra JMH options, e.g. {@code -f 3}, are passed through.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TelemetryBufferBenchmark {
+
+    static final int PRODUCER_BATCH = 256;
+    static final int DRAIN_BATCH = 500;
+    static final int[] THREADS = {1, 4, 16, 64};
+
+    private static final TelemetryRecord RECORD = new TelemetryRecord(
+        "benchmark-service", "GET", "/users/{id}", 200, 12, "mobile-app", "node-1", "");
+
+    @State(Scope.Benchmark)
+    public static class SharedBuffer {
+        TelemetryBuffer buffer;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            buffer = new TelemetryBuffer();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FullBuffer {
+        TelemetryBuffer buffer;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            buffer = new TelemetryBuffer();
+            for (int i = 0; i < buffer.getMaxSize(); i++) {
+                buffer.add(RECORD);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+        int added;
+    }
+
+    @Benchmark
+    public boolean addBelowCapacity(SharedBuffer shared, Producer producer) {
+        boolean evicted = shared.buffer.add(RECORD);
+        // At most 64 producers x 256 records are buffered, well below capacity
+        if (++producer.added == PRODUCER_BATCH) {
+            producer.added = 0;
+            shared.buffer.getBatch(PRODUCER_BATCH);
+        }
+        return evicted;
+    }
+
+    @Benchmark
+    public boolean addEvicting(FullBuffer full) {
+        return full.buffer.add(RECORD);
+    }
+
+    @Benchmark
+    @Group("drained")
+    public boolean drainedAdd(SharedBuffer shared) {
+        return shared.buffer.add(RECORD);
+    }
+
+    @Benchmark
+    @Group("drained")
+    public List<TelemetryRecord> drainedGetBatch(SharedBuffer shared) {
+        return shared.buffer.getBatch(DRAIN_BATCH);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        for (int threads : THREADS) {
+            // Thread groups apply to every benchmark in a run, so the drained group runs on its own
+            run(new OptionsBuilder().parent(commandLine)
+                .include(TelemetryBufferBenchmark.class.getName() + "\\.add")
+                .threads(threads), "telemetry-buffer-" + threads + "t.json");
+            run(new OptionsBuilder().parent(commandLine)
+                .include(TelemetryBufferBenchmark.class.getName() + "\\.drained")
+                .threadGroups(threads, 1), "telemetry-buffer-drained-" + threads + "t.json");
+        }
+    }
+
+    private static void run(ChainedOptionsBuilder options, String resultFile) throws RunnerException {
+        new Runner(options
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile)
+            .build()).run();
+    }
+}
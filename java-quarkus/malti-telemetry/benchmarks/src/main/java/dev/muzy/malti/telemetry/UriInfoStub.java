@@ -0,0 +1,116 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.PathSegment;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * {@link UriInfo} of a benchmark request; only the path is supported.
+ */
+final class UriInfoStub implements UriInfo {
+
+    private final String path;
+
+    UriInfoStub(String path) {
+        this.path = path;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String getPath(boolean arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public List<PathSegment> getPathSegments() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public List<PathSegment> getPathSegments(boolean arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public URI getRequestUri() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public UriBuilder getRequestUriBuilder() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public URI getAbsolutePath() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public UriBuilder getAbsolutePathBuilder() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public URI getBaseUri() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public UriBuilder getBaseUriBuilder() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getPathParameters() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getPathParameters(boolean arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getQueryParameters() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getQueryParameters(boolean arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public List<String> getMatchedURIs() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public List<String> getMatchedURIs(boolean arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public List<Object> getMatchedResources() {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public URI resolve(URI arg0) {
+        throw Stubs.unsupported();
+    }
+
+    @Override
+    public URI relativize(URI arg0) {
+        throw Stubs.unsupported();
+    }
+}
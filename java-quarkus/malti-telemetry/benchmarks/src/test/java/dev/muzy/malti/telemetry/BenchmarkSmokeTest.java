@@ -0,0 +1,37 @@
+package dev.muzy.malti.telemetry;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every benchmark for a single short iteration, in this JVM, so a benchmark that no longer sets up
+ * or runs fails the build instead of being found the next time someone runs it by hand. The scores mean
+ * nothing at this length.
+ */
+class BenchmarkSmokeTest {
+
+    @Test
+    void testEveryBenchmarkRuns() throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(BenchmarkSmokeTest.class.getPackageName() + "\\..*Benchmark")
+            .forks(0)
+            .warmupIterations(0)
+            .measurementIterations(1)
+            .measurementTime(TimeValue.milliseconds(10))
+            .shouldFailOnError(true)
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty());
+    }
+}
@@ -0,0 +1,170 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.AdaptiveSampler;
+import dev.muzy.malti.telemetry.CardinalityGuard;
+import dev.muzy.malti.telemetry.HeavyHitterTracker;
+import dev.muzy.malti.telemetry.OverheadGovernor;
+import dev.muzy.malti.telemetry.RollingWindowStore;
+import dev.muzy.malti.telemetry.RouteTemplateRecorder;
+import dev.muzy.malti.telemetry.RouteTemplates;
+import dev.muzy.malti.telemetry.TelemetryBatchRequest;
+import dev.muzy.malti.telemetry.TelemetryBuffer;
+import dev.muzy.malti.telemetry.TelemetryMetrics;
+import dev.muzy.malti.telemetry.TelemetryPipeline;
+import dev.muzy.malti.telemetry.TelemetryRecord;
+import dev.muzy.malti.telemetry.TelemetrySettings;
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
+import io.quarkus.arc.processor.BuiltinScope;
+import io.quarkus.deployment.annotations.BuildProducer;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.annotations.ExecutionTime;
+import io.quarkus.deployment.annotations.Record;
+import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
+import io.quarkus.deployment.builditem.FeatureBuildItem;
+import io.quarkus.deployment.builditem.nativeimage.ReflectiveClassBuildItem;
+import io.quarkus.deployment.metrics.MetricsCapabilityBuildItem;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.metrics.MetricsFactory;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.IndexView;
+import org.jboss.jandex.MethodInfo;
+import org.jboss.jandex.Type;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Build steps for the Malti telemetry extension.
+ */
+class MaltiTelemetryProcessor {
+
+    private static final String FEATURE = "malti-telemetry";
+    private static final String METER_BINDER = "dev.muzy.malti.telemetry.TelemetryMeterBinder";
+
+    private static final DotName PATH = DotName.createSimple("jakarta.ws.rs.Path");
+    private static final List<DotName> HTTP_METHODS = List.of(
+        DotName.createSimple("jakarta.ws.rs.GET"),
+        DotName.createSimple("jakarta.ws.rs.POST"),
+        DotName.createSimple("jakarta.ws.rs.PUT"),
+        DotName.createSimple("jakarta.ws.rs.DELETE"),
+        DotName.createSimple("jakarta.ws.rs.PATCH"),
+        DotName.createSimple("jakarta.ws.rs.HEAD"),
+        DotName.createSimple("jakarta.ws.rs.OPTIONS")
+    );
+
+    @BuildStep
+    FeatureBuildItem feature() {
+        return new FeatureBuildItem(FEATURE);
+    }
+
+    /**
+     * Register the pipeline meters when the application uses Micrometer. The binder is referenced by
+     * name because it cannot be loaded without Micrometer on the classpath.
+     */
+    @BuildStep
+    void meterBinder(Optional<MetricsCapabilityBuildItem> metricsCapability,
+                     BuildProducer<AdditionalBeanBuildItem> additionalBeans) {
+        if (metricsCapability.map(m -> m.metricsSupported(MetricsFactory.MICROMETER)).orElse(false)) {
+            additionalBeans.produce(AdditionalBeanBuildItem.builder()
+                .addBeanClass(METER_BINDER)
+                .setDefaultScope(BuiltinScope.SINGLETON.getName())
+                .setUnremovable()
+                .build());
+        }
+    }
+
+    /**
+     * Scan the index for JAX-RS resource methods and record a static method-to-template table,
+     * so the runtime never reads {@code @Path} annotations through reflection.
+     */
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    void routeTemplates(CombinedIndexBuildItem combinedIndex, RouteTemplateRecorder recorder) {
+        recorder.setTemplates(collectRouteTemplates(combinedIndex.getIndex()));
+    }
+
+    static Map<String, String> collectRouteTemplates(IndexView index) {
+        Map<String, String> templates = new HashMap<>();
+        for (DotName httpMethod : HTTP_METHODS) {
+            for (AnnotationInstance annotation : index.getAnnotations(httpMethod)) {
+                if (annotation.target().kind() != AnnotationTarget.Kind.METHOD) {
+                    continue;
+                }
+                MethodInfo method = annotation.target().asMethod();
+                ClassInfo declaringClass = method.declaringClass();
+                String template = RouteTemplates.join(pathValue(declaringClass.declaredAnnotation(PATH)),
+                    pathValue(method.annotation(PATH)));
+                if (template.isEmpty()) {
+                    continue;
+                }
+                templates.put(key(declaringClass, method), template);
+            }
+        }
+        Log.debugf("Computed %d route templates", templates.size());
+        return templates;
+    }
+
+    private static String key(ClassInfo declaringClass, MethodInfo method) {
+        String[] parameterTypes = new String[method.parametersCount()];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypes[i] = binaryName(method.parameterType(i));
+        }
+        return RouteTemplates.key(declaringClass.name().toString(), method.name(), parameterTypes);
+    }
+
+    /**
+     * Erased type name as returned by {@link Class#getName()}.
+     */
+    private static String binaryName(Type type) {
+        return switch (type.kind()) {
+            case ARRAY -> type.name().toString().replace('/', '.');
+            case TYPE_VARIABLE -> type.asTypeVariable().bounds().isEmpty()
+                ? "java.lang.Object"
+                : binaryName(type.asTypeVariable().bounds().get(0));
+            default -> type.name().toString();
+        };
+    }
+
+    private static String pathValue(AnnotationInstance path) {
+        return path != null && path.value() != null ? path.value().asString() : null;
+    }
+
+    /**
+     * Types serialized by Jackson or returned from stats must keep their members in native images.
+     */
+    @BuildStep
+    ReflectiveClassBuildItem reflection() {
+        return ReflectiveClassBuildItem.builder(
+                TelemetryRecord.class,
+                TelemetryBatchRequest.class,
+                TelemetryBuffer.BufferStats.class,
+                HeavyHitterTracker.Snapshot.class,
+                HeavyHitterTracker.HeavyHitter.class,
+                CardinalityGuard.CardinalityStats.class,
+                AdaptiveSampler.SamplingStats.class,
+                TelemetryMetrics.PipelineStats.class,
+                TelemetryPipeline.Stats.class,
+                TelemetrySettings.class,
+                TelemetrySettings.Sampling.class,
+                TelemetrySettings.Batch.class,
+                OverheadGovernor.OverheadStats.class,
+                RollingWindowStore.WindowStats.class)
+            .constructors()
+            .methods()
+            .fields()
+            .build();
+    }
+
+    @BuildStep
+    ReflectiveClassBuildItem jacksonFilters() {
+        // Referenced from @JsonInclude(valueFilter = ...) and instantiated by Jackson
+        return ReflectiveClassBuildItem.builder(TelemetryRecord.class.getName() + "$UnsampledFilter")
+            .constructors()
+            .build();
+    }
+}
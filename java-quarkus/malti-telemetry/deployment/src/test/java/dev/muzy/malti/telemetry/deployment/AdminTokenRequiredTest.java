@@ -0,0 +1,29 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import io.quarkus.test.QuarkusUnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminTokenRequiredTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withEmptyApplication()
+        .overrideConfigKey("malti.api-key", "test-key")
+        .overrideConfigKey("malti.admin.enabled", "true")
+        .assertException(e -> {
+            Throwable cause = e;
+            while (!(cause instanceof IllegalArgumentException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertInstanceOf(IllegalArgumentException.class, cause);
+            assertTrue(cause.getMessage().contains("malti.admin.token"), cause.getMessage());
+        });
+
+    @Test
+    void testStartupFailsWithoutToken() {
+        fail("The application should not start");
+    }
+}
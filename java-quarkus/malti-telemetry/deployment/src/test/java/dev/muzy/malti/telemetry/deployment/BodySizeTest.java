@@ -0,0 +1,46 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.TelemetryBuffer;
+import dev.muzy.malti.telemetry.TelemetryRecord;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BodySizeTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(EchoResource.class, TelemetryAwait.class))
+        .overrideConfigKey("malti.api-key", "test-key");
+
+    @Inject
+    TelemetryBuffer buffer;
+
+    @Test
+    void testRequestAndResponseBytesRecorded() throws InterruptedException {
+        String body = "x".repeat(1_000);
+        given().body(body).contentType(MediaType.TEXT_PLAIN).when().post("/echo").then().statusCode(200);
+
+        TelemetryRecord record = TelemetryAwait.record(buffer);
+        assertEquals(1_000, record.getRequestBytes());
+        assertEquals(2_000, record.getResponseBytes());
+    }
+
+    @Path("echo")
+    public static class EchoResource {
+
+        @POST
+        @Produces(MediaType.TEXT_PLAIN)
+        public String echo(String body) {
+            return body + body;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.TelemetryBuffer;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsumerSourcesTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(PingResource.class, TelemetryAwait.class))
+        .overrideConfigKey("malti.api-key", "test-key")
+        .overrideConfigKey("malti.consumer.sources", "jwt:sub,query:client,header:X-Consumer-Id");
+
+    @Inject
+    TelemetryBuffer buffer;
+
+    @Test
+    void testConsumerFromFirstSourceWithValue() throws InterruptedException {
+        given().header("Authorization", "Bearer " + token("{\"sub\":\"alice\"}"))
+            .header("X-Consumer-Id", "ignored").when().get("/ping").then().statusCode(200);
+        assertEquals("alice", TelemetryAwait.record(buffer).getConsumer());
+
+        given().queryParam("client", "batch-job").when().get("/ping").then().statusCode(200);
+        assertEquals("batch-job", TelemetryAwait.record(buffer).getConsumer());
+
+        // A token without the claim falls through to the next source
+        given().header("Authorization", "Bearer " + token("{\"scope\":\"read\"}"))
+            .header("X-Consumer-Id", "mobile-app").when().get("/ping").then().statusCode(200);
+        assertEquals("mobile-app", TelemetryAwait.record(buffer).getConsumer());
+    }
+
+    private static String token(String claims) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(claims.getBytes(StandardCharsets.UTF_8)) + ".";
+    }
+
+    @Path("ping")
+    public static class PingResource {
+
+        @GET
+        public String ping() {
+            return "pong";
+        }
+    }
+}
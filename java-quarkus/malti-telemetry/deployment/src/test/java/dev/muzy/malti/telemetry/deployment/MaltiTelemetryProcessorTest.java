@@ -0,0 +1,60 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.RouteTemplates;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
+import org.jboss.jandex.Index;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+class MaltiTelemetryProcessorTest {
+
+    @Test
+    void testTableKeysMatchRuntimeKeys() throws Exception {
+        Map<String, String> templates = MaltiTelemetryProcessor.collectRouteTemplates(
+            Index.of(ItemResource.class, NoPathResource.class));
+
+        assertEquals("/items/{id}",
+            templates.get(RouteTemplates.key(ItemResource.class.getMethod("get", long.class))));
+        assertEquals("/items",
+            templates.get(RouteTemplates.key(ItemResource.class.getMethod("create", String[].class, int.class))));
+        assertEquals("/items/{id}/tags",
+            templates.get(RouteTemplates.key(ItemResource.class.getMethod("tags", long.class, List.class))));
+        assertEquals(3, templates.size());
+    }
+
+    @Path("/items")
+    public static class ItemResource {
+
+        @GET
+        @Path("/{id}")
+        public String get(@PathParam("id") long id) {
+            return "item";
+        }
+
+        @POST
+        public String create(String[] names, @QueryParam("count") int count) {
+            return "created";
+        }
+
+        @GET
+        @Path("{id}/tags")
+        public List<String> tags(@PathParam("id") long id, @QueryParam("filter") List<String> filter) {
+            return filter;
+        }
+    }
+
+    public static class NoPathResource {
+
+        @GET
+        public String get() {
+            return "unreachable";
+        }
+    }
+}
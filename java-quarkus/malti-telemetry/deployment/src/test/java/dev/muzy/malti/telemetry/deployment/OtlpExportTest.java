@@ -0,0 +1,89 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.TelemetryBuffer;
+import dev.muzy.malti.telemetry.TelemetryMetrics;
+import dev.muzy.malti.telemetry.TelemetryService;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.trace.v1.Span;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OTLP-only export, without a Malti API key, against a stand-in OTLP/HTTP receiver.
+ */
+class OtlpExportTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(PingResource.class, OtlpReceiver.class, TelemetryAwait.class))
+        .overrideConfigKey("malti.service-name", "ping-service")
+        .overrideConfigKey("malti.otlp.enabled", "true")
+        .overrideConfigKey("malti.otlp.endpoint", "http://localhost:${quarkus.http.test-port:8081}")
+        .overrideConfigKey("malti.batch.shutdown-timeout-seconds", "0");
+
+    @Inject
+    TelemetryBuffer buffer;
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Test
+    void testBatchExportedAsSpans() throws Exception {
+        OtlpReceiver.requests.clear();
+        given().header("X-Consumer-Id", "mobile-app").when().get("/ping/7").then().statusCode(200);
+        TelemetryAwait.buffered(buffer, 1);
+
+        telemetryService.sendBatchAsync().await().indefinitely();
+
+        assertEquals(1, OtlpReceiver.requests.size());
+        assertEquals("application/x-protobuf", OtlpReceiver.contentTypes.get(0));
+        ExportTraceServiceRequest request = ExportTraceServiceRequest.parseFrom(OtlpReceiver.requests.get(0));
+        assertEquals("ping-service",
+            request.getResourceSpans(0).getResource().getAttributes(0).getValue().getStringValue());
+        Span span = request.getResourceSpans(0).getScopeSpans(0).getSpans(0);
+        assertEquals("GET /ping/{id}", span.getName());
+        assertEquals(Span.SpanKind.SPAN_KIND_SERVER, span.getKind());
+
+        TelemetryMetrics.PipelineStats stats = telemetryService.getPipelineStats();
+        assertEquals(1, stats.batchesSent());
+        assertEquals(OtlpReceiver.requests.get(0).length, stats.bytesSent());
+    }
+
+    @Path("ping")
+    public static class PingResource {
+
+        @GET
+        @Path("{id}")
+        public String ping(@PathParam("id") String id) {
+            return "pong";
+        }
+    }
+
+    @Path("v1/traces")
+    public static class OtlpReceiver {
+
+        static final List<byte[]> requests = new CopyOnWriteArrayList<>();
+        static final List<String> contentTypes = new CopyOnWriteArrayList<>();
+
+        @POST
+        @Consumes("application/x-protobuf")
+        public void export(byte[] payload, @HeaderParam("Content-Type") String contentType) {
+            requests.add(payload);
+            contentTypes.add(contentType);
+        }
+    }
+}
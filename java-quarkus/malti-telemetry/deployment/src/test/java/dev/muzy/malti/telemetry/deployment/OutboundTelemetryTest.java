@@ -0,0 +1,109 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.TelemetryBuffer;
+import dev.muzy.malti.telemetry.TelemetryRecord;
+import dev.muzy.malti.telemetry.TelemetryService;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundTelemetryTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(CallResource.class, TargetResource.class, TargetClient.class,
+            IngestResource.class, TelemetryAwait.class))
+        .overrideConfigKey("malti.api-key", "test-key")
+        .overrideConfigKey("malti.outbound.enabled", "true")
+        .overrideConfigKey("malti.url", "http://localhost:${quarkus.http.test-port:8081}")
+        .overrideConfigKey("quarkus.rest-client.target.url", "http://localhost:${quarkus.http.test-port:8081}");
+
+    @Inject
+    TelemetryBuffer buffer;
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Test
+    void testOutboundCallRecordedWithTemplateAndTarget() throws InterruptedException {
+        given().when().get("/call/7").then().statusCode(200);
+
+        // Inbound /call/{id}, inbound /target/{id} and the outbound call to it
+        List<TelemetryRecord> records = TelemetryAwait.records(buffer, 3);
+        TelemetryRecord outbound = records.stream().filter(r -> r.getTarget() != null).findFirst().orElseThrow();
+        assertEquals("GET", outbound.getMethod());
+        assertEquals("/target/{id}", outbound.getEndpoint());
+        assertTrue(outbound.getTarget().startsWith("localhost:"), outbound.getTarget());
+        assertEquals(200, outbound.getStatus());
+        assertTrue(outbound.getTtlbMicros() > 0);
+    }
+
+    @Test
+    void testIngestCallsNotRecorded() throws InterruptedException {
+        given().when().get("/target/1").then().statusCode(200);
+        TelemetryAwait.records(buffer, 1);
+        given().when().get("/target/2").then().statusCode(200);
+        Thread.sleep(100);
+
+        telemetryService.sendBatchAsync().await().indefinitely();
+
+        // Only the inbound side of the ingest call is buffered, never an outbound record of it
+        TelemetryRecord ingest = TelemetryAwait.record(buffer);
+        assertEquals("/api/v1/ingest", ingest.getEndpoint());
+        assertNull(ingest.getTarget());
+        Thread.sleep(100);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Path("call")
+    public static class CallResource {
+
+        @RestClient
+        TargetClient client;
+
+        @GET
+        @Path("{id}")
+        public String call(@PathParam("id") String id) {
+            return client.get(id);
+        }
+    }
+
+    @Path("target")
+    public static class TargetResource {
+
+        @GET
+        @Path("{id}")
+        public String get(@PathParam("id") String id) {
+            return "target " + id;
+        }
+    }
+
+    @Path("api/v1/ingest")
+    public static class IngestResource {
+
+        @POST
+        public void ingest(String payload) {
+        }
+    }
+
+    @RegisterRestClient(configKey = "target")
+    @Path("/target")
+    public interface TargetClient {
+
+        @GET
+        @Path("/{id}")
+        String get(@PathParam("id") String id);
+    }
+}
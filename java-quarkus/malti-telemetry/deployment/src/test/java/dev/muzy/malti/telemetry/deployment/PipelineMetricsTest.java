@@ -0,0 +1,74 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.TelemetryBuffer;
+import dev.muzy.malti.telemetry.TelemetryMetrics;
+import dev.muzy.malti.telemetry.TelemetryService;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineMetricsTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(PingResource.class, IngestResource.class, TelemetryAwait.class))
+        .overrideConfigKey("malti.api-key", "test-key")
+        .overrideConfigKey("malti.url", "http://localhost:${quarkus.http.test-port:8081}")
+        .overrideConfigKey("malti.batch.shutdown-timeout-seconds", "0");
+
+    @Inject
+    TelemetryBuffer buffer;
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Test
+    void testSendPipelineExportedToMicrometer() throws InterruptedException {
+        given().when().get("/ping").then().statusCode(200);
+        TelemetryAwait.buffered(buffer, 1);
+
+        telemetryService.sendBatchAsync().await().indefinitely();
+
+        TelemetryMetrics.PipelineStats stats = telemetryService.getPipelineStats();
+        assertEquals(1, stats.batchesSent());
+        assertEquals(0, stats.consecutiveFailures());
+        assertEquals(0, stats.sendsInFlight());
+        assertTrue(stats.bytesSent() > 0);
+        assertEquals(1.0, stats.meanBatchRecords());
+
+        given().when().get("/q/metrics").then().statusCode(200)
+            .body(containsString("malti_telemetry_records_enqueued_total"))
+            .body(containsString("malti_telemetry_batches_sent_total 1.0"))
+            .body(containsString("malti_telemetry_send_duration_seconds_bucket"))
+            .body(containsString("malti_telemetry_record_age_seconds_count 1"))
+            .body(containsString("malti_telemetry_records_expired_total"))
+            .body(containsString("malti_telemetry_buffer_oldest_age_seconds"))
+            .body(containsString("malti_telemetry_send_consecutive_failures 0.0"))
+            .body(containsString("malti_telemetry_degradation_level 0.0"));
+    }
+
+    @Path("ping")
+    public static class PingResource {
+
+        @GET
+        public String ping() {
+            return "pong";
+        }
+    }
+
+    @Path("api/v1/ingest")
+    public static class IngestResource {
+
+        @POST
+        public void ingest(String payload) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.TelemetryPipeline;
+import dev.muzy.malti.telemetry.TelemetryPipelines;
+import dev.muzy.malti.telemetry.TelemetryService;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelinesTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(PingResource.class, BillingResource.class, AdminResource.class,
+            TelemetryAwait.class))
+        .overrideConfigKey("malti.api-key", "test-key")
+        .overrideConfigKey("malti.service-name", "gateway")
+        .overrideConfigKey("malti.pipelines.billing.routes", "/billing")
+        .overrideConfigKey("malti.pipelines.billing.service-name", "billing")
+        .overrideConfigKey("malti.pipelines.billing.api-key", "billing-key")
+        .overrideConfigKey("malti.pipelines.admin.resource-classes", AdminResource.class.getName())
+        .overrideConfigKey("malti.pipelines.admin.buffer-size", "100");
+
+    @Inject
+    TelemetryPipelines pipelines;
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Test
+    void testRequestsBufferedPerPipeline() throws InterruptedException {
+        given().when().get("/ping").then().statusCode(200);
+        given().when().get("/billing/42").then().statusCode(200);
+        given().when().get("/admin").then().statusCode(200);
+
+        TelemetryPipeline billing = pipelines.forRoute("/billing/{id}");
+        assertEquals("billing", billing.name());
+        TelemetryAwait.buffered(billing.buffer(), 1);
+        assertEquals("/billing/{id}", billing.buffer().getBatch(1).get(0).getEndpoint());
+
+        TelemetryPipeline admin = pipelines.all().stream().filter(p -> p.name().equals("admin")).findFirst().orElseThrow();
+        assertEquals("gateway", TelemetryAwait.record(admin.buffer()).getService());
+        assertEquals("/ping", TelemetryAwait.record(pipelines.defaultPipeline().buffer()).getEndpoint());
+
+        List<TelemetryPipeline.Stats> stats = telemetryService.getPipelines();
+        assertEquals(List.of("default", "admin", "billing"), stats.stream().map(TelemetryPipeline.Stats::name).toList());
+        assertEquals("billing", stats.get(2).serviceName());
+        assertEquals(100, stats.get(1).buffer().maxSize());
+        assertEquals(3, telemetryService.getStats().totalAdded());
+    }
+
+    @Path("ping")
+    public static class PingResource {
+
+        @GET
+        public String ping() {
+            return "pong";
+        }
+    }
+
+    @Path("billing/{id}")
+    public static class BillingResource {
+
+        @GET
+        public String invoice(@PathParam("id") String id) {
+            return id;
+        }
+    }
+
+    @Path("admin")
+    public static class AdminResource {
+
+        @GET
+        public String admin() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.TelemetryBuffer;
+import dev.muzy.malti.telemetry.TelemetryRecord;
+import io.quarkus.test.QuarkusUnitTest;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseTimingTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(StreamResource.class, TelemetryAwait.class))
+        .overrideConfigKey("malti.api-key", "test-key");
+
+    @Inject
+    TelemetryBuffer buffer;
+
+    @Test
+    void testStreamedResponseTimedUntilLastByte() throws InterruptedException {
+        given().when().get("/stream").then().statusCode(200);
+
+        TelemetryRecord record = TelemetryAwait.record(buffer);
+        assertEquals("/stream", record.getEndpoint());
+        // Three chunks 100ms apart: the response filter would have stopped the clock before the first one
+        assertTrue(record.getTtlbMicros() >= 200_000, "ttlb " + record.getTtlbMicros());
+        assertEquals(record.getTtlbMicros() / 1000, record.getResponseTime());
+        assertTrue(record.getTtfbMicros() > 0, "ttfb " + record.getTtfbMicros());
+        assertTrue(record.getTtfbMicros() < record.getTtlbMicros());
+    }
+
+    @Path("stream")
+    public static class StreamResource {
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public Multi<String> stream() {
+            return Multi.createFrom().ticks().every(Duration.ofMillis(100))
+                .select().first(3)
+                .map(tick -> "chunk " + tick + "\n");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.RollingWindowStore;
+import dev.muzy.malti.telemetry.TelemetryService;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTemplateBuildStepTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(GreetingResource.class, TelemetryAwait.class))
+        .overrideConfigKey("malti.api-key", "test-key")
+        .overrideConfigKey("malti.batch.shutdown-timeout-seconds", "0");
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Test
+    void testRecordedEndpointUsesTemplate() throws InterruptedException {
+        given().when().get("/greetings/alice").then().statusCode(200);
+
+        RollingWindowStore.WindowStats stats = TelemetryAwait.windowStats(telemetryService, "GET", null);
+        assertEquals("/greetings/{name}", stats.endpoint());
+    }
+
+    @Path("greetings")
+    public static class GreetingResource {
+
+        @GET
+        @Path("{name}")
+        public String greet(@PathParam("name") String name) {
+            return "Hello " + name;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.AdaptiveSampler;
+import dev.muzy.malti.telemetry.TelemetryPipeline;
+import dev.muzy.malti.telemetry.TelemetryService;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettingsEndpointTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withEmptyApplication()
+        .overrideConfigKey("malti.api-key", "test-key")
+        .overrideConfigKey("malti.admin.enabled", "true")
+        .overrideConfigKey("malti.admin.token", "secret");
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Inject
+    AdaptiveSampler sampler;
+
+    @Test
+    void testSettingsChangedOverHttp() {
+        given().when().get("/q/malti/settings").then().statusCode(401);
+
+        given().header("Authorization", "Bearer secret")
+            .when().get("/q/malti/settings")
+            .then().statusCode(200)
+            .body("overflowThresholdPercent", equalTo(90.0f))
+            .body("batches.default.size", equalTo(500));
+
+        given().header("Authorization", "Bearer secret")
+            .contentType("application/json")
+            .body("{\"sampling\": {\"targetRecordsPerSecond\": 50}, \"batches\": {\"default\": {\"size\": 20}}}")
+            .when().patch("/q/malti/settings")
+            .then().statusCode(200)
+            .body("batches.default.size", equalTo(20));
+
+        assertEquals(20, telemetryService.getSettings().batch(TelemetryPipeline.DEFAULT).size());
+        assertEquals(50, sampler.getStats().targetRecordsPerSecond());
+
+        given().header("Authorization", "Bearer secret")
+            .contentType("application/json")
+            .body("{\"batches\": {\"default\": {\"size\": 0}}}")
+            .when().patch("/q/malti/settings")
+            .then().statusCode(400)
+            .body("error", containsString("positive"));
+        assertEquals(20, telemetryService.getSettings().batch(TelemetryPipeline.DEFAULT).size());
+
+        given().header("Authorization", "Bearer secret")
+            .contentType("application/json")
+            .body("{\"batches\": {\"default\": {\"size\": 30}}}")
+            .when().put("/q/malti/settings")
+            .then().statusCode(405)
+            .header("Allow", "GET, PATCH");
+        assertEquals(20, telemetryService.getSettings().batch(TelemetryPipeline.DEFAULT).size());
+    }
+}
@@ -0,0 +1,79 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.RollingWindowStore;
+import dev.muzy.malti.telemetry.TelemetryBuffer;
+import dev.muzy.malti.telemetry.TelemetryRecord;
+import dev.muzy.malti.telemetry.TelemetryService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Requests are recorded by end handlers after the response is flushed, so a client may see the
+ * response before its telemetry exists. Tests poll instead of asserting right away.
+ */
+final class TelemetryAwait {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private TelemetryAwait() {
+    }
+
+    static RollingWindowStore.WindowStats windowStats(TelemetryService telemetryService, String method,
+                                                      String endpoint) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            List<RollingWindowStore.WindowStats> stats = telemetryService.queryWindows(
+                new RollingWindowStore.WindowQuery(Duration.ofMinutes(1), method, endpoint, null, false, 0));
+            if (!stats.isEmpty()) {
+                return stats.get(0);
+            }
+            Thread.sleep(10);
+        }
+        return fail("No requests recorded for " + method + " " + endpoint);
+    }
+
+    /**
+     * Wait until at least {@code count} records are buffered, without draining them.
+     */
+    static void buffered(TelemetryBuffer buffer, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (buffer.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, buffer.size(), "Buffered records");
+    }
+
+    /**
+     * Drain the next buffered record.
+     */
+    static TelemetryRecord record(TelemetryBuffer buffer) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            List<TelemetryRecord> batch = buffer.getBatch(1);
+            if (!batch.isEmpty()) {
+                return batch.get(0);
+            }
+            Thread.sleep(10);
+        }
+        return fail("No telemetry record buffered");
+    }
+
+    /**
+     * Drain buffered records until {@code count} have been collected.
+     */
+    static List<TelemetryRecord> records(TelemetryBuffer buffer, int count) throws InterruptedException {
+        List<TelemetryRecord> records = new ArrayList<>();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (records.size() < count && System.nanoTime() < deadline) {
+            records.addAll(buffer.getBatch(count - records.size()));
+            Thread.sleep(10);
+        }
+        assertEquals(count, records.size(), "Buffered records: " + records);
+        return records;
+    }
+}
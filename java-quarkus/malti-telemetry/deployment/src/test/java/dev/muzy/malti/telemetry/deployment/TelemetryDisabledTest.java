@@ -0,0 +1,68 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.OverheadGovernor;
+import dev.muzy.malti.telemetry.RollingWindowStore;
+import dev.muzy.malti.telemetry.TelemetryBuffer;
+import dev.muzy.malti.telemetry.TelemetryService;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelemetryDisabledTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(PingResource.class))
+        .overrideConfigKey("malti.api-key", "test-key")
+        .overrideConfigKey("malti.enabled", "false")
+        .overrideConfigKey("malti.overhead.enabled", "true")
+        .overrideConfigKey("malti.admin.enabled", "true");
+
+    @Inject
+    TelemetryBuffer buffer;
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Test
+    void testNothingCaptured() throws Exception {
+        given().when().get("/ping").then().statusCode(200);
+        // Telemetry would record in an end handler registered before the resource's own, which has now run
+        PingResource.ended.get(10, TimeUnit.SECONDS);
+
+        assertTrue(buffer.isEmpty());
+        assertTrue(telemetryService.queryWindows(new RollingWindowStore.WindowQuery(Duration.ofMinutes(1),
+            null, null, null, false, 10)).isEmpty());
+        // Switched off explicitly, not by the overhead governor
+        OverheadGovernor.OverheadStats overhead = telemetryService.getOverheadStats();
+        assertFalse(overhead.enabled());
+        assertEquals(OverheadGovernor.DegradationLevel.NORMAL, overhead.level());
+        given().when().get("/q/malti/settings").then().statusCode(404);
+    }
+
+    @Path("ping")
+    public static class PingResource {
+
+        static final CompletableFuture<Void> ended = new CompletableFuture<>();
+
+        @Inject
+        CurrentVertxRequest currentVertxRequest;
+
+        @GET
+        public String ping() {
+            currentVertxRequest.getCurrent().addEndHandler(result -> ended.complete(null));
+            return "pong";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dev.muzy.malti.telemetry.deployment;
+
+import dev.muzy.malti.telemetry.RollingWindowStore;
+import dev.muzy.malti.telemetry.TelemetryService;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VertxCaptureModeTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+        .withApplicationRoot(jar -> jar.addClasses(ItemResource.class, TelemetryAwait.class))
+        .overrideConfigKey("malti.api-key", "test-key")
+        .overrideConfigKey("malti.capture-mode", "vertx")
+        .overrideConfigKey("malti.clean-mode", "false")
+        .overrideConfigKey("malti.batch.shutdown-timeout-seconds", "0");
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Test
+    void testCapturesMatchedAndUnmatchedRequests() throws InterruptedException {
+        given().header("X-Consumer-Id", "alice").when().get("/items/42").then().statusCode(200);
+        given().when().get("/not-a-resource/42").then().statusCode(404);
+
+        // Recorded exactly once with the JAX-RS template, not by both the filter and the handler
+        RollingWindowStore.WindowStats item = TelemetryAwait.windowStats(telemetryService, "GET", "/items/{id}");
+        assertEquals(1, item.requests());
+
+        // Requests that never reach a resource method are captured with their normalized path
+        RollingWindowStore.WindowStats unmatched = TelemetryAwait.windowStats(telemetryService, "GET", "/not-a-resource/{id}");
+        assertEquals(1, unmatched.errors());
+    }
+
+    @Path("items")
+    public static class ItemResource {
+
+        @GET
+        @Path("{id}")
+        public String get(@PathParam("id") String id) {
+            return "item " + id;
+        }
+    }
+}
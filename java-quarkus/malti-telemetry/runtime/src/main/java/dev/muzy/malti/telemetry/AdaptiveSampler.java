@@ -0,0 +1,166 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive sampler that keeps the number of buffered records near a records-per-second budget.
+ * Errors (status 400 and above) and slow requests are always kept. Successful fast requests are
+ * kept with probability {@code rate}, which is recomputed about once per second from the observed
+ * traffic. The per-request decision is a volatile read, a {@link LongAdder} increment and a
+ * thread-local random draw, so request threads never contend on a shared lock.
+ * <p>
+ * The sampling settings can change at runtime: {@link TelemetryService} passes the current
+ * {@link TelemetrySettings.Sampling} with each request, and the sampler's own copy, used by
+ * {@link #sample(int, long)} and the statistics, is replaced by {@link TelemetryTuning} as it publishes
+ * new settings.
+ */
+@ApplicationScoped
+public class AdaptiveSampler {
+
+    private static final long PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double MIN_RATE = 0.001;
+    private static final double SMOOTHING = 0.5;
+
+    @Inject
+    TelemetryConfig config;
+
+    private volatile TelemetrySettings.Sampling settings = new TelemetrySettings.Sampling(false, 1, 0);
+
+    private final LongAdder sampleable = new LongAdder();
+    private final LongAdder alwaysKept = new LongAdder();
+    private final LongAdder kept = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicBoolean recomputing = new AtomicBoolean(false);
+    private volatile long periodStart = System.nanoTime();
+    private volatile double rate = 1.0;
+    private double smoothedSampleable = -1;
+
+    public AdaptiveSampler() {
+    }
+
+    AdaptiveSampler(double targetPerSecond, long slowThresholdMillis) {
+        configure(true, targetPerSecond, slowThresholdMillis);
+    }
+
+    @PostConstruct
+    void init() {
+        TelemetryConfig.Sampling s = config.sampling();
+        configure(s.enabled(), s.targetRecordsPerSecond(), s.slowThresholdMs());
+    }
+
+    private void configure(boolean enabled, double targetPerSecond, long slowThresholdMillis) {
+        reconfigure(new TelemetrySettings.Sampling(enabled, Math.max(1.0, targetPerSecond), slowThresholdMillis));
+    }
+
+    /**
+     * Replace the settings used by {@link #sample(int, long)} and reported in the statistics. The current
+     * rate is kept and converges to the new target within a few periods.
+     */
+    void reconfigure(TelemetrySettings.Sampling settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Decide whether a request is kept.
+     *
+     * @return the rate the record was sampled at ({@code 1.0} when always kept), or {@code 0} when dropped
+     */
+    public double sample(int status, long latencyMicros) {
+        return sample(settings, status, latencyMicros, System.nanoTime());
+    }
+
+    /**
+     * Decide whether a request is kept under the given settings, normally the current snapshot's.
+     */
+    double sample(TelemetrySettings.Sampling settings, int status, long latencyMicros) {
+        return sample(settings, status, latencyMicros, System.nanoTime());
+    }
+
+    double sample(int status, long latencyMicros, long nowNanos) {
+        return sample(settings, status, latencyMicros, nowNanos);
+    }
+
+    private double sample(TelemetrySettings.Sampling settings, int status, long latencyMicros, long nowNanos) {
+        if (!settings.enabled()) {
+            return 1.0;
+        }
+        if (nowNanos - periodStart >= PERIOD_NANOS) {
+            recompute(nowNanos, settings.targetRecordsPerSecond());
+        }
+        if (status >= 400 || latencyMicros >= TimeUnit.MILLISECONDS.toMicros(settings.slowThresholdMs())) {
+            alwaysKept.increment();
+            kept.increment();
+            return 1.0;
+        }
+        sampleable.increment();
+        double r = rate;
+        if (r >= 1.0 || ThreadLocalRandom.current().nextDouble() < r) {
+            kept.increment();
+            return r;
+        }
+        dropped.increment();
+        return 0;
+    }
+
+    /**
+     * Recompute the rate from the previous period. Only one thread does this per period.
+     */
+    private void recompute(long nowNanos, double targetPerSecond) {
+        if (!recomputing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = periodStart;
+            long elapsed = nowNanos - start;
+            if (elapsed < PERIOD_NANOS) {
+                return;
+            }
+            double seconds = elapsed / 1e9;
+            double sampleablePerSecond = sampleable.sumThenReset() / seconds;
+            double alwaysPerSecond = alwaysKept.sumThenReset() / seconds;
+
+            smoothedSampleable = smoothedSampleable < 0
+                ? sampleablePerSecond
+                : SMOOTHING * sampleablePerSecond + (1 - SMOOTHING) * smoothedSampleable;
+
+            // Errors and slow requests use up the budget first
+            double available = Math.max(0, targetPerSecond - alwaysPerSecond);
+            double next = smoothedSampleable <= available ? 1.0 : available / smoothedSampleable;
+            rate = Math.max(MIN_RATE, Math.min(1.0, next));
+            periodStart = nowNanos;
+        } finally {
+            recomputing.set(false);
+        }
+    }
+
+    /**
+     * Current sampling rate for successful fast requests.
+     */
+    public double currentRate() {
+        return settings.enabled() ? rate : 1.0;
+    }
+
+    public SamplingStats getStats() {
+        TelemetrySettings.Sampling settings = this.settings;
+        return new SamplingStats(settings.enabled(), settings.enabled() ? rate : 1.0, settings.targetRecordsPerSecond(),
+            kept.sum(), dropped.sum());
+    }
+
+    /**
+     * Sampler statistics since startup.
+     */
+    public record SamplingStats(
+        boolean enabled,
+        double currentRate,
+        double targetRecordsPerSecond,
+        long kept,
+        long dropped
+    ) {}
+}
@@ -0,0 +1,126 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of distinct endpoint, consumer and context values at capture time.
+ * The first {@code limit} values of a dimension are admitted; anything beyond that collapses
+ * into {@link #OTHER} and is counted as suppressed. Distinct values are estimated with
+ * HyperLogLog so the true cardinality is still visible in stats.
+ */
+@ApplicationScoped
+public class CardinalityGuard {
+
+    private static final Logger LOG = Logger.getLogger(CardinalityGuard.class);
+
+    /**
+     * Replacement value for anything over a dimension's limit.
+     */
+    public static final String OTHER = RollingWindowStore.OTHER;
+
+    private static final int HLL_PRECISION = 12;
+
+    @Inject
+    TelemetryConfig config;
+
+    private boolean enabled;
+    private Dimension endpoints;
+    private Dimension consumers;
+    private Dimension contexts;
+
+    public CardinalityGuard() {
+    }
+
+    CardinalityGuard(int endpointLimit, int consumerLimit, int contextLimit) {
+        configure(true, endpointLimit, consumerLimit, contextLimit);
+    }
+
+    @PostConstruct
+    void init() {
+        TelemetryConfig.Cardinality c = config.cardinality();
+        configure(c.enabled(), c.endpointLimit(), c.consumerLimit(), c.contextLimit());
+    }
+
+    private void configure(boolean enabled, int endpointLimit, int consumerLimit, int contextLimit) {
+        this.enabled = enabled;
+        this.endpoints = new Dimension("endpoint", endpointLimit);
+        this.consumers = new Dimension("consumer", consumerLimit);
+        this.contexts = new Dimension("context", contextLimit);
+    }
+
+    public String endpoint(String value) {
+        return enabled ? endpoints.admit(value) : value;
+    }
+
+    public String consumer(String value) {
+        return enabled ? consumers.admit(value) : value;
+    }
+
+    public String context(String value) {
+        return enabled ? contexts.admit(value) : value;
+    }
+
+    /**
+     * Per-dimension cardinality statistics.
+     */
+    public List<CardinalityStats> getStats() {
+        return List.of(endpoints.stats(), consumers.stats(), contexts.stats());
+    }
+
+    /**
+     * Statistics for one dimension. {@code estimatedDistinct} counts every value seen,
+     * including suppressed ones; {@code suppressed} counts requests that were collapsed.
+     */
+    public record CardinalityStats(
+        String dimension,
+        int limit,
+        int tracked,
+        long estimatedDistinct,
+        long suppressed
+    ) {}
+
+    private static final class Dimension {
+        final String name;
+        final int limit;
+        final Set<String> admitted = ConcurrentHashMap.newKeySet();
+        final HyperLogLog distinct = new HyperLogLog(HLL_PRECISION);
+        final LongAdder suppressed = new LongAdder();
+        final AtomicBoolean warned = new AtomicBoolean(false);
+
+        Dimension(String name, int limit) {
+            this.name = name;
+            this.limit = Math.max(0, limit);
+        }
+
+        String admit(String value) {
+            if (value == null || value.isEmpty() || admitted.contains(value)) {
+                return value;
+            }
+            distinct.add(value);
+            // Concurrent admissions may overshoot the limit by a few values, which is fine
+            if (admitted.size() < limit) {
+                admitted.add(value);
+                return value;
+            }
+            suppressed.increment();
+            if (warned.compareAndSet(false, true)) {
+                LOG.warnf("Telemetry %s cardinality limit (%d) reached, further values are recorded as %s",
+                    name, limit, OTHER);
+            }
+            return OTHER;
+        }
+
+        CardinalityStats stats() {
+            return new CardinalityStats(name, limit, admitted.size(), distinct.estimate(), suppressed.sum());
+        }
+    }
+}
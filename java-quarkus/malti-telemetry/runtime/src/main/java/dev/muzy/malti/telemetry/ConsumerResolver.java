@@ -0,0 +1,201 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the consumer and context of a request for both the JAX-RS and the Vert.x capture paths.
+ * The consumer comes from the first configured source with a value: a header, a query parameter
+ * or a claim of the bearer token. Token claims are decoded without verifying the signature, since
+ * the consumer is only a label; decoded consumers are cached by a 64-bit hash of the token, so
+ * Base64 and JSON decoding happen once per token rather than once per request.
+ */
+@ApplicationScoped
+public class ConsumerResolver {
+
+    static final String CONTEXT_HEADER = "X-Malti-Context";
+
+    private static final String BEARER = "Bearer ";
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final Logger LOG = Logger.getLogger(ConsumerResolver.class);
+
+    private static final Lookup<HttpServerRequest> VERTX_HEADER = HttpServerRequest::getHeader;
+    private static final Lookup<HttpServerRequest> VERTX_QUERY = HttpServerRequest::getParam;
+    private static final Lookup<ContainerRequestContext> JAXRS_HEADER = ContainerRequestContext::getHeaderString;
+    private static final Lookup<ContainerRequestContext> JAXRS_QUERY =
+        (request, name) -> request.getUriInfo().getQueryParameters().getFirst(name);
+
+    @Inject
+    TelemetryConfig config;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<Long, String> tokenCache = new ConcurrentHashMap<>();
+    private List<Source> sources;
+    private String tokenHeader;
+    private int tokenCacheSize;
+
+    public ConsumerResolver() {
+    }
+
+    ConsumerResolver(List<String> sources, String tokenHeader, int tokenCacheSize, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        configure(sources, tokenHeader, tokenCacheSize);
+    }
+
+    @PostConstruct
+    void init() {
+        TelemetryConfig.Consumer c = config.consumer();
+        configure(c.sources(), c.tokenHeader(), c.tokenCacheSize());
+    }
+
+    private void configure(List<String> sources, String tokenHeader, int tokenCacheSize) {
+        List<Source> parsed = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            parsed.add(Source.of(i, sources.get(i).trim()));
+        }
+        this.sources = List.copyOf(parsed);
+        this.tokenHeader = tokenHeader;
+        this.tokenCacheSize = Math.max(0, tokenCacheSize);
+    }
+
+    /**
+     * Consumer of a request on the Vert.x router, or an empty string when no source has a value.
+     */
+    public String consumer(HttpServerRequest request) {
+        return consumer(request, VERTX_HEADER, VERTX_QUERY);
+    }
+
+    public String consumer(ContainerRequestContext request) {
+        return consumer(request, JAXRS_HEADER, JAXRS_QUERY);
+    }
+
+    /**
+     * Value of the {@value #CONTEXT_HEADER} header, or null when absent or blank.
+     */
+    public String context(HttpServerRequest request) {
+        return trimToNull(request.getHeader(CONTEXT_HEADER));
+    }
+
+    public String context(ContainerRequestContext request) {
+        return trimToNull(request.getHeaderString(CONTEXT_HEADER));
+    }
+
+    private <R> String consumer(R request, Lookup<R> headers, Lookup<R> query) {
+        for (Source source : sources) {
+            String value = switch (source.type()) {
+                case HEADER -> headers.get(request, source.name());
+                case QUERY -> query.get(request, source.name());
+                case JWT -> claim(headers.get(request, tokenHeader), source.name());
+            };
+            if (value != null && !value.isEmpty()) {
+                return value.trim();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * A claim of a bearer token, null when the header holds no bearer token, or empty when the claim cannot be read.
+     */
+    String claim(String authorization, String claim) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        // Cached per token and claim; an empty string caches tokens without the claim
+        long key = hash(authorization, claim);
+        String cached = tokenCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String value = decodeClaim(authorization.substring(BEARER.length()).trim(), claim);
+        if (tokenCache.size() >= tokenCacheSize) {
+            tokenCache.clear();
+        }
+        if (tokenCacheSize > 0) {
+            tokenCache.put(key, value);
+        }
+        return value;
+    }
+
+    private String decodeClaim(String token, String claim) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0) {
+            return "";
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(first + 1, second));
+            JsonNode value = objectMapper.readTree(payload).get(claim);
+            return value != null && value.isValueNode() ? value.asText() : "";
+        } catch (Exception e) {
+            LOG.debugf("Could not decode bearer token payload: %s", e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash, so tokens themselves are never kept in memory.
+     */
+    private static long hash(String token, String claim) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < token.length(); i++) {
+            hash = (hash ^ token.charAt(i)) * FNV_PRIME;
+        }
+        hash = (hash ^ '#') * FNV_PRIME;
+        for (int i = 0; i < claim.length(); i++) {
+            hash = (hash ^ claim.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static String trimToNull(String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            return value.trim();
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface Lookup<R> {
+        String get(R request, String name);
+    }
+
+    enum SourceType {
+        HEADER, QUERY, JWT
+    }
+
+    record Source(SourceType type, String name) {
+
+        static Source of(int index, String spec) {
+            int colon = spec.indexOf(':');
+            if (colon > 0 && colon < spec.length() - 1) {
+                SourceType type = switch (spec.substring(0, colon).trim().toLowerCase()) {
+                    case "header" -> SourceType.HEADER;
+                    case "query" -> SourceType.QUERY;
+                    case "jwt" -> SourceType.JWT;
+                    default -> null;
+                };
+                if (type != null) {
+                    return new Source(type, spec.substring(colon + 1).trim());
+                }
+            }
+            throw new IllegalArgumentException("malti.consumer.sources[" + index
+                + "] must be header:<name>, query:<name> or jwt:<claim>, was " + spec);
+        }
+    }
+}
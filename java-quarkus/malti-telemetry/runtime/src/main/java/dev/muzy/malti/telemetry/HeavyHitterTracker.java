@@ -0,0 +1,164 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the heaviest consumers by request count, error count and total latency.
+ * Consumers come from client headers and are unbounded, so each dimension uses a
+ * Space-Saving sketch with a fixed number of counters instead of exact per-consumer counts.
+ * <p>
+ * Request threads update one of several stripes of sketches, chosen by thread, so they rarely wait on
+ * each other; snapshots merge the stripes. A drain swaps in fresh stripes rather than clearing them.
+ */
+@ApplicationScoped
+public class HeavyHitterTracker {
+
+    @Inject
+    TelemetryConfig config;
+
+    private static final int STRIPES = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 2);
+
+    private boolean enabled;
+    private int topK;
+    private int counters;
+    private volatile Interval current;
+
+    /**
+     * Sketches for one export interval, one of each dimension per stripe.
+     */
+    private static final class Interval {
+        final SpaceSaving[] requests = new SpaceSaving[STRIPES];
+        final SpaceSaving[] errors = new SpaceSaving[STRIPES];
+        final SpaceSaving[] latency = new SpaceSaving[STRIPES];
+        volatile Instant since = Instant.now();
+
+        Interval(int counters) {
+            for (int i = 0; i < STRIPES; i++) {
+                requests[i] = new SpaceSaving(counters);
+                errors[i] = new SpaceSaving(counters);
+                latency[i] = new SpaceSaving(counters);
+            }
+        }
+    }
+
+    public HeavyHitterTracker() {
+    }
+
+    HeavyHitterTracker(int capacity, int topK) {
+        configure(true, capacity, topK);
+    }
+
+    @PostConstruct
+    void init() {
+        configure(config.heavyHitters().enabled(), config.heavyHitters().capacity(), config.heavyHitters().topK());
+    }
+
+    private void configure(boolean enabled, int capacity, int topK) {
+        this.enabled = enabled;
+        this.topK = Math.max(1, topK);
+        this.counters = Math.max(capacity, this.topK);
+        this.current = new Interval(counters);
+    }
+
+    /**
+     * Record one request for a consumer. Anonymous requests (empty consumer) are not tracked.
+     */
+    public void record(String consumer, int status, long latencyMicros) {
+        if (!enabled || consumer == null || consumer.isEmpty()) {
+            return;
+        }
+        Interval interval = current;
+        int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+        interval.requests[stripe].add(consumer, 1);
+        if (status >= 400) {
+            interval.errors[stripe].add(consumer, 1);
+        }
+        interval.latency[stripe].add(consumer, Math.max(1, latencyMicros));
+    }
+
+    /**
+     * Current heavy hitters since start or since the last {@link #drain()}.
+     */
+    public Snapshot snapshot() {
+        return snapshot(current);
+    }
+
+    private Snapshot snapshot(Interval interval) {
+        return new Snapshot(
+            interval.since.toString(),
+            toHitters(SpaceSaving.merge(List.of(interval.requests), topK)),
+            toHitters(SpaceSaving.merge(List.of(interval.errors), topK)),
+            toHitters(SpaceSaving.merge(List.of(interval.latency), topK))
+        );
+    }
+
+    /**
+     * Take a snapshot for export and start a new interval. If the export fails, hand the snapshot back
+     * with {@link #restore} so its counts are reported with the next one.
+     */
+    public Snapshot drain() {
+        Interval drained = current;
+        current = new Interval(counters);
+        return snapshot(drained);
+    }
+
+    /**
+     * Add a drained snapshot that could not be exported back into the current interval, which then starts
+     * when the snapshot's interval started.
+     */
+    public void restore(Snapshot snapshot) {
+        Interval interval = current;
+        restore(interval.requests[0], snapshot.byRequests());
+        restore(interval.errors[0], snapshot.byErrors());
+        restore(interval.latency[0], snapshot.byLatency());
+        Instant drainedSince = Instant.parse(snapshot.since());
+        if (drainedSince.isBefore(interval.since)) {
+            interval.since = drainedSince;
+        }
+    }
+
+    private static void restore(SpaceSaving sketch, List<HeavyHitter> hitters) {
+        for (HeavyHitter hitter : hitters) {
+            sketch.add(hitter.consumer(), hitter.value(), hitter.maxError());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private static List<HeavyHitter> toHitters(List<SpaceSaving.Entry> entries) {
+        List<HeavyHitter> hitters = new ArrayList<>(entries.size());
+        for (SpaceSaving.Entry e : entries) {
+            hitters.add(new HeavyHitter(e.key(), e.count(), e.error()));
+        }
+        return hitters;
+    }
+
+    /**
+     * Estimated total for one consumer; the true value lies in {@code [value - maxError, value]}.
+     * For the latency dimension the value is the summed latency in microseconds.
+     */
+    public record HeavyHitter(
+        @JsonProperty("consumer") String consumer,
+        @JsonProperty("value") long value,
+        @JsonProperty("max_error") long maxError
+    ) {}
+
+    /**
+     * Top consumers per dimension for the interval starting at {@code since}.
+     */
+    public record Snapshot(
+        @JsonProperty("since") String since,
+        @JsonProperty("by_requests") List<HeavyHitter> byRequests,
+        @JsonProperty("by_errors") List<HeavyHitter> byErrors,
+        @JsonProperty("by_latency_us") List<HeavyHitter> byLatency
+    ) {}
+}
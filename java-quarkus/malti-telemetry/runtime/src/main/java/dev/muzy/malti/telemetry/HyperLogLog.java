@@ -0,0 +1,79 @@
+package dev.muzy.malti.telemetry;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Minimal HyperLogLog distinct-value estimator with 2^precision one-byte registers.
+ * With the default precision of 12 it uses 4 KiB and has a standard error of about 1.6%.
+ * <p>
+ * Lock-free: registers are packed eight to a long and only ever raised, with a compare-and-set loop.
+ * Once a register holds its final rank, adding a value that maps to it is a single volatile read.
+ */
+final class HyperLogLog {
+
+    private final int precision;
+    private final int registerCount;
+    // Eight one-byte registers per word, register i in byte (i & 7) of word (i >>> 3)
+    private final AtomicLongArray registers;
+    private final double alpha;
+
+    HyperLogLog(int precision) {
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new AtomicLongArray(Math.max(1, registerCount >>> 3));
+        this.alpha = 0.7213 / (1 + 1.079 / registerCount);
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        // Rank of the first set bit in the remaining bits, capped for an all-zero tail
+        long rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        int word = index >>> 3;
+        int shift = (index & 7) << 3;
+        long current = registers.get(word);
+        while (rank > ((current >>> shift) & 0xff)) {
+            long raised = (current & ~(0xffL << shift)) | (rank << shift);
+            long witness = registers.compareAndExchange(word, current, raised);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int index = 0; index < registerCount; index++) {
+            int r = (int) (registers.get(index >>> 3) >>> ((index & 7) << 3)) & 0xff;
+            sum += 1.0 / (1L << r);
+            if (r == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            // Small-range correction (linear counting)
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, followed by the MurmurHash3 finalizer for avalanche.
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
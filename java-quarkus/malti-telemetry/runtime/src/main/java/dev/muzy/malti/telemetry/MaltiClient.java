@@ -1,6 +1,5 @@
 package dev.muzy.malti.telemetry;
 
-import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Consumes;
@@ -9,24 +8,24 @@ import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 /**
- * REST client for sending telemetry data to the Malti server.
- * This client is configured to be reactive and non-blocking.
+ * REST client for sending telemetry data to the Malti server, called from the pipelines' sender threads.
  */
 @RegisterRestClient(configKey = "malti-api")
 public interface MaltiClient {
     
     /**
-     * Send a batch of telemetry records to the Malti server.
+     * Send a batch that has already been encoded as JSON, blocking until the server has answered.
+     * Must not be called on an event-loop thread.
      * 
      * @param apiKey The API key for authentication
-     * @param batchRequest The telemetry batch request containing the records
-     * @return A Uni that completes when the request is sent
+     * @param payload The JSON-encoded {@link TelemetryBatchRequest}
+     * @throws jakarta.ws.rs.WebApplicationException if the server rejects the batch
      */
     @POST
     @Path("/api/v1/ingest")
     @Consumes(MediaType.APPLICATION_JSON)
-    Uni<Void> sendTelemetryBatch(
+    void sendTelemetryBatch(
         @HeaderParam("X-API-Key") String apiKey,
-        TelemetryBatchRequest batchRequest
+        byte[] payload
     );
 }
@@ -0,0 +1,27 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+
+/**
+ * REST client for an OTLP/HTTP receiver such as an OpenTelemetry Collector.
+ */
+@RegisterRestClient(configKey = "malti-otlp")
+public interface OtlpClient {
+
+    String PROTOBUF = "application/x-protobuf";
+
+    /**
+     * Export spans encoded by {@link OtlpEncoder}, blocking until the receiver has answered.
+     * Must not be called on an event-loop thread.
+     *
+     * @param payload A protobuf-encoded {@code ExportTraceServiceRequest}
+     * @throws jakarta.ws.rs.WebApplicationException if the receiver rejects the request
+     */
+    @POST
+    @Path("/v1/traces")
+    @Consumes(PROTOBUF)
+    void exportTraces(byte[] payload);
+}
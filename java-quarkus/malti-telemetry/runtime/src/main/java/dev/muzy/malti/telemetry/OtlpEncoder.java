@@ -0,0 +1,223 @@
+package dev.muzy.malti.telemetry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Encodes a batch of records as an OTLP {@code ExportTraceServiceRequest} protobuf, one span per record.
+ * Inbound requests become server spans and outbound calls client spans, with HTTP semantic convention
+ * attributes; spans of 5xx responses carry an error status. The wire format is written directly, so
+ * the extension needs no protobuf or OpenTelemetry dependency.
+ */
+final class OtlpEncoder {
+
+    static final String SCOPE_NAME = "dev.muzy.malti.telemetry";
+
+    private static final int SPAN_KIND_SERVER = 2;
+    private static final int SPAN_KIND_CLIENT = 3;
+    private static final int STATUS_CODE_ERROR = 2;
+
+    private OtlpEncoder() {
+    }
+
+    /**
+     * Encode {@code batch} under a resource describing this service and node.
+     */
+    static byte[] encode(List<TelemetryRecord> batch, String serviceName, String node) {
+        ProtoWriter out = new ProtoWriter(256 + batch.size() * 192);
+        // ExportTraceServiceRequest.resource_spans
+        int resourceSpans = out.beginMessage(1);
+        // ResourceSpans.resource
+        int resource = out.beginMessage(1);
+        attribute(out, 1, "service.name", serviceName);
+        attribute(out, 1, "service.instance.id", node);
+        out.endMessage(resource);
+        // ResourceSpans.scope_spans
+        int scopeSpans = out.beginMessage(2);
+        int scope = out.beginMessage(1);
+        out.string(1, SCOPE_NAME);
+        out.endMessage(scope);
+        for (TelemetryRecord record : batch) {
+            span(out, record);
+        }
+        out.endMessage(scopeSpans);
+        out.endMessage(resourceSpans);
+        return out.toByteArray();
+    }
+
+    private static void span(ProtoWriter out, TelemetryRecord record) {
+        long durationNanos = record.getTtlbMicros() > 0
+            ? record.getTtlbMicros() * 1000
+            : record.getResponseTime() * 1_000_000L;
+        long endNanos = record.createdEpochNanos();
+        boolean outbound = record.getTarget() != null;
+
+        // ScopeSpans.spans
+        int span = out.beginMessage(2);
+        byte[] ids = new byte[24];
+        ThreadLocalRandom.current().nextBytes(ids);
+        out.bytes(1, ids, 0, 16);
+        out.bytes(2, ids, 16, 8);
+        out.string(5, record.getMethod() + " " + record.getEndpoint());
+        out.varint(6, outbound ? SPAN_KIND_CLIENT : SPAN_KIND_SERVER);
+        out.fixed64(7, endNanos - durationNanos);
+        out.fixed64(8, endNanos);
+
+        attribute(out, 9, "http.request.method", record.getMethod());
+        attribute(out, 9, outbound ? "url.template" : "http.route", record.getEndpoint());
+        attribute(out, 9, "http.response.status_code", record.getStatus());
+        if (outbound) {
+            attribute(out, 9, "server.address", record.getTarget());
+        }
+        if (record.getRequestBytes() > 0) {
+            attribute(out, 9, "http.request.body.size", record.getRequestBytes());
+        }
+        if (record.getResponseBytes() > 0) {
+            attribute(out, 9, "http.response.body.size", record.getResponseBytes());
+        }
+        if (record.getConsumer() != null && !record.getConsumer().isEmpty()) {
+            attribute(out, 9, "malti.consumer", record.getConsumer());
+        }
+        if (record.getContext() != null && !record.getContext().isEmpty()) {
+            attribute(out, 9, "malti.context", record.getContext());
+        }
+        if (record.getSampleRate() > 0) {
+            attribute(out, 9, "malti.sample_rate", record.getSampleRate());
+        }
+
+        if (record.getStatus() >= 500) {
+            // Span.status, Status.code
+            int status = out.beginMessage(15);
+            out.varint(3, STATUS_CODE_ERROR);
+            out.endMessage(status);
+        }
+        out.endMessage(span);
+    }
+
+    private static void attribute(ProtoWriter out, int field, String key, String value) {
+        int keyValue = out.beginMessage(field);
+        out.string(1, key);
+        int any = out.beginMessage(2);
+        out.string(1, value != null ? value : "");
+        out.endMessage(any);
+        out.endMessage(keyValue);
+    }
+
+    private static void attribute(ProtoWriter out, int field, String key, long value) {
+        int keyValue = out.beginMessage(field);
+        out.string(1, key);
+        int any = out.beginMessage(2);
+        out.varint(3, value);
+        out.endMessage(any);
+        out.endMessage(keyValue);
+    }
+
+    private static void attribute(ProtoWriter out, int field, String key, double value) {
+        int keyValue = out.beginMessage(field);
+        out.string(1, key);
+        int any = out.beginMessage(2);
+        out.fixed64(4, Double.doubleToRawLongBits(value));
+        out.endMessage(any);
+        out.endMessage(keyValue);
+    }
+
+    /**
+     * Minimal protobuf writer. Nested messages reserve one length byte and are shifted in place when
+     * their length needs more, so no intermediate buffers are allocated per message.
+     */
+    static final class ProtoWriter {
+        private static final int WIRE_VARINT = 0;
+        private static final int WIRE_FIXED64 = 1;
+        private static final int WIRE_LENGTH = 2;
+
+        private byte[] buf;
+        private int pos;
+
+        ProtoWriter(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        /**
+         * Start a nested message; returns the position to pass to {@link #endMessage}.
+         */
+        int beginMessage(int field) {
+            tag(field, WIRE_LENGTH);
+            ensure(1);
+            return pos++;
+        }
+
+        void endMessage(int lengthPos) {
+            int length = pos - lengthPos - 1;
+            int size = varintSize(length);
+            if (size > 1) {
+                ensure(size - 1);
+                System.arraycopy(buf, lengthPos + 1, buf, lengthPos + size, length);
+                pos += size - 1;
+            }
+            int end = pos;
+            pos = lengthPos;
+            rawVarint(length);
+            pos = end;
+        }
+
+        void string(int field, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            bytes(field, bytes, 0, bytes.length);
+        }
+
+        void bytes(int field, byte[] value, int offset, int length) {
+            tag(field, WIRE_LENGTH);
+            rawVarint(length);
+            ensure(length);
+            System.arraycopy(value, offset, buf, pos, length);
+            pos += length;
+        }
+
+        void varint(int field, long value) {
+            tag(field, WIRE_VARINT);
+            rawVarint(value);
+        }
+
+        void fixed64(int field, long value) {
+            tag(field, WIRE_FIXED64);
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buf[pos++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void tag(int field, int wireType) {
+            rawVarint(((long) field << 3) | wireType);
+        }
+
+        private void rawVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        private static int varintSize(long value) {
+            int size = 1;
+            while ((value & ~0x7FL) != 0) {
+                value >>>= 7;
+                size++;
+            }
+            return size;
+        }
+
+        private void ensure(int bytes) {
+            if (pos + bytes > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + bytes));
+            }
+        }
+    }
+}
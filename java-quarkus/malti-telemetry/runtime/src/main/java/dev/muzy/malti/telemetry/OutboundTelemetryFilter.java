@@ -0,0 +1,89 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+import org.jboss.logging.Logger;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+
+/**
+ * Client filter that records outbound REST client calls when {@code malti.outbound.enabled=true}.
+ * The path is reported as the client interface's route template (e.g. /users/{id}) when the call
+ * was made through a typed REST client, otherwise as the path templated by the {@link PathNormalizer}.
+ * Calls made by the extension's own clients, such as {@link MaltiClient}, are never recorded, which
+ * would feed back into the buffer they drain. The duration ends when the response headers arrive;
+ * calls that fail without a response are not recorded.
+ */
+@Provider
+public class OutboundTelemetryFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    static final String INVOKED_METHOD_PROPERTY = "org.eclipse.microprofile.rest.client.invokedMethod";
+
+    private static final String START_TIME_PROPERTY = "malti.outbound.start.time";
+    private static final String OWN_PACKAGE = OutboundTelemetryFilter.class.getPackageName();
+
+    private static final Logger LOG = Logger.getLogger(OutboundTelemetryFilter.class);
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Inject
+    PathNormalizer pathNormalizer;
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        if (!telemetryService.isOutboundEnabled() || isOwnClient(requestContext)) {
+            return;
+        }
+        requestContext.setProperty(START_TIME_PROPERTY, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        Object start = requestContext.getProperty(START_TIME_PROPERTY);
+        if (start == null) {
+            return;
+        }
+        try {
+            long durationMicros = (System.nanoTime() - (Long) start) / 1000;
+            URI uri = requestContext.getUri();
+            telemetryService.recordOutbound(requestContext.getMethod(), target(uri),
+                endpoint(requestContext, uri), responseContext.getStatus(), durationMicros);
+        } catch (Exception e) {
+            LOG.debugf("Outbound telemetry recording failed: %s", e.getMessage());
+        }
+    }
+
+    private static boolean isOwnClient(ClientRequestContext requestContext) {
+        return requestContext.getProperty(INVOKED_METHOD_PROPERTY) instanceof Method method
+            && method.getDeclaringClass().getPackageName().equals(OWN_PACKAGE);
+    }
+
+    private String endpoint(ClientRequestContext requestContext, URI uri) {
+        if (requestContext.getProperty(INVOKED_METHOD_PROPERTY) instanceof Method method) {
+            String template = RouteTemplates.lookup(method.getDeclaringClass(), method);
+            if (template != null) {
+                return template;
+            }
+        }
+        String path = uri.getRawPath();
+        return path == null || path.isEmpty() ? "/" : pathNormalizer.normalize(path);
+    }
+
+    /**
+     * Host and port of the call, without user info.
+     */
+    private static String target(URI uri) {
+        String authority = uri.getRawAuthority();
+        if (authority == null) {
+            return uri.getHost();
+        }
+        int at = authority.lastIndexOf('@');
+        return at >= 0 ? authority.substring(at + 1) : authority;
+    }
+}
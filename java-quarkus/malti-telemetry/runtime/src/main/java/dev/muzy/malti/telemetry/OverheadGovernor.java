@@ -0,0 +1,226 @@
+package dev.muzy.malti.telemetry;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the extension's own cost within {@code malti.overhead.budget-percent} of request time.
+ * Capture code reports how long it spent on each request next to the request's duration, and a
+ * periodic Vert.x timer measures event-loop lag, counting only as much of it as telemetry code spent on
+ * event-loop threads since the timer last fired, so a slow application does not degrade its telemetry.
+ * Every evaluation interval the governor moves one {@link DegradationLevel} up when either is over
+ * budget, and one level back down after {@code recovery-intervals} consecutive intervals below half of
+ * it. Intervals without captured requests are not calm intervals; at {@code DISABLED} one in
+ * {@value #DISABLED_PROBE_INTERVAL} requests is still captured so there is something to measure.
+ * The first interval after startup is skipped, as class loading and JIT compilation are not the
+ * extension's steady-state cost.
+ * <p>
+ * Time is measured on the request thread, so the budget is a share of request latency; it stands in
+ * for CPU share without the cost of per-thread CPU clocks.
+ */
+@ApplicationScoped
+public class OverheadGovernor {
+
+    /**
+     * How much work is done per request, from everything down to nothing.
+     */
+    public enum DegradationLevel {
+        /** Full capture */
+        NORMAL,
+        /** Successful requests are additionally sampled at {@code degraded-sample-rate} */
+        SAMPLE_HARDER,
+        /** Rolling windows and heavy hitters only; no records are buffered or sent */
+        AGGREGATE_ONLY,
+        /** Requests are not captured, apart from the governor's own probes, which are aggregated only */
+        DISABLED
+    }
+
+    private static final long LAG_PROBE_MILLIS = 100;
+    static final int DISABLED_PROBE_INTERVAL = 100;
+
+    private static final Logger LOG = Logger.getLogger(OverheadGovernor.class);
+
+    @Inject
+    TelemetryConfig config;
+
+    @Inject
+    Vertx vertx;
+
+    private final LongAdder overheadNanos = new LongAdder();
+    private final LongAdder requestNanos = new LongAdder();
+    private final LongAdder eventLoopOverheadNanos = new LongAdder();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final LongAdder levelChanges = new LongAdder();
+    private volatile DegradationLevel level = DegradationLevel.NORMAL;
+    private volatile double lastOverheadPercent;
+    private volatile long lastLagMillis;
+    private boolean enabled;
+    private double budgetPercent;
+    private long maxLagMillis;
+    private double degradedSampleRate;
+    private int recoveryIntervals;
+    private int calmIntervals;
+    private long lastProbeNanos;
+    private boolean warmingUp;
+
+    public OverheadGovernor() {
+    }
+
+    OverheadGovernor(double budgetPercent, long maxLagMillis, double degradedSampleRate, int recoveryIntervals) {
+        configure(true, budgetPercent, maxLagMillis, degradedSampleRate, recoveryIntervals);
+    }
+
+    @PostConstruct
+    void init() {
+        TelemetryConfig.Overhead o = config.overhead();
+        // With telemetry switched off there is no overhead to govern
+        configure(o.enabled() && config.enabled(), o.budgetPercent(), o.maxEventLoopLagMs(), o.degradedSampleRate(),
+            o.recoveryIntervals());
+    }
+
+    private void configure(boolean enabled, double budgetPercent, long maxLagMillis, double degradedSampleRate,
+                           int recoveryIntervals) {
+        this.enabled = enabled;
+        this.budgetPercent = budgetPercent;
+        this.maxLagMillis = maxLagMillis;
+        this.degradedSampleRate = Math.min(1.0, Math.max(0.0, degradedSampleRate));
+        this.recoveryIntervals = Math.max(1, recoveryIntervals);
+    }
+
+    void startLagProbe(@Observes StartupEvent event) {
+        if (enabled) {
+            warmingUp = true;
+            lastProbeNanos = System.nanoTime();
+            vertx.setPeriodic(LAG_PROBE_MILLIS, id -> probeLag());
+        }
+    }
+
+    private void probeLag() {
+        long now = System.nanoTime();
+        long lagNanos = now - lastProbeNanos - TimeUnit.MILLISECONDS.toNanos(LAG_PROBE_MILLIS);
+        lastProbeNanos = now;
+        // Lag beyond the time telemetry code held event loops was caused by the application
+        recordLag(Math.min(lagNanos, eventLoopOverheadNanos.sumThenReset()));
+    }
+
+    /**
+     * Report event-loop lag caused by telemetry code.
+     */
+    void recordLag(long lagNanos) {
+        if (lagNanos > maxLagNanos.get()) {
+            maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+        }
+    }
+
+    public DegradationLevel level() {
+        return level;
+    }
+
+    /**
+     * Whether to capture a request: always unless disabled, and then one in {@value #DISABLED_PROBE_INTERVAL}
+     * requests while the governor is measuring, so it can tell when capture would fit the budget again.
+     */
+    boolean captures() {
+        return level != DegradationLevel.DISABLED
+            || (enabled && ThreadLocalRandom.current().nextInt(DISABLED_PROBE_INTERVAL) == 0);
+    }
+
+    /**
+     * Report the time capture code spent on one request, and the request's own duration.
+     */
+    void record(long overheadNanos, long requestNanos) {
+        if (enabled) {
+            this.overheadNanos.add(overheadNanos);
+            this.requestNanos.add(requestNanos);
+            if (Context.isOnEventLoopThread()) {
+                eventLoopOverheadNanos.add(overheadNanos);
+            }
+        }
+    }
+
+    /**
+     * Sampling rate after degradation for a record about to be buffered, or zero to drop it.
+     * Errors are never dropped for overhead reasons.
+     */
+    double degrade(double sampleRate, int status) {
+        if (level != DegradationLevel.SAMPLE_HARDER || status >= 400) {
+            return sampleRate;
+        }
+        return ThreadLocalRandom.current().nextDouble() < degradedSampleRate ? sampleRate * degradedSampleRate : 0;
+    }
+
+    @Scheduled(every = "${malti.overhead.interval-seconds:5}s", skipExecutionIf = TelemetryDisabled.class)
+    void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        long overhead = overheadNanos.sumThenReset();
+        long requests = requestNanos.sumThenReset();
+        double percent = requests == 0 ? 0 : 100.0 * overhead / requests;
+        long lagMillis = TimeUnit.NANOSECONDS.toMillis(maxLagNanos.getAndSet(0));
+        if (warmingUp) {
+            // Class loading and JIT compilation right after startup are not the extension's steady-state cost
+            warmingUp = false;
+            return;
+        }
+        lastOverheadPercent = percent;
+        lastLagMillis = lagMillis;
+
+        DegradationLevel current = level;
+        if (percent > budgetPercent || lagMillis > maxLagMillis) {
+            calmIntervals = 0;
+            if (current != DegradationLevel.DISABLED) {
+                change(current, DegradationLevel.values()[current.ordinal() + 1], percent, lagMillis);
+            }
+        } else if (requests == 0) {
+            // Nothing was measured, which says nothing about whether capture fits the budget
+        } else if (percent < budgetPercent / 2 && lagMillis < maxLagMillis / 2) {
+            if (current != DegradationLevel.NORMAL && ++calmIntervals >= recoveryIntervals) {
+                calmIntervals = 0;
+                change(current, DegradationLevel.values()[current.ordinal() - 1], percent, lagMillis);
+            }
+        } else {
+            calmIntervals = 0;
+        }
+    }
+
+    private void change(DegradationLevel from, DegradationLevel to, double percent, long lagMillis) {
+        level = to;
+        levelChanges.increment();
+        if (to.ordinal() > from.ordinal()) {
+            LOG.warnf("Telemetry overhead %.2f%% of request time, event loop lag %d ms; degrading to %s",
+                percent, lagMillis, to);
+        } else {
+            LOG.infof("Telemetry overhead back within budget; recovering to %s", to);
+        }
+    }
+
+    public OverheadStats getStats() {
+        return new OverheadStats(enabled, level, budgetPercent, lastOverheadPercent, lastLagMillis,
+            levelChanges.sum());
+    }
+
+    /**
+     * Overhead statistics; overhead and lag are from the last evaluation interval.
+     */
+    public record OverheadStats(
+        boolean enabled,
+        DegradationLevel level,
+        double budgetPercent,
+        double overheadPercent,
+        long eventLoopLagMillis,
+        long levelChanges
+    ) {}
+}
@@ -0,0 +1,333 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns raw request paths into route-like templates when no {@code @Path} template is known, so
+ * {@code /items/123} and {@code /items/124} are both reported as {@code /items/{id}}.
+ * <p>
+ * Numeric, UUID, long hex and high-entropy segments are replaced by placeholders directly. Other
+ * segments are learned from traffic in a prefix trie: once a prefix has been followed by more than
+ * {@code learnThreshold} distinct literal segments, that position is treated as variable and reported
+ * as {@link #PARAM}. The trie and the result cache are both bounded; once the trie is full, unseen
+ * literal segments are passed through and left to the {@link CardinalityGuard}. The cache evicts with
+ * the clock algorithm, and learning a variable segment only invalidates cached results computed before
+ * it, as they are looked up, rather than emptying the cache.
+ */
+@ApplicationScoped
+public class PathNormalizer {
+
+    static final String ID = "{id}";
+    static final String UUID = "{uuid}";
+    static final String HEX = "{hex}";
+    static final String TOKEN = "{token}";
+    static final String PARAM = "{param}";
+
+    private static final int MIN_HEX_LENGTH = 16;
+    private static final int MIN_TOKEN_LENGTH = 20;
+    private static final double MIN_TOKEN_ENTROPY_BITS = 3.5;
+
+    private static final Logger LOG = Logger.getLogger(PathNormalizer.class);
+
+    @Inject
+    TelemetryConfig config;
+
+    private final ConcurrentHashMap<String, Cached> cache = new ConcurrentHashMap<>();
+    // Clock over the cached paths; guarded by the cache map's monitor, only taken on cache misses
+    private String[] ring = new String[0];
+    private int ringFilled;
+    private int hand;
+    private final Node root = new Node();
+    private final AtomicInteger nodes = new AtomicInteger();
+    // Bumped whenever a segment becomes variable; cached results from an older trie are recomputed
+    private final AtomicInteger trieVersion = new AtomicInteger();
+    private boolean enabled;
+    private int learnThreshold;
+    private int maxNodes;
+
+    /**
+     * A cached result, with the trie version it was computed against and the clock's reference bit.
+     */
+    private static final class Cached {
+        final String normalized;
+        final int version;
+        volatile boolean referenced;
+
+        Cached(String normalized, int version) {
+            this.normalized = normalized;
+            this.version = version;
+        }
+    }
+
+    public PathNormalizer() {
+    }
+
+    PathNormalizer(int learnThreshold, int maxNodes, int cacheSize) {
+        configure(true, learnThreshold, maxNodes, cacheSize);
+    }
+
+    @PostConstruct
+    void init() {
+        TelemetryConfig.PathNormalization n = config.pathNormalization();
+        configure(n.enabled(), n.learnThreshold(), n.maxNodes(), n.cacheSize());
+    }
+
+    private void configure(boolean enabled, int learnThreshold, int maxNodes, int cacheSize) {
+        this.enabled = enabled;
+        this.learnThreshold = Math.max(1, learnThreshold);
+        this.maxNodes = Math.max(0, maxNodes);
+        this.ring = new String[Math.max(0, cacheSize)];
+    }
+
+    /**
+     * Normalize a raw path. Empty segments are dropped and the result always starts with a slash.
+     */
+    public String normalize(String path) {
+        if (path == null) {
+            return null;
+        }
+        if (!enabled) {
+            return path.startsWith("/") ? path : "/" + path;
+        }
+        int version = trieVersion.get();
+        Cached cached = cache.get(path);
+        if (cached != null && cached.version == version) {
+            if (!cached.referenced) {
+                cached.referenced = true;
+            }
+            return cached.normalized;
+        }
+
+        StringBuilder out = new StringBuilder(path.length() + 1);
+        Node node = root;
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end > start) {
+                String segment = path.substring(start, end);
+                String placeholder = classify(segment);
+                String key = placeholder != null ? placeholder : segment;
+                if (node != null) {
+                    if (placeholder == null && node.variable) {
+                        key = PARAM;
+                    }
+                    Node child = node.children.get(key);
+                    if (child == null) {
+                        child = learn(node, key, placeholder == null);
+                        if (placeholder == null && node.variable) {
+                            // This segment pushed the prefix over the threshold
+                            key = PARAM;
+                        }
+                    }
+                    node = child;
+                }
+                out.append('/').append(key);
+            }
+            start = end + 1;
+        }
+        String normalized = out.length() == 0 ? "/" : out.toString();
+
+        cache(path, new Cached(normalized, version));
+        return normalized;
+    }
+
+    /**
+     * Cache a result, replacing an outdated one for the same path or else evicting the first cached path
+     * the clock hand finds not referenced since it last passed.
+     */
+    private void cache(String path, Cached result) {
+        synchronized (cache) {
+            if (ring.length == 0) {
+                return;
+            }
+            if (cache.replace(path, result) != null) {
+                return;
+            }
+            if (ringFilled < ring.length) {
+                ring[ringFilled++] = path;
+            } else {
+                while (true) {
+                    Cached candidate = cache.get(ring[hand]);
+                    if (candidate.referenced) {
+                        candidate.referenced = false;
+                        hand = (hand + 1) % ring.length;
+                    } else {
+                        break;
+                    }
+                }
+                cache.remove(ring[hand]);
+                ring[hand] = path;
+                hand = (hand + 1) % ring.length;
+            }
+            cache.put(path, result);
+        }
+    }
+
+    /**
+     * Add an unseen segment below {@code node}, or make the node variable when it has too many literal children.
+     * Returns the child to continue with, or null when the trie is full.
+     */
+    private Node learn(Node node, String key, boolean literal) {
+        synchronized (node) {
+            Node existing = node.children.get(key);
+            if (existing != null || node.released) {
+                // A released node was cut from the trie by a concurrent makeVariable; stop learning below it
+                return existing;
+            }
+            // The root is never made variable, so stray top-level paths cannot collapse the whole tree
+            if (literal && node != root && node.literals >= learnThreshold) {
+                makeVariable(node);
+                return node.children.get(PARAM);
+            }
+            if (!reserveNode()) {
+                return null;
+            }
+            Node child = new Node();
+            node.children.put(key, child);
+            if (literal) {
+                node.literals++;
+            }
+            return child;
+        }
+    }
+
+    /**
+     * Number of learned trie nodes, not counting the root.
+     */
+    int nodeCount() {
+        return nodes.get();
+    }
+
+    /**
+     * Count a new node against {@code maxNodes}, or return false when the trie is full.
+     */
+    private boolean reserveNode() {
+        int count;
+        do {
+            count = nodes.get();
+            if (count >= maxNodes) {
+                return false;
+            }
+        } while (!nodes.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    private void makeVariable(Node node) {
+        int removed = 0;
+        for (var it = node.children.entrySet().iterator(); it.hasNext(); ) {
+            var entry = it.next();
+            if (!entry.getKey().startsWith("{")) {
+                it.remove();
+                removed += release(entry.getValue());
+            }
+        }
+        node.children.put(PARAM, new Node());
+        node.literals = 0;
+        node.variable = true;
+        nodes.addAndGet(1 - removed);
+        // Paths cached under the old literal segments would otherwise keep their own endpoints
+        trieVersion.incrementAndGet();
+        LOG.debugf("Learned a variable path segment, %d trie nodes released", removed);
+    }
+
+    /**
+     * Mark a detached subtree released and count its nodes. Each node is marked under its own lock, so
+     * threads still walking the subtree cannot add nodes that would never be subtracted again.
+     */
+    private static int release(Node node) {
+        synchronized (node) {
+            node.released = true;
+        }
+        int released = 1;
+        for (Node child : node.children.values()) {
+            released += release(child);
+        }
+        return released;
+    }
+
+    /**
+     * Placeholder for a segment that is a value by its shape alone, or null for a literal segment.
+     */
+    static String classify(String segment) {
+        int length = segment.length();
+        int digits = 0;
+        int letters = 0;
+        boolean hex = true;
+        boolean token = true;
+        for (int i = 0; i < length; i++) {
+            char c = segment.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                letters++;
+                hex &= (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+            } else {
+                hex = false;
+                token &= c == '-' || c == '_';
+            }
+        }
+        if (digits == length) {
+            return ID;
+        }
+        if (length == 36 && isUuid(segment)) {
+            return UUID;
+        }
+        if (hex && digits > 0 && length >= MIN_HEX_LENGTH) {
+            return HEX;
+        }
+        if (token && digits > 0 && letters > 0 && length >= MIN_TOKEN_LENGTH
+            && entropyBits(segment) >= MIN_TOKEN_ENTROPY_BITS) {
+            return TOKEN;
+        }
+        return null;
+    }
+
+    private static boolean isUuid(String s) {
+        for (int i = 0; i < 36; i++) {
+            char c = s.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shannon entropy in bits per character; only called for ASCII token candidates.
+     */
+    private static double entropyBits(String s) {
+        int[] counts = new int[128];
+        for (int i = 0; i < s.length(); i++) {
+            counts[s.charAt(i)]++;
+        }
+        double entropy = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                double p = (double) count / s.length();
+                entropy -= p * Math.log(p) / Math.log(2);
+            }
+        }
+        return entropy;
+    }
+
+    private static final class Node {
+        final ConcurrentHashMap<String, Node> children = new ConcurrentHashMap<>();
+        int literals;
+        volatile boolean variable;
+        // Guarded by the node's monitor
+        boolean released;
+    }
+}
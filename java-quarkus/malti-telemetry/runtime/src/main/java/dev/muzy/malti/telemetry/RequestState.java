@@ -0,0 +1,94 @@
+package dev.muzy.malti.telemetry;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Everything captured about one in-flight request, kept in a single object so the request phase
+ * allocates only it and its two response callbacks. Timing is monotonic ({@link System#nanoTime()}):
+ * {@link #headersEnd} takes time to first byte when the response headers are written, and {@link #end}
+ * hands the request to its {@link Recorder} once the whole body, including streamed and async
+ * responses, has been written. Headers are not copied here;
+ * recorders read them from the request only if the request is actually recorded.
+ */
+final class RequestState {
+
+    /**
+     * Records a completed request.
+     */
+    @FunctionalInterface
+    interface Recorder {
+        void record(RoutingContext routingContext, RequestState state);
+    }
+
+    private final long startNanos;
+    private final RoutingContext routingContext;
+    private final Recorder recorder;
+    private volatile long ttfbMicros;
+
+    /**
+     * Resolved route template, rules and pipeline, or null until a JAX-RS resource method has been matched.
+     */
+    String endpoint;
+    TelemetryRules.RouteDecision route;
+    TelemetryPipeline pipeline;
+
+    /**
+     * Nanoseconds spent in telemetry code during the request phase, reported to the {@link OverheadGovernor}.
+     */
+    long overheadNanos;
+
+    /**
+     * JFR capture event started with the request, or null when this request is not sampled for one.
+     */
+    TelemetryEvents.CaptureEvent event;
+
+    private RequestState(long startNanos, RoutingContext routingContext, Recorder recorder) {
+        this.startNanos = startNanos;
+        this.routingContext = routingContext;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Start timing now and hand the request to {@code recorder} once the response has been written.
+     */
+    static RequestState start(RoutingContext routingContext, Recorder recorder) {
+        RequestState state = new RequestState(System.nanoTime(), routingContext, recorder);
+        routingContext.addHeadersEndHandler(state::headersEnd);
+        routingContext.addEndHandler(state::end);
+        return state;
+    }
+
+    /**
+     * State for requests without a routing context, timed from the request to the response filter.
+     */
+    static RequestState detached(String endpoint, TelemetryRules.RouteDecision route, TelemetryPipeline pipeline) {
+        RequestState state = new RequestState(System.nanoTime(), null, null);
+        state.endpoint = endpoint;
+        state.route = route;
+        state.pipeline = pipeline;
+        return state;
+    }
+
+    private void headersEnd(Void ignored) {
+        ttfbMicros = elapsedMicros();
+    }
+
+    private void end(AsyncResult<Void> result) {
+        recorder.record(routingContext, this);
+    }
+
+    /**
+     * Microseconds until the response headers were written, or 0 if they have not been.
+     */
+    long ttfbMicros() {
+        return ttfbMicros;
+    }
+
+    /**
+     * Microseconds since the request started.
+     */
+    long elapsedMicros() {
+        return (System.nanoTime() - startNanos) / 1000;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.muzy.malti.telemetry;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values resolved once per JAX-RS resource method as invoked on a concrete resource class. An inherited
+ * method belongs to each subclass it is invoked on, with that subclass's {@code @Path}, so the class is part
+ * of the key. A lookup is two map reads and allocates nothing.
+ */
+final class ResourceMethodCache<V> {
+
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<Method, V>> byClass = new ConcurrentHashMap<>();
+
+    /**
+     * The cached value, or null when none has been stored yet.
+     */
+    V get(Class<?> resourceClass, Method method) {
+        ConcurrentHashMap<Method, V> values = byClass.get(resourceClass);
+        return values != null ? values.get(method) : null;
+    }
+
+    /**
+     * Store {@code value} unless another thread got there first.
+     *
+     * @return the value now cached
+     */
+    V putIfAbsent(Class<?> resourceClass, Method method, V value) {
+        V previous = byClass.computeIfAbsent(resourceClass, c -> new ConcurrentHashMap<>()).putIfAbsent(method, value);
+        return previous != null ? previous : value;
+    }
+
+    void clear() {
+        byClass.clear();
+    }
+}
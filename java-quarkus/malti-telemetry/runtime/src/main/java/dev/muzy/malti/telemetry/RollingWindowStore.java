@@ -0,0 +1,471 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory, time-bucketed view of recent traffic on this node.
+ * Every series (method + endpoint + consumer) keeps three ring buffers at 1s, 10s and 60s
+ * resolution, each slot holding request/error counts, request/response byte totals and a fixed
+ * log-linear latency histogram.
+ * The number of series is capped, so memory is fixed regardless of traffic; series beyond the
+ * cap are folded into a single overflow series. Series without traffic for the whole retention
+ * window are evicted when the cap is reached and on queries, so their slots go to new series.
+ * Recording is O(1) and looks its series up without building a key.
+ */
+@ApplicationScoped
+public class RollingWindowStore {
+
+    /**
+     * Placeholder used for series that did not fit under the series cap.
+     */
+    public static final String OTHER = "__other__";
+
+    private static final int FINE_SLOTS = 60;     // 1s x 60 = last minute
+    private static final int MEDIUM_SLOTS = 60;   // 10s x 60 = last 10 minutes
+
+    @Inject
+    TelemetryConfig config;
+
+    private static final long EVICTION_INTERVAL_MILLIS = 1_000;
+
+    // Method, then endpoint, then consumer. Only series are evicted; the maps per method and endpoint
+    // stay, bounded by the endpoint cardinality limit
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, ConcurrentHashMap<String, Series>>> series =
+        new ConcurrentHashMap<>();
+    private final AtomicInteger seriesCount = new AtomicInteger();
+    private final AtomicLong nextEvictionMillis = new AtomicLong();
+    private int maxSeries;
+    private int retentionMinutes;
+    private boolean enabled;
+    private Series overflow;
+
+    public RollingWindowStore() {
+    }
+
+    RollingWindowStore(int maxSeries, int retentionMinutes) {
+        configure(true, maxSeries, retentionMinutes);
+    }
+
+    @PostConstruct
+    void init() {
+        configure(config.windows().enabled(), config.windows().maxSeries(), config.windows().retentionMinutes());
+    }
+
+    private void configure(boolean enabled, int maxSeries, int retentionMinutes) {
+        this.enabled = enabled;
+        this.maxSeries = Math.max(1, maxSeries);
+        this.retentionMinutes = Math.max(1, retentionMinutes);
+        this.overflow = new Series(new SeriesKey(OTHER, OTHER, OTHER), this.retentionMinutes, 0);
+    }
+
+    /**
+     * Whether the store is collecting data.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record a completed request.
+     */
+    public void record(String method, String endpoint, String consumer, int status, long latencyMicros) {
+        record(method, endpoint, consumer, status, latencyMicros, 0, 0);
+    }
+
+    /**
+     * Record a completed request with its request and response body sizes.
+     */
+    public void record(String method, String endpoint, String consumer, int status, long latencyMicros,
+                       long requestBytes, long responseBytes) {
+        record(method, endpoint, consumer, status, latencyMicros, requestBytes, responseBytes, System.currentTimeMillis());
+    }
+
+    void record(String method, String endpoint, String consumer, int status, long latencyMicros, long nowMillis) {
+        record(method, endpoint, consumer, status, latencyMicros, 0, 0, nowMillis);
+    }
+
+    void record(String method, String endpoint, String consumer, int status, long latencyMicros,
+                long requestBytes, long responseBytes, long nowMillis) {
+        if (!enabled) {
+            return;
+        }
+        method = method != null ? method : "";
+        endpoint = endpoint != null ? endpoint : "";
+        consumer = consumer != null ? consumer : "";
+        boolean error = status >= 400;
+        while (!seriesFor(method, endpoint, consumer, nowMillis)
+                .record(error, latencyMicros, requestBytes, responseBytes, nowMillis)) {
+            // The series was evicted as idle between the lookup and the record; look it up again
+        }
+    }
+
+    private Series seriesFor(String method, String endpoint, String consumer, long nowMillis) {
+        Series s = find(method, endpoint, consumer);
+        if (s != null) {
+            return s;
+        }
+        if (seriesCount.get() >= maxSeries) {
+            long next = nextEvictionMillis.get();
+            if (nowMillis >= next && nextEvictionMillis.compareAndSet(next, nowMillis + EVICTION_INTERVAL_MILLIS)) {
+                evictIdle(nowMillis);
+            }
+        }
+        // Reserve a slot before inserting, so concurrent first requests for new keys cannot exceed the cap
+        int count;
+        do {
+            count = seriesCount.get();
+            if (count >= maxSeries) {
+                s = find(method, endpoint, consumer);
+                return s != null ? s : overflow;
+            }
+        } while (!seriesCount.compareAndSet(count, count + 1));
+        Series created = new Series(new SeriesKey(method, endpoint, consumer), retentionMinutes, nowMillis);
+        Series existing = series.computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+            .computeIfAbsent(endpoint, e -> new ConcurrentHashMap<>())
+            .putIfAbsent(consumer, created);
+        if (existing != null) {
+            // Lost the race for this key; give the slot back
+            seriesCount.decrementAndGet();
+            return existing;
+        }
+        return created;
+    }
+
+    private Series find(String method, String endpoint, String consumer) {
+        ConcurrentHashMap<String, ConcurrentHashMap<String, Series>> endpoints = series.get(method);
+        if (endpoints == null) {
+            return null;
+        }
+        ConcurrentHashMap<String, Series> consumers = endpoints.get(endpoint);
+        return consumers != null ? consumers.get(consumer) : null;
+    }
+
+    /**
+     * Drop the series without traffic for the whole retention window; they add nothing to any query.
+     */
+    private void evictIdle(long nowMillis) {
+        long idleBefore = nowMillis - maxWindow().toMillis();
+        for (ConcurrentHashMap<String, ConcurrentHashMap<String, Series>> endpoints : series.values()) {
+            for (ConcurrentHashMap<String, Series> consumers : endpoints.values()) {
+                for (Series s : consumers.values()) {
+                    if (s.retireIfIdle(idleBefore) && consumers.remove(s.key.consumer(), s)) {
+                        seriesCount.decrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Query aggregated statistics over the most recent window.
+     * The finest ring that covers the requested window is used.
+     */
+    public List<WindowStats> query(WindowQuery query) {
+        return query(query, System.currentTimeMillis());
+    }
+
+    List<WindowStats> query(WindowQuery query, long nowMillis) {
+        long windowMillis = Math.min(query.window().toMillis(), maxWindow().toMillis());
+        if (!enabled || windowMillis <= 0) {
+            return List.of();
+        }
+
+        evictIdle(nowMillis);
+        Map<SeriesKey, Aggregate> groups = new HashMap<>();
+        List<Series> candidates = new ArrayList<>();
+        for (ConcurrentHashMap<String, ConcurrentHashMap<String, Series>> endpoints : series.values()) {
+            for (ConcurrentHashMap<String, Series> consumers : endpoints.values()) {
+                candidates.addAll(consumers.values());
+            }
+        }
+        candidates.add(overflow);
+        for (Series s : candidates) {
+            if (!query.matches(s.key)) {
+                continue;
+            }
+            SeriesKey groupKey = query.byConsumer() ? s.key : new SeriesKey(s.key.method(), s.key.endpoint(), null);
+            Aggregate aggregate = groups.computeIfAbsent(groupKey, k -> new Aggregate());
+            s.collect(windowMillis, nowMillis, aggregate);
+        }
+
+        List<WindowStats> result = new ArrayList<>();
+        for (Map.Entry<SeriesKey, Aggregate> entry : groups.entrySet()) {
+            Aggregate a = entry.getValue();
+            if (a.count == 0) {
+                continue;
+            }
+            SeriesKey k = entry.getKey();
+            double seconds = a.spanMillis / 1000.0;
+            result.add(new WindowStats(
+                k.method(),
+                k.endpoint(),
+                k.consumer(),
+                a.count,
+                a.errors,
+                seconds > 0 ? a.count / seconds : 0.0,
+                (double) a.errors / a.count,
+                a.percentileMillis(0.50),
+                a.percentileMillis(0.95),
+                a.percentileMillis(0.99),
+                a.requestBytes,
+                a.responseBytes
+            ));
+        }
+        result.sort(Comparator.comparingLong(WindowStats::requests).reversed());
+        return query.limit() > 0 && result.size() > query.limit() ? result.subList(0, query.limit()) : result;
+    }
+
+    /**
+     * Longest window that can be queried.
+     */
+    public Duration maxWindow() {
+        return Duration.ofMinutes(retentionMinutes);
+    }
+
+    /**
+     * Number of distinct series currently tracked (excluding the overflow series).
+     */
+    public int seriesCount() {
+        return seriesCount.get();
+    }
+
+    /**
+     * Identity of a series. {@code consumer} is null when results are grouped by endpoint only.
+     */
+    record SeriesKey(String method, String endpoint, String consumer) {}
+
+    /**
+     * Query filter. Null fields match everything.
+     */
+    public record WindowQuery(
+        Duration window,
+        String method,
+        String endpoint,
+        String consumer,
+        boolean byConsumer,
+        int limit
+    ) {
+        boolean matches(SeriesKey key) {
+            return (method == null || method.equalsIgnoreCase(key.method()))
+                && (endpoint == null || endpoint.equals(key.endpoint()))
+                && (consumer == null || consumer.equals(key.consumer()));
+        }
+    }
+
+    /**
+     * Aggregated statistics for one endpoint (and consumer, when grouped by consumer).
+     */
+    public record WindowStats(
+        String method,
+        String endpoint,
+        String consumer,
+        long requests,
+        long errors,
+        double requestsPerSecond,
+        double errorRate,
+        double p50Millis,
+        double p95Millis,
+        double p99Millis,
+        long requestBytes,
+        long responseBytes
+    ) {}
+
+    /**
+     * Three rings of different resolution for one series. All rings share the series lock.
+     */
+    private static final class Series {
+        final SeriesKey key;
+        final Ring fine;
+        final Ring medium;
+        final Ring coarse;
+        // Guarded by the series lock
+        private long lastRecordMillis;
+        private boolean retired;
+
+        Series(SeriesKey key, int retentionMinutes, long createdMillis) {
+            this.key = key;
+            this.fine = new Ring(1_000L, FINE_SLOTS);
+            this.medium = new Ring(10_000L, MEDIUM_SLOTS);
+            this.coarse = new Ring(60_000L, retentionMinutes);
+            this.lastRecordMillis = createdMillis;
+        }
+
+        /**
+         * @return false, recording nothing, when the series has been evicted
+         */
+        synchronized boolean record(boolean error, long latencyMicros, long requestBytes, long responseBytes,
+                                    long nowMillis) {
+            if (retired) {
+                return false;
+            }
+            int bucket = LatencyBuckets.indexOf(latencyMicros);
+            fine.record(nowMillis, error, bucket, requestBytes, responseBytes);
+            medium.record(nowMillis, error, bucket, requestBytes, responseBytes);
+            coarse.record(nowMillis, error, bucket, requestBytes, responseBytes);
+            lastRecordMillis = Math.max(lastRecordMillis, nowMillis);
+            return true;
+        }
+
+        /**
+         * Retire the series if it has had no traffic since {@code idleBefore}; a retired series records nothing.
+         */
+        synchronized boolean retireIfIdle(long idleBefore) {
+            if (lastRecordMillis < idleBefore) {
+                retired = true;
+            }
+            return retired;
+        }
+
+        synchronized void collect(long windowMillis, long nowMillis, Aggregate into) {
+            Ring ring = fine.covers(windowMillis) ? fine : medium.covers(windowMillis) ? medium : coarse;
+            ring.collect(windowMillis, nowMillis, into);
+        }
+    }
+
+    /**
+     * Fixed-size ring of time slots. A slot is lazily reset when its tick is reused.
+     */
+    private static final class Ring {
+        final long resolutionMillis;
+        final int slots;
+        final long[] ticks;
+        final long[] counts;
+        final long[] errors;
+        final long[] requestBytes;
+        final long[] responseBytes;
+        final int[] histograms;
+
+        Ring(long resolutionMillis, int slots) {
+            this.resolutionMillis = resolutionMillis;
+            this.slots = slots;
+            this.ticks = new long[slots];
+            this.counts = new long[slots];
+            this.errors = new long[slots];
+            this.requestBytes = new long[slots];
+            this.responseBytes = new long[slots];
+            this.histograms = new int[slots * LatencyBuckets.COUNT];
+            Arrays.fill(ticks, -1L);
+        }
+
+        boolean covers(long windowMillis) {
+            return windowMillis <= resolutionMillis * slots;
+        }
+
+        void record(long nowMillis, boolean error, int bucket, long requestBytes, long responseBytes) {
+            long tick = nowMillis / resolutionMillis;
+            int slot = (int) (tick % slots);
+            if (ticks[slot] != tick) {
+                ticks[slot] = tick;
+                counts[slot] = 0;
+                errors[slot] = 0;
+                this.requestBytes[slot] = 0;
+                this.responseBytes[slot] = 0;
+                Arrays.fill(histograms, slot * LatencyBuckets.COUNT, (slot + 1) * LatencyBuckets.COUNT, 0);
+            }
+            counts[slot]++;
+            if (error) {
+                errors[slot]++;
+            }
+            this.requestBytes[slot] += requestBytes;
+            this.responseBytes[slot] += responseBytes;
+            histograms[slot * LatencyBuckets.COUNT + bucket]++;
+        }
+
+        void collect(long windowMillis, long nowMillis, Aggregate into) {
+            long currentTick = nowMillis / resolutionMillis;
+            int slotsInWindow = (int) Math.min(slots, (windowMillis + resolutionMillis - 1) / resolutionMillis);
+            long oldestTick = currentTick - slotsInWindow + 1;
+            for (int i = 0; i < slots; i++) {
+                long tick = ticks[i];
+                if (tick < oldestTick || tick > currentTick) {
+                    continue;
+                }
+                into.count += counts[i];
+                into.errors += errors[i];
+                into.requestBytes += requestBytes[i];
+                into.responseBytes += responseBytes[i];
+                int base = i * LatencyBuckets.COUNT;
+                for (int b = 0; b < LatencyBuckets.COUNT; b++) {
+                    into.histogram[b] += histograms[base + b];
+                }
+            }
+            // Full slots plus the elapsed part of the current one
+            long span = (slotsInWindow - 1) * resolutionMillis + (nowMillis - currentTick * resolutionMillis);
+            into.spanMillis = Math.max(into.spanMillis, span);
+        }
+    }
+
+    /**
+     * Mutable accumulator used while answering a query.
+     */
+    private static final class Aggregate {
+        long count;
+        long errors;
+        long requestBytes;
+        long responseBytes;
+        long spanMillis;
+        final long[] histogram = new long[LatencyBuckets.COUNT];
+
+        double percentileMillis(double percentile) {
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int b = 0; b < histogram.length; b++) {
+                seen += histogram[b];
+                if (seen >= rank && histogram[b] > 0) {
+                    return LatencyBuckets.upperBoundMicros(b) / 1000.0;
+                }
+            }
+            return LatencyBuckets.upperBoundMicros(histogram.length - 1) / 1000.0;
+        }
+    }
+
+    /**
+     * Log-linear latency buckets over microseconds: four linear sub-buckets per power of two,
+     * from 64us up to ~67s. Values below 64us share four 16us buckets; larger values clamp
+     * into the last bucket.
+     */
+    static final class LatencyBuckets {
+        private static final int SUB_BITS = 2;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int MIN_EXP = 6;
+        private static final int MAX_EXP = 25;
+        static final int COUNT = SUB_COUNT + (MAX_EXP - MIN_EXP + 1) * SUB_COUNT;
+
+        private LatencyBuckets() {
+        }
+
+        static int indexOf(long micros) {
+            if (micros < (1L << MIN_EXP)) {
+                return (int) (Math.max(0, micros) >> (MIN_EXP - SUB_BITS));
+            }
+            int exp = 63 - Long.numberOfLeadingZeros(micros);
+            if (exp > MAX_EXP) {
+                return COUNT - 1;
+            }
+            int sub = (int) ((micros >> (exp - SUB_BITS)) & (SUB_COUNT - 1));
+            return SUB_COUNT + (exp - MIN_EXP) * SUB_COUNT + sub;
+        }
+
+        static long upperBoundMicros(int index) {
+            if (index < SUB_COUNT) {
+                return (long) (index + 1) << (MIN_EXP - SUB_BITS);
+            }
+            int exp = MIN_EXP + (index - SUB_COUNT) / SUB_COUNT;
+            int sub = (index - SUB_COUNT) % SUB_COUNT;
+            return (1L << exp) + (long) (sub + 1) * (1L << (exp - SUB_BITS));
+        }
+    }
+}
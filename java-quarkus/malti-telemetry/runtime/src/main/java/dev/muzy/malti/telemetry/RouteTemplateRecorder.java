@@ -0,0 +1,16 @@
+package dev.muzy.malti.telemetry;
+
+import io.quarkus.runtime.annotations.Recorder;
+
+import java.util.Map;
+
+/**
+ * Installs the route template table computed by the deployment build step.
+ */
+@Recorder
+public class RouteTemplateRecorder {
+
+    public void setTemplates(Map<String, String> templates) {
+        RouteTemplates.setBuildTimeTemplates(templates);
+    }
+}
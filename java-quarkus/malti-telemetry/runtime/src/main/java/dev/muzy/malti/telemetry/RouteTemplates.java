@@ -0,0 +1,105 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.ws.rs.Path;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Route templates (e.g. /users/{userid}) of JAX-RS resource methods.
+ * The table is computed at build time from the Jandex index by the deployment module and
+ * installed at static init. At runtime each {@link Method} is resolved once per resource class it is
+ * invoked on and cached, so the per-request lookup is a cache read without reflection. Inherited
+ * methods take the class path of the concrete resource, and together with methods missing from the
+ * build-time table (e.g. when running outside Quarkus augmentation) are resolved from the {@code @Path}
+ * annotations.
+ */
+public final class RouteTemplates {
+
+    private static final String NONE = "";
+
+    private static volatile Map<String, String> buildTimeTemplates = Map.of();
+    private static final ResourceMethodCache<String> resolved = new ResourceMethodCache<>();
+
+    private RouteTemplates() {
+    }
+
+    static void setBuildTimeTemplates(Map<String, String> templates) {
+        buildTimeTemplates = Map.copyOf(templates);
+        resolved.clear();
+    }
+
+    /**
+     * Route template for a resource method invoked on {@code resourceClass}, or null when
+     * neither carries a {@code @Path} annotation.
+     */
+    public static String lookup(Class<?> resourceClass, Method resourceMethod) {
+        if (resourceMethod == null) {
+            return resourceClass != null ? emptyToNull(fromAnnotations(resourceClass, null)) : null;
+        }
+        Class<?> owner = resourceClass != null ? resourceClass : resourceMethod.getDeclaringClass();
+        String template = resolved.get(owner, resourceMethod);
+        if (template == null) {
+            template = resolved.putIfAbsent(owner, resourceMethod, resolve(owner, resourceMethod));
+        }
+        return emptyToNull(template);
+    }
+
+    private static String resolve(Class<?> resourceClass, Method method) {
+        // The build-time table holds each method under its declaring class, with that class's path
+        String template = resourceClass == method.getDeclaringClass() ? buildTimeTemplates.get(key(method)) : null;
+        return template != null ? template : fromAnnotations(resourceClass, method);
+    }
+
+    private static String fromAnnotations(Class<?> resourceClass, Method method) {
+        Path cp = resourceClass.getAnnotation(Path.class);
+        Path mp = method != null ? method.getAnnotation(Path.class) : null;
+        return join(cp != null ? cp.value() : null, mp != null ? mp.value() : null);
+    }
+
+    private static String emptyToNull(String template) {
+        return template == null || template.isEmpty() ? null : template;
+    }
+
+    /**
+     * Join class and method {@code @Path} values into a template that starts with a slash.
+     * Returns an empty string when both are absent. Shared with the build step so both sides agree.
+     */
+    public static String join(String classPath, String methodPath) {
+        StringBuilder sb = new StringBuilder();
+        if (classPath != null && !classPath.isBlank()) {
+            if (!classPath.startsWith("/")) sb.append("/");
+            sb.append(classPath);
+        }
+        if (methodPath != null && !methodPath.isBlank()) {
+            if (!methodPath.startsWith("/") && sb.length() > 0) sb.append("/");
+            if (methodPath.startsWith("/") && sb.toString().endsWith("/")) {
+                methodPath = methodPath.substring(1);
+            }
+            sb.append(methodPath);
+        }
+
+        String template = sb.toString();
+        if (template.isEmpty()) {
+            return NONE;
+        }
+        return template.startsWith("/") ? template : "/" + template;
+    }
+
+    /**
+     * Table key for a method: declaring class, name and erased parameter types,
+     * e.g. {@code com.acme.UserResource#get(java.lang.String,int)}.
+     */
+    public static String key(String className, String methodName, String... parameterTypes) {
+        return className + "#" + methodName + "(" + String.join(",", parameterTypes) + ")";
+    }
+
+    public static String key(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        String[] names = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            names[i] = types[i].getName();
+        }
+        return key(method.getDeclaringClass().getName(), method.getName(), names);
+    }
+}
@@ -0,0 +1,177 @@
+package dev.muzy.malti.telemetry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Weighted Space-Saving sketch (Metwally et al.) for finding heavy hitters in fixed memory.
+ * At most {@code capacity} keys are monitored; when a new key arrives and the sketch is full,
+ * the key with the smallest count is replaced and its count becomes the newcomer's error bound.
+ * Counters live in an indexed min-heap, so every update is O(log capacity).
+ * <p>
+ * Each sketch is guarded by its own monitor; callers that update from many threads keep several sketches
+ * (stripes) and combine them with {@link #merge}, so request threads rarely contend.
+ */
+final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Integer> slots;
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private int size;
+
+    SpaceSaving(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.slots = new HashMap<>(this.capacity * 2);
+        this.keys = new String[this.capacity];
+        this.counts = new long[this.capacity];
+        this.errors = new long[this.capacity];
+    }
+
+    /**
+     * Add {@code weight} to the count of {@code key}.
+     */
+    void add(String key, long weight) {
+        add(key, weight, 0);
+    }
+
+    /**
+     * Add {@code weight} to the count of {@code key}, together with an error bound already attached to that
+     * weight, e.g. when an estimate taken from another sketch is added back.
+     */
+    synchronized void add(String key, long weight, long error) {
+        if (weight <= 0) {
+            return;
+        }
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot] += weight;
+            errors[slot] += error;
+            siftDown(slot);
+            return;
+        }
+        if (size < capacity) {
+            int i = size++;
+            keys[i] = key;
+            counts[i] = weight;
+            errors[i] = error;
+            slots.put(key, i);
+            siftUp(i);
+            return;
+        }
+        // Replace the minimum; its count is an upper bound for anything it displaced
+        slots.remove(keys[0]);
+        long min = counts[0];
+        keys[0] = key;
+        errors[0] = min + error;
+        counts[0] = min + weight;
+        slots.put(key, 0);
+        siftDown(0);
+    }
+
+    /**
+     * The {@code k} keys with the highest estimated counts, heaviest first.
+     */
+    synchronized List<Entry> top(int k) {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry(keys[i], counts[i], errors[i]));
+        }
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        return entries.size() > k ? new ArrayList<>(entries.subList(0, k)) : entries;
+    }
+
+    /**
+     * The {@code k} heaviest keys over several sketches fed disjoint parts of one stream. A key a full sketch
+     * does not monitor may still have up to that sketch's minimum count there, so the minimum is added to both
+     * its count and its error; the bounds of a single sketch carry over to the merged estimate.
+     */
+    static List<Entry> merge(List<SpaceSaving> sketches, int k) {
+        if (sketches.size() == 1) {
+            return sketches.get(0).top(k);
+        }
+        List<Map<String, Entry>> entries = new ArrayList<>(sketches.size());
+        long[] minimums = new long[sketches.size()];
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < sketches.size(); i++) {
+            SpaceSaving sketch = sketches.get(i);
+            Map<String, Entry> byKey = new HashMap<>();
+            synchronized (sketch) {
+                for (int slot = 0; slot < sketch.size; slot++) {
+                    byKey.put(sketch.keys[slot], new Entry(sketch.keys[slot], sketch.counts[slot], sketch.errors[slot]));
+                }
+                minimums[i] = sketch.size == sketch.capacity ? sketch.counts[0] : 0;
+            }
+            entries.add(byKey);
+            keys.addAll(byKey.keySet());
+        }
+        List<Entry> merged = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            long count = 0;
+            long error = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i).get(key);
+                count += entry != null ? entry.count() : minimums[i];
+                error += entry != null ? entry.error() : minimums[i];
+            }
+            merged.add(new Entry(key, count, error));
+        }
+        merged.sort(Comparator.comparingLong(Entry::count).reversed());
+        return merged.size() > k ? new ArrayList<>(merged.subList(0, k)) : merged;
+    }
+
+    /**
+     * Estimated count for a key; {@code count - error} is a guaranteed lower bound.
+     */
+    record Entry(String key, long count, long error) {}
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && counts[right] < counts[left]) {
+                smallest = right;
+            }
+            if (counts[i] <= counts[smallest]) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        long count = counts[a];
+        long error = errors[a];
+        keys[a] = keys[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        keys[b] = key;
+        counts[b] = count;
+        errors[b] = error;
+        slots.put(keys[a], a);
+        slots.put(keys[b], b);
+    }
+}
@@ -0,0 +1,182 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Settings endpoint at {@code malti.admin.path}, served when {@code malti.admin.enabled=true} and telemetry is enabled.
+ * {@code GET} returns the current {@link TelemetrySettings}; {@code PATCH} with a JSON object changes the
+ * settings it names and keeps the rest, for example
+ * {@code {"sampling": {"targetRecordsPerSecond": 200}, "batches": {"default": {"size": 500}}}}.
+ * Changes go through {@link TelemetryService#updateSettings}, so an invalid request changes nothing. The
+ * endpoint requires {@code malti.admin.token}; enabling it without one fails startup.
+ */
+@ApplicationScoped
+public class TelemetryAdminRoute implements Handler<RoutingContext> {
+
+    private static final Logger LOG = Logger.getLogger(TelemetryAdminRoute.class);
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Inject
+    TelemetryConfig config;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    void register(@Observes Router router) {
+        TelemetryConfig.Admin admin = config.admin();
+        if (config.enabled() && admin.enabled()) {
+            if (admin.token().isEmpty()) {
+                throw new IllegalArgumentException("malti.admin.token must be set when malti.admin.enabled=true");
+            }
+            router.route(admin.path())
+                .handler(BodyHandler.create().setBodyLimit(MAX_BODY_BYTES))
+                .handler(this);
+            LOG.debugf("Telemetry settings endpoint registered at %s", admin.path());
+        }
+    }
+
+    @Override
+    public void handle(RoutingContext routingContext) {
+        if (!authorized(routingContext.request().getHeader(HttpHeaders.AUTHORIZATION))) {
+            routingContext.response().putHeader("WWW-Authenticate", "Bearer");
+            respond(routingContext, 401, error("Missing or wrong bearer token"));
+            return;
+        }
+        HttpMethod method = routingContext.request().method();
+        try {
+            if (HttpMethod.GET.equals(method)) {
+                respond(routingContext, 200, objectMapper.writeValueAsString(telemetryService.getSettings()));
+            } else if (HttpMethod.PATCH.equals(method)) {
+                JsonNode changes = objectMapper.readTree(routingContext.body().asString());
+                TelemetrySettings settings = telemetryService.updateSettings(current -> apply(current, changes));
+                respond(routingContext, 200, objectMapper.writeValueAsString(settings));
+            } else {
+                routingContext.response().putHeader(HttpHeaders.ALLOW, "GET, PATCH");
+                respond(routingContext, 405, error("Method not allowed"));
+            }
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            respond(routingContext, 400, error(e.getMessage()));
+        }
+    }
+
+    private boolean authorized(String authorization) {
+        return config.admin().token()
+            .map(token -> authorization != null && MessageDigest.isEqual(
+                ("Bearer " + token).getBytes(StandardCharsets.UTF_8), authorization.getBytes(StandardCharsets.UTF_8)))
+            .orElse(true);
+    }
+
+    private String error(String message) {
+        return objectMapper.createObjectNode().put("error", message).toString();
+    }
+
+    private static void respond(RoutingContext routingContext, int status, String json) {
+        routingContext.response()
+            .setStatusCode(status)
+            .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+            .end(json);
+    }
+
+    /**
+     * Apply the settings named in {@code changes} to {@code current}.
+     *
+     * @throws IllegalArgumentException for unknown settings, values of the wrong type or invalid values
+     */
+    static TelemetrySettings apply(TelemetrySettings current, JsonNode changes) {
+        TelemetrySettings next = current;
+        for (Iterator<Map.Entry<String, JsonNode>> it = fields(changes, "settings"); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "overflowThresholdPercent" -> next = next.withOverflowThresholdPercent(number(field).doubleValue());
+                case "sampling" -> next = next.withSampling(sampling(next.sampling(), value));
+                case "batches" -> {
+                    for (Iterator<Map.Entry<String, JsonNode>> pipelines = fields(value, "batches"); pipelines.hasNext(); ) {
+                        Map.Entry<String, JsonNode> pipeline = pipelines.next();
+                        next = next.withBatch(pipeline.getKey(), batch(next.batch(pipeline.getKey()), pipeline.getValue()));
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown setting: " + field.getKey());
+            }
+        }
+        return next;
+    }
+
+    private static TelemetrySettings.Sampling sampling(TelemetrySettings.Sampling current, JsonNode changes) {
+        boolean enabled = current.enabled();
+        double targetRecordsPerSecond = current.targetRecordsPerSecond();
+        long slowThresholdMs = current.slowThresholdMs();
+        for (Iterator<Map.Entry<String, JsonNode>> it = fields(changes, "sampling"); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            switch (field.getKey()) {
+                case "enabled" -> {
+                    if (!field.getValue().isBoolean()) {
+                        throw new IllegalArgumentException("sampling.enabled must be true or false");
+                    }
+                    enabled = field.getValue().booleanValue();
+                }
+                case "targetRecordsPerSecond" -> targetRecordsPerSecond = number(field).doubleValue();
+                case "slowThresholdMs" -> slowThresholdMs = integer(field);
+                default -> throw new IllegalArgumentException("Unknown sampling setting: " + field.getKey());
+            }
+        }
+        return new TelemetrySettings.Sampling(enabled, targetRecordsPerSecond, slowThresholdMs);
+    }
+
+    private static TelemetrySettings.Batch batch(TelemetrySettings.Batch current, JsonNode changes) {
+        int size = current.size();
+        int intervalSeconds = current.intervalSeconds();
+        int senderConcurrency = current.senderConcurrency();
+        for (Iterator<Map.Entry<String, JsonNode>> it = fields(changes, "batch"); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            switch (field.getKey()) {
+                case "size" -> size = integer(field);
+                case "intervalSeconds" -> intervalSeconds = integer(field);
+                case "senderConcurrency" -> senderConcurrency = integer(field);
+                default -> throw new IllegalArgumentException("Unknown batch setting: " + field.getKey());
+            }
+        }
+        return new TelemetrySettings.Batch(size, intervalSeconds, senderConcurrency);
+    }
+
+    private static Iterator<Map.Entry<String, JsonNode>> fields(JsonNode node, String name) {
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException(name + " must be a JSON object");
+        }
+        return node.fields();
+    }
+
+    private static Number number(Map.Entry<String, JsonNode> field) {
+        if (!field.getValue().isNumber()) {
+            throw new IllegalArgumentException(field.getKey() + " must be a number");
+        }
+        return field.getValue().numberValue();
+    }
+
+    private static int integer(Map.Entry<String, JsonNode> field) {
+        if (!field.getValue().isIntegralNumber() || !field.getValue().canConvertToInt()) {
+            throw new IllegalArgumentException(field.getKey() + " must be a whole number");
+        }
+        return field.getValue().intValue();
+    }
+}
@@ -0,0 +1,65 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wrapper class for telemetry batch requests to match the expected server format.
+ * The server expects: {"requests": [array of telemetry records]}
+ * <p>
+ * Outbound REST client calls go in a separate {@code outbound} list, so a server that does not know about
+ * them ignores them instead of counting them as requests to this service.
+ */
+public class TelemetryBatchRequest {
+    
+    @JsonProperty("requests")
+    private List<TelemetryRecord> requests;
+    
+    @JsonProperty("outbound")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<TelemetryRecord> outbound;
+    
+    @JsonProperty("heavy_hitters")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private HeavyHitterTracker.Snapshot heavyHitters;
+    
+    public TelemetryBatchRequest() {
+    }
+    
+    /**
+     * Batch of buffered records, split into inbound requests and outbound calls by {@link TelemetryRecord#getTarget()}.
+     */
+    public TelemetryBatchRequest(List<TelemetryRecord> records) {
+        this.requests = new ArrayList<>(records.size());
+        this.outbound = new ArrayList<>();
+        for (TelemetryRecord record : records) {
+            (record.getTarget() == null ? requests : outbound).add(record);
+        }
+    }
+    
+    public List<TelemetryRecord> getRequests() {
+        return requests;
+    }
+    
+    public void setRequests(List<TelemetryRecord> requests) {
+        this.requests = requests;
+    }
+    
+    public List<TelemetryRecord> getOutbound() {
+        return outbound;
+    }
+    
+    public void setOutbound(List<TelemetryRecord> outbound) {
+        this.outbound = outbound;
+    }
+    
+    public HeavyHitterTracker.Snapshot getHeavyHitters() {
+        return heavyHitters;
+    }
+    
+    public void setHeavyHitters(HeavyHitterTracker.Snapshot heavyHitters) {
+        this.heavyHitters = heavyHitters;
+    }
+}
@@ -0,0 +1,330 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe buffer for storing telemetry records.
+ * This mirrors the Python implementation's TelemetryBuffer functionality.
+ * <p>
+ * Records are kept in time segments of {@code malti.buffer.segment-seconds}, by the time they were buffered,
+ * oldest segment first. With {@code malti.buffer.max-age-seconds} set, a segment whose newest record is older
+ * than that is dropped as a whole, so expiring a long backlog after an outage costs one step per segment rather
+ * than one per record; records live at most the max age plus one segment width. Drains take the oldest records
+ * first, or the newest first with {@code malti.buffer.drain-order=newest-first} to catch up on fresh data.
+ * When the buffer is full the oldest record is evicted either way.
+ */
+@ApplicationScoped
+public class TelemetryBuffer {
+
+    static final int DEFAULT_SEGMENT_SECONDS = 10;
+
+    @Inject
+    TelemetryConfig config;
+
+    private final int maxSize;
+    private long maxAgeMillis;
+    private long segmentMillis;
+    private TelemetryConfig.DrainOrder drainOrder;
+
+    // Oldest segment first; segments and their records are guarded by lock
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Written under lock, read without it by the overflow check on request threads
+    private volatile int size;
+
+    // Statistics; LongAdders so concurrent request threads do not contend on a single counter
+    private final LongAdder totalAdded = new LongAdder();
+    private final LongAdder totalEvicted = new LongAdder();
+    private final LongAdder totalExpired = new LongAdder();
+    private final LongAdder totalSent = new LongAdder();
+    private final LongAdder totalFailed = new LongAdder();
+
+    private static final class Segment {
+        final long startMillis;
+        long newestMillis;
+        final ArrayDeque<TelemetryRecord> records = new ArrayDeque<>();
+
+        Segment(long startMillis) {
+            this.startMillis = startMillis;
+            this.newestMillis = startMillis;
+        }
+    }
+
+    public TelemetryBuffer() {
+        this(25000); // Default max size from Python implementation
+    }
+
+    TelemetryBuffer(int maxSize) {
+        this(maxSize, 0, DEFAULT_SEGMENT_SECONDS, TelemetryConfig.DrainOrder.OLDEST_FIRST);
+    }
+
+    /**
+     * @param maxAgeSeconds records older than this are dropped; zero for no limit
+     */
+    TelemetryBuffer(int maxSize, int maxAgeSeconds, int segmentSeconds, TelemetryConfig.DrainOrder drainOrder) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive, was " + maxSize);
+        }
+        this.maxSize = maxSize;
+        configure(maxAgeSeconds, segmentSeconds, drainOrder);
+    }
+
+    @PostConstruct
+    void init() {
+        TelemetryConfig.Buffer b = config.buffer();
+        configure(b.maxAgeSeconds().orElse(0), b.segmentSeconds(), b.drainOrder());
+    }
+
+    private void configure(int maxAgeSeconds, int segmentSeconds, TelemetryConfig.DrainOrder drainOrder) {
+        if (maxAgeSeconds < 0 || segmentSeconds < 1) {
+            throw new IllegalArgumentException("Buffer max age must not be negative and segments must be at least "
+                + "one second, was " + maxAgeSeconds + " s and " + segmentSeconds + " s");
+        }
+        this.maxAgeMillis = TimeUnit.SECONDS.toMillis(maxAgeSeconds);
+        this.segmentMillis = TimeUnit.SECONDS.toMillis(segmentSeconds);
+        this.drainOrder = drainOrder;
+    }
+
+    /**
+     * Add a telemetry record to the buffer.
+     * If the buffer is full, the oldest record is removed to make space.
+     *
+     * @return whether a record was evicted
+     */
+    public boolean add(TelemetryRecord record) {
+        return add(record, System.currentTimeMillis());
+    }
+
+    boolean add(TelemetryRecord record, long nowMillis) {
+        lock.lock();
+        try {
+            expire(nowMillis);
+            boolean evicted = false;
+            if (size == maxSize) {
+                Segment oldest = segments.peekFirst();
+                oldest.records.pollFirst();
+                if (oldest.records.isEmpty()) {
+                    segments.pollFirst();
+                }
+                size--;
+                totalEvicted.increment();
+                evicted = true;
+            }
+            Segment newest = segments.peekLast();
+            if (newest == null || nowMillis - newest.startMillis >= segmentMillis) {
+                newest = new Segment(nowMillis);
+                segments.addLast(newest);
+            }
+            newest.records.addLast(record);
+            newest.newestMillis = Math.max(newest.newestMillis, nowMillis);
+            size++;
+            totalAdded.increment();
+            return evicted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a batch of records and remove them from buffer, in the configured drain order.
+     */
+    public List<TelemetryRecord> getBatch(int batchSize) {
+        return getBatch(batchSize, System.currentTimeMillis());
+    }
+
+    List<TelemetryRecord> getBatch(int batchSize, long nowMillis) {
+        boolean newestFirst = drainOrder == TelemetryConfig.DrainOrder.NEWEST_FIRST;
+        lock.lock();
+        try {
+            expire(nowMillis);
+            List<TelemetryRecord> batch = new ArrayList<>(Math.min(batchSize, size));
+            while (batch.size() < batchSize && !segments.isEmpty()) {
+                Segment segment = newestFirst ? segments.peekLast() : segments.peekFirst();
+                while (batch.size() < batchSize && !segment.records.isEmpty()) {
+                    batch.add(newestFirst ? segment.records.pollLast() : segment.records.pollFirst());
+                }
+                if (segment.records.isEmpty()) {
+                    if (newestFirst) {
+                        segments.pollLast();
+                    } else {
+                        segments.pollFirst();
+                    }
+                }
+            }
+            size -= batch.size();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop the segments whose records are all older than the max age.
+     *
+     * @return the number of records dropped
+     */
+    int expire() {
+        lock.lock();
+        try {
+            return expire(System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int expire(long nowMillis) {
+        if (maxAgeMillis == 0) {
+            return 0;
+        }
+        int expired = 0;
+        for (Segment oldest = segments.peekFirst(); oldest != null && nowMillis - oldest.newestMillis > maxAgeMillis;
+                oldest = segments.peekFirst()) {
+            segments.pollFirst();
+            expired += oldest.records.size();
+        }
+        if (expired > 0) {
+            size -= expired;
+            totalExpired.add(expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Milliseconds since the oldest buffered record was created; zero when the buffer is empty.
+     */
+    public long oldestRecordAgeMillis() {
+        return oldestRecordAgeMillis(System.currentTimeMillis());
+    }
+
+    long oldestRecordAgeMillis(long nowMillis) {
+        lock.lock();
+        try {
+            Segment oldest = segments.peekFirst();
+            return oldest == null ? 0 : Math.max(0, oldest.records.getFirst().ageMillis(nowMillis));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get current buffer size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if buffer is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the maximum size of the buffer.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Records added so far; like the other counters below, read without taking the buffer lock.
+     */
+    public long totalAdded() {
+        return totalAdded.sum();
+    }
+
+    /**
+     * Records evicted because the buffer was full.
+     */
+    public long totalEvicted() {
+        return totalEvicted.sum();
+    }
+
+    /**
+     * Records dropped for being older than the max age.
+     */
+    public long totalExpired() {
+        return totalExpired.sum();
+    }
+
+    /**
+     * Records in batches that were sent.
+     */
+    public long totalSent() {
+        return totalSent.sum();
+    }
+
+    /**
+     * Records in batches that failed after all retries.
+     */
+    public long totalFailed() {
+        return totalFailed.sum();
+    }
+
+    /**
+     * Update statistics.
+     */
+    public void updateStats(int sent, int failed) {
+        totalSent.add(sent);
+        totalFailed.add(failed);
+    }
+
+    /**
+     * Get buffer statistics.
+     */
+    public BufferStats getStats() {
+        return new BufferStats(
+            totalAdded(),
+            totalSent(),
+            totalFailed(),
+            size,
+            maxSize,
+            totalEvicted(),
+            totalExpired(),
+            oldestRecordAgeMillis()
+        );
+    }
+
+    /**
+     * Statistics record for the buffer.
+     */
+    public record BufferStats(
+        long totalAdded,
+        long totalSent,
+        long totalFailed,
+        int currentSize,
+        int maxSize,
+        long totalEvicted,
+        long totalExpired,
+        long oldestRecordAgeMillis
+    ) {
+
+        /**
+         * Statistics of several buffers taken together; the oldest record is the oldest of any buffer.
+         */
+        static BufferStats sum(List<BufferStats> stats) {
+            long added = 0, sent = 0, failed = 0, evicted = 0, expired = 0, oldestAge = 0;
+            int size = 0, max = 0;
+            for (BufferStats s : stats) {
+                added += s.totalAdded();
+                sent += s.totalSent();
+                failed += s.totalFailed();
+                size += s.currentSize();
+                max += s.maxSize();
+                evicted += s.totalEvicted();
+                expired += s.totalExpired();
+                oldestAge = Math.max(oldestAge, s.oldestRecordAgeMillis());
+            }
+            return new BufferStats(added, sent, failed, size, max, evicted, expired, oldestAge);
+        }
+    }
+}
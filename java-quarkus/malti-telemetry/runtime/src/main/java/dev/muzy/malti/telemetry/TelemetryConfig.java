@@ -0,0 +1,556 @@
+package dev.muzy.malti.telemetry;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Configuration properties for Malti telemetry system.
+ * This uses Quarkus's type-safe configuration approach.
+ */
+@ConfigMapping(prefix = "malti")
+public interface TelemetryConfig {
+    
+    /**
+     * Whether requests are captured at all; when false the extension records and sends nothing
+     */
+    @WithDefault("true")
+    boolean enabled();
+    
+    /**
+     * Service name for telemetry records
+     */
+    @WithDefault("unknown-service")
+    String serviceName();
+    
+    /**
+     * API key for authentication with Malti server
+     */
+    Optional<String> apiKey();
+    
+    /**
+     * Base URL of the Malti server
+     */
+    @WithDefault("http://localhost:8000")
+    String url();
+    
+    /**
+     * Node identifier for this instance
+     */
+    @WithDefault("unknown-node")
+    String node();
+    
+    /**
+     * Batch configuration
+     */
+    Batch batch();
+    
+    /**
+     * HTTP client configuration
+     */
+    Http http();
+    
+    /**
+     * Clean mode - ignore 401/404 responses
+     */
+    @WithDefault("true")
+    boolean cleanMode();
+    
+    /**
+     * Overflow threshold percentage for buffer
+     */
+    @WithDefault("90.0")
+    double overflowThresholdPercent();
+    
+    /**
+     * Record age limit and drain order of the send buffers
+     */
+    Buffer buffer();
+    
+    /**
+     * Where the consumer of a request is taken from
+     */
+    Consumer consumer();
+    
+    /**
+     * Where requests are captured: the JAX-RS filter chain or the Vert.x router
+     */
+    @WithDefault("jaxrs")
+    CaptureMode captureMode();
+    
+    /**
+     * In-process rolling window statistics
+     */
+    Windows windows();
+    
+    /**
+     * Heavy-hitter consumer tracking
+     */
+    HeavyHitters heavyHitters();
+    
+    /**
+     * Cardinality limits for endpoint, consumer and context values
+     */
+    Cardinality cardinality();
+    
+    /**
+     * Automatic templating of paths that have no route template
+     */
+    PathNormalization pathNormalization();
+    
+    /**
+     * Adaptive sampling of successful requests
+     */
+    Sampling sampling();
+    
+    /**
+     * Telemetry for outbound REST client calls
+     */
+    Outbound outbound();
+    
+    /**
+     * Self-overhead budget and automatic degradation
+     */
+    Overhead overhead();
+    
+    /**
+     * JDK Flight Recorder events
+     */
+    Jfr jfr();
+    
+    /**
+     * Export of records as OTLP/HTTP spans, alongside or instead of the Malti server
+     */
+    Otlp otlp();
+    
+    /**
+     * Per-route sampling and exclusion rules, evaluated in order (first match wins)
+     */
+    List<Rule> rules();
+    
+    /**
+     * Named pipelines, each with its own buffer, batching and sender; requests they do not select stay
+     * in the default pipeline configured above
+     */
+    Map<String, Pipeline> pipelines();
+    
+    /**
+     * HTTP endpoint for reading and changing batching and sampling settings at runtime
+     */
+    Admin admin();
+    
+    enum CaptureMode {
+        /** JAX-RS request/response filter; only sees requests matched to a resource method */
+        JAXRS,
+        /** Vert.x router filter; sees every HTTP request, including unmatched and rejected ones */
+        VERTX
+    }
+    
+    enum DrainOrder {
+        /** Oldest records are sent first */
+        OLDEST_FIRST,
+        /** Newest records are sent first, so fresh data goes out ahead of a backlog */
+        NEWEST_FIRST
+    }
+    
+    interface Buffer {
+        /**
+         * Records older than this (seconds) are dropped unsent; no limit when absent
+         */
+        OptionalInt maxAgeSeconds();
+        
+        /**
+         * Width (seconds) of the time segments records are buffered in; expired records are dropped a segment at a time
+         */
+        @WithDefault("10")
+        int segmentSeconds();
+        
+        /**
+         * Which records a drain sends first: oldest-first or newest-first
+         */
+        @WithDefault("oldest-first")
+        DrainOrder drainOrder();
+    }
+    
+    interface Batch {
+        /**
+         * Number of records per batch
+         */
+        @WithDefault("500")
+        int size();
+        
+        /**
+         * Interval in seconds between batch sends
+         */
+        @WithDefault("60")
+        int intervalSeconds();
+        
+        /**
+         * Maximum number of retries for failed requests
+         */
+        @WithDefault("3")
+        int maxRetries();
+        
+        /**
+         * Delay in seconds before the first retry; later retries back off exponentially, with full jitter
+         */
+        @WithDefault("5")
+        int retryDelaySeconds();
+        
+        /**
+         * Upper bound in seconds of the backoff between retries
+         */
+        @WithDefault("60")
+        int maxRetryDelaySeconds();
+        
+        /**
+         * Seconds the application waits on shutdown for buffered records to be sent
+         */
+        @WithDefault("10")
+        int shutdownTimeoutSeconds();
+        
+        /**
+         * Number of batches sent at the same time during a drain
+         */
+        @WithDefault("1")
+        int senderConcurrency();
+    }
+    
+    interface Http {
+        /**
+         * HTTP request timeout in seconds
+         */
+        @WithDefault("15")
+        int timeoutSeconds();
+        
+        /**
+         * Maximum number of keepalive connections
+         */
+        @WithDefault("5")
+        int maxKeepaliveConnections();
+        
+        /**
+         * Maximum total connections
+         */
+        @WithDefault("10")
+        int maxConnections();
+    }
+    
+    interface Consumer {
+        /**
+         * Ordered consumer sources, the first with a value wins: header:<name>, query:<name> or jwt:<claim>
+         */
+        @WithDefault("header:X-Consumer-Id,header:X-User-Id,header:Consumer-Id,header:User-Id")
+        List<String> sources();
+        
+        /**
+         * Header carrying the bearer token read by jwt: sources
+         */
+        @WithDefault("Authorization")
+        String tokenHeader();
+        
+        /**
+         * Maximum number of cached token-to-consumer mappings
+         */
+        @WithDefault("1000")
+        int tokenCacheSize();
+    }
+    
+    interface Windows {
+        /**
+         * Whether rolling window statistics are collected
+         */
+        @WithDefault("true")
+        boolean enabled();
+        
+        /**
+         * Maximum number of method/endpoint/consumer series kept in memory
+         */
+        @WithDefault("128")
+        int maxSeries();
+        
+        /**
+         * Minutes of history kept at 60s resolution
+         */
+        @WithDefault("15")
+        int retentionMinutes();
+    }
+    
+    interface HeavyHitters {
+        /**
+         * Whether heavy-hitter consumers are tracked
+         */
+        @WithDefault("true")
+        boolean enabled();
+        
+        /**
+         * Number of counters per dimension (memory bound)
+         */
+        @WithDefault("100")
+        int capacity();
+        
+        /**
+         * Number of consumers reported per dimension
+         */
+        @WithDefault("10")
+        int topK();
+        
+        /**
+         * Whether heavy hitters are attached to outgoing batches
+         */
+        @WithDefault("false")
+        boolean export();
+    }
+    
+    interface Cardinality {
+        /**
+         * Whether cardinality limits are enforced
+         */
+        @WithDefault("true")
+        boolean enabled();
+        
+        /**
+         * Maximum number of distinct endpoints
+         */
+        @WithDefault("500")
+        int endpointLimit();
+        
+        /**
+         * Maximum number of distinct consumers
+         */
+        @WithDefault("1000")
+        int consumerLimit();
+        
+        /**
+         * Maximum number of distinct context values
+         */
+        @WithDefault("100")
+        int contextLimit();
+    }
+    
+    interface PathNormalization {
+        /**
+         * Whether numeric, UUID, hex and high-entropy path segments are replaced and variable segments learned
+         */
+        @WithDefault("true")
+        boolean enabled();
+        
+        /**
+         * Distinct literal segments after one prefix before that position is treated as a parameter
+         */
+        @WithDefault("50")
+        int learnThreshold();
+        
+        /**
+         * Maximum number of nodes in the learned prefix trie
+         */
+        @WithDefault("10000")
+        int maxNodes();
+        
+        /**
+         * Maximum number of cached raw-to-normalized path mappings
+         */
+        @WithDefault("10000")
+        int cacheSize();
+    }
+    
+    interface Sampling {
+        /**
+         * Whether successful fast requests are sampled
+         */
+        @WithDefault("false")
+        boolean enabled();
+        
+        /**
+         * Target number of buffered records per second; values below 1 are treated as 1
+         */
+        @WithDefault("1000")
+        double targetRecordsPerSecond();
+        
+        /**
+         * Requests at least this slow (milliseconds) are always kept
+         */
+        @WithDefault("1000")
+        long slowThresholdMs();
+    }
+    
+    interface Outbound {
+        /**
+         * Whether calls made with the Quarkus REST client are recorded
+         */
+        @WithDefault("false")
+        boolean enabled();
+    }
+    
+    interface Overhead {
+        /**
+         * Whether telemetry degrades itself when its overhead exceeds the budget; off until tuned for the application
+         */
+        @WithDefault("false")
+        boolean enabled();
+        
+        /**
+         * Maximum time spent in telemetry code, as a percentage of request time
+         */
+        @WithDefault("2.0")
+        double budgetPercent();
+        
+        /**
+         * Maximum Vert.x event loop lag (milliseconds) before telemetry degrades
+         */
+        @WithDefault("200")
+        long maxEventLoopLagMs();
+        
+        /**
+         * Fraction of successful requests kept while sampling harder
+         */
+        @WithDefault("0.1")
+        double degradedSampleRate();
+        
+        /**
+         * Seconds between overhead evaluations
+         */
+        @WithDefault("5")
+        int intervalSeconds();
+        
+        /**
+         * Consecutive evaluations within half the budget before recovering one level
+         */
+        @WithDefault("3")
+        int recoveryIntervals();
+    }
+    
+    interface Admin {
+        /**
+         * Whether the settings endpoint is served
+         */
+        @WithDefault("false")
+        boolean enabled();
+        
+        /**
+         * Path of the settings endpoint
+         */
+        @WithDefault("/q/malti/settings")
+        String path();
+        
+        /**
+         * Bearer token required by the settings endpoint; must be set when the endpoint is enabled
+         */
+        Optional<String> token();
+    }
+    
+    interface Jfr {
+        /**
+         * Whether JDK Flight Recorder events are emitted for capture, eviction, drain, encoding and sends
+         */
+        @WithDefault("false")
+        boolean enabled();
+        
+        /**
+         * One in this many request captures emits an event
+         */
+        @WithDefault("100")
+        int captureSampleInterval();
+    }
+    
+    interface Otlp {
+        /**
+         * Whether batches are also exported to an OTLP/HTTP receiver
+         */
+        @WithDefault("false")
+        boolean enabled();
+        
+        /**
+         * Base URL of the OTLP/HTTP receiver; spans are posted to /v1/traces
+         */
+        @WithDefault("http://localhost:4318")
+        String endpoint();
+    }
+    
+    interface Rule {
+        /**
+         * Route template pattern; '*' matches one segment, '**' matches any remaining segments
+         */
+        String route();
+        
+        /**
+         * HTTP methods the rule applies to (all methods when absent)
+         */
+        Optional<List<String>> methods();
+        
+        /**
+         * Status codes the rule applies to, e.g. "404", "4xx" or "500-599" (all when absent)
+         */
+        Optional<String> status();
+        
+        /**
+         * Consumer the rule applies to (all consumers when absent)
+         */
+        Optional<String> consumer();
+        
+        /**
+         * Action for matching requests: exclude, sample or keep
+         */
+        TelemetryRules.Action action();
+        
+        /**
+         * Sampling rate for the sample action
+         */
+        @WithDefault("1.0")
+        double rate();
+    }
+    
+    interface Pipeline {
+        /**
+         * Route template prefixes whose requests this pipeline takes, e.g. /api/billing
+         */
+        Optional<List<String>> routes();
+        
+        /**
+         * Fully qualified JAX-RS resource classes whose requests this pipeline takes; wins over routes
+         */
+        Optional<List<String>> resourceClasses();
+        
+        /**
+         * Service name for this pipeline's records (malti.service-name when absent)
+         */
+        Optional<String> serviceName();
+        
+        /**
+         * API key this pipeline sends with (malti.api-key when absent)
+         */
+        Optional<String> apiKey();
+        
+        /**
+         * Maximum number of records buffered by this pipeline
+         */
+        @WithDefault("25000")
+        int bufferSize();
+        
+        /**
+         * Batch settings; each one falls back to the malti.batch setting when absent
+         */
+        PipelineBatch batch();
+    }
+    
+    interface PipelineBatch {
+        /**
+         * Number of records per batch
+         */
+        OptionalInt size();
+        
+        /**
+         * Interval in seconds between batch sends
+         */
+        OptionalInt intervalSeconds();
+        
+        /**
+         * Number of batches sent at the same time during a drain
+         */
+        OptionalInt senderConcurrency();
+    }
+}
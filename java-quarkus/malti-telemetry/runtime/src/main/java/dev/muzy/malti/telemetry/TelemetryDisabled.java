@@ -0,0 +1,21 @@
+package dev.muzy.malti.telemetry;
+
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.ScheduledExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Skips the extension's scheduled jobs when {@code malti.enabled=false}.
+ */
+@ApplicationScoped
+public class TelemetryDisabled implements Scheduled.SkipPredicate {
+
+    @Inject
+    TelemetryConfig config;
+
+    @Override
+    public boolean test(ScheduledExecution execution) {
+        return !config.enabled();
+    }
+}
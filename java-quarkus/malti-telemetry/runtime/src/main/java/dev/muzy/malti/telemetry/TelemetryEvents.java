@@ -0,0 +1,256 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * JDK Flight Recorder events for the telemetry pipeline, so its work can be lined up with GC pauses
+ * and latency spikes in a recording. Each event is started with a {@code beginX} method before the work
+ * it covers and committed by the matching method after it, so the event's own start time and duration
+ * are those of the work. Off unless {@code malti.jfr.enabled=true}; when off every {@code beginX} returns
+ * null on a plain field read, and when on events are only kept if the running recording has them
+ * enabled. Request captures are sampled, one in {@code malti.jfr.capture-sample-interval}.
+ */
+@ApplicationScoped
+public class TelemetryEvents {
+
+    static final String CATEGORY = "Malti Telemetry";
+
+    @Inject
+    TelemetryConfig config;
+
+    private boolean enabled;
+    private int captureSampleInterval;
+
+    public TelemetryEvents() {
+    }
+
+    TelemetryEvents(boolean enabled, int captureSampleInterval) {
+        configure(enabled, captureSampleInterval);
+    }
+
+    @PostConstruct
+    void init() {
+        configure(config.jfr().enabled(), config.jfr().captureSampleInterval());
+    }
+
+    private void configure(boolean enabled, int captureSampleInterval) {
+        this.enabled = enabled;
+        this.captureSampleInterval = Math.max(1, captureSampleInterval);
+    }
+
+    /**
+     * Start a capture event when a request starts, for one in {@code malti.jfr.capture-sample-interval} requests;
+     * null when it is not recorded. Finish it with {@link #capture}.
+     */
+    CaptureEvent beginCapture() {
+        if (!enabled || ThreadLocalRandom.current().nextInt(captureSampleInterval) != 0) {
+            return null;
+        }
+        return begin(new CaptureEvent());
+    }
+
+    /**
+     * The request was captured; {@code overheadNanos} is the time telemetry code spent on it.
+     */
+    void capture(CaptureEvent event, String method, String endpoint, int status, long durationMicros,
+                 long overheadNanos) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.endpoint = endpoint;
+            event.status = status;
+            event.requestDuration = durationMicros;
+            event.overhead = overheadNanos;
+            event.sampleInterval = captureSampleInterval;
+            event.commit();
+        }
+    }
+
+    /**
+     * Start an eviction event before adding to a full buffer; null when it is not recorded.
+     */
+    EvictionEvent beginEviction() {
+        return enabled ? begin(new EvictionEvent()) : null;
+    }
+
+    /**
+     * The buffer was full and its oldest record was dropped.
+     */
+    void evicted(EvictionEvent event, int bufferSize) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.bufferSize = bufferSize;
+            event.commit();
+        }
+    }
+
+    DrainEvent beginDrain() {
+        return enabled ? begin(new DrainEvent()) : null;
+    }
+
+    void drained(DrainEvent event, int records, int remaining) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.records = records;
+            event.remaining = remaining;
+            event.commit();
+        }
+    }
+
+    EncodeEvent beginEncode() {
+        return enabled ? begin(new EncodeEvent()) : null;
+    }
+
+    void encoded(EncodeEvent event, int records, long bytes, long micros) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.records = records;
+            event.bytes = bytes;
+            event.encodeDuration = micros;
+            event.commit();
+        }
+    }
+
+    SendEvent beginSend() {
+        return enabled ? begin(new SendEvent()) : null;
+    }
+
+    void sent(SendEvent event, int attempt, long bytes, long micros, boolean success) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.attempt = attempt;
+            event.bytes = bytes;
+            event.sendDuration = micros;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    /**
+     * Start the event's clock if a running recording has it enabled, otherwise return null.
+     */
+    private static <E extends Event> E begin(E event) {
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Name("dev.muzy.malti.Capture")
+    @Label("Request Capture")
+    @Description("A sampled request captured by telemetry")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class CaptureEvent extends Event {
+        @Label("Method")
+        String method;
+
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Status")
+        int status;
+
+        @Label("Request Duration")
+        @Timespan(Timespan.MICROSECONDS)
+        long requestDuration;
+
+        @Label("Telemetry Overhead")
+        @Timespan(Timespan.NANOSECONDS)
+        long overhead;
+
+        @Label("Sample Interval")
+        @Description("One in this many captures is recorded")
+        int sampleInterval;
+    }
+
+    @Name("dev.muzy.malti.Eviction")
+    @Label("Buffer Eviction")
+    @Description("The oldest buffered record was dropped because the buffer was full")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class EvictionEvent extends Event {
+        @Label("Buffer Size")
+        int bufferSize;
+    }
+
+    @Name("dev.muzy.malti.Drain")
+    @Label("Batch Drain")
+    @Description("A batch was taken from the buffer to be sent")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class DrainEvent extends Event {
+        @Label("Records")
+        int records;
+
+        @Label("Remaining")
+        @Description("Records left in the buffer")
+        int remaining;
+    }
+
+    @Name("dev.muzy.malti.Encode")
+    @Label("Batch Encode")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class EncodeEvent extends Event {
+        @Label("Records")
+        int records;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Encode Duration")
+        @Timespan(Timespan.MICROSECONDS)
+        long encodeDuration;
+    }
+
+    @Name("dev.muzy.malti.Send")
+    @Label("Batch Send")
+    @Description("One HTTP send attempt of an encoded batch")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class SendEvent extends Event {
+        @Label("Attempt")
+        int attempt;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Send Duration")
+        @Timespan(Timespan.MICROSECONDS)
+        long sendDuration;
+
+        @Label("Success")
+        boolean success;
+    }
+}
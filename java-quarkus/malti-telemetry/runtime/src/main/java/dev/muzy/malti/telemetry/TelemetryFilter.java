@@ -0,0 +1,186 @@
+package dev.muzy.malti.telemetry;
+
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.Provider;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+
+/**
+ * Single telemetry filter that handles both request and response phases.
+ * - On request: build route template, apply exclusion rules, start timing in a single {@link RequestState}
+ * - On completion: resolve consumer and context with the {@link ConsumerResolver} and record the request
+ *   once the response has been fully written, with time to first and last byte
+ * Without a Vert.x routing context (never the case on the Quarkus HTTP server) the state is kept as a
+ * request property and the response filter records instead.
+ * In Vert.x capture mode the {@link TelemetryRouteHandler} records the request and this filter only
+ * tags its request state with the resolved route template.
+ * Nothing is captured with {@code malti.enabled=false}. Time spent here is reported to the
+ * {@link OverheadGovernor}, and only its probe requests are captured while it has disabled telemetry.
+ */
+@Provider
+public class TelemetryFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String STATE_PROPERTY = "malti.state";
+
+    private static final Logger LOG = Logger.getLogger(TelemetryFilter.class);
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Inject
+    TelemetryRules rules;
+
+    @Inject
+    TelemetryPipelines pipelines;
+
+    @Inject
+    TelemetryRouteHandler routeHandler;
+
+    @Inject
+    PathNormalizer pathNormalizer;
+
+    @Inject
+    ConsumerResolver consumerResolver;
+
+    @Inject
+    OverheadGovernor governor;
+
+    @Inject
+    TelemetryEvents events;
+
+    @Inject
+    CurrentVertxRequest currentVertxRequest;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    private final RequestState.Recorder recorder = this::record;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        boolean routeLevel = routeHandler.isActive();
+        if (!routeLevel && (!telemetryService.isEnabled() || !governor.captures())) {
+            return;
+        }
+        long begin = System.nanoTime();
+        RoutingContext routingContext = currentVertxRequest.getCurrent();
+        RequestState tagged = null;
+        if (routeLevel) {
+            // The route handler has already decided whether to capture, and started the state if it did
+            if (routingContext == null
+                    || !(routingContext.get(TelemetryRouteHandler.STATE_KEY) instanceof RequestState state)) {
+                return;
+            }
+            tagged = state;
+        }
+
+        // Build templated route e.g. /users/{userid} and resolve its rules and pipeline
+        String endpoint = buildRouteTemplate(requestContext.getUriInfo());
+        TelemetryRules.RouteDecision route = rules.forResourceMethod(
+            resourceInfo != null ? resourceInfo.getResourceClass() : null,
+            resourceInfo != null ? resourceInfo.getResourceMethod() : null, endpoint);
+        TelemetryPipeline pipeline = pipelines.forResource(
+            resourceInfo != null ? resourceInfo.getResourceClass() : null, endpoint);
+
+        if (tagged != null) {
+            // Hand the resolved template and pipeline to the router-level handler, which has no access to the
+            // matched resource method
+            tagged.endpoint = endpoint;
+            tagged.route = route;
+            tagged.pipeline = pipeline;
+            tagged.overheadNanos += System.nanoTime() - begin;
+            return;
+        }
+
+        // Excluded routes skip all telemetry work, including header extraction
+        if (route.excludesRequest(requestContext.getMethod())) {
+            return;
+        }
+
+        if (routingContext != null) {
+            // The response filter runs before the entity is written, so streamed and async bodies are
+            // only complete in the routing context's end handler
+            RequestState state = RequestState.start(routingContext, recorder);
+            state.event = events.beginCapture();
+            state.endpoint = endpoint;
+            state.route = route;
+            state.pipeline = pipeline;
+            state.overheadNanos = System.nanoTime() - begin;
+        } else {
+            RequestState state = RequestState.detached(endpoint, route, pipeline);
+            state.overheadNanos = System.nanoTime() - begin;
+            requestContext.setProperty(STATE_PROPERTY, state);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Request started: %s %s", requestContext.getMethod(), endpoint);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        if (!(requestContext.getProperty(STATE_PROPERTY) instanceof RequestState state)) {
+            return;
+        }
+        long begin = System.nanoTime();
+        try {
+            long durationMicros = state.elapsedMicros();
+            telemetryService.recordRequest(state.pipeline, state.route, requestContext.getMethod(), state.endpoint,
+                responseContext.getStatus(), 0, durationMicros, 0, 0,
+                consumerResolver.consumer(requestContext), consumerResolver.context(requestContext));
+            governor.record(state.overheadNanos + System.nanoTime() - begin, durationMicros * 1000);
+        } catch (Exception e) {
+            LOG.debugf("Telemetry recording failed: %s", e.getMessage());
+        }
+    }
+
+    private void record(RoutingContext routingContext, RequestState state) {
+        long begin = System.nanoTime();
+        try {
+            long durationMicros = state.elapsedMicros();
+            HttpServerRequest request = routingContext.request();
+            // Byte counts come from the connection, so bodies are never buffered or copied
+            HttpServerResponse response = routingContext.response();
+            telemetryService.recordRequest(state.pipeline, state.route, request.method().name(), state.endpoint,
+                response.getStatusCode(), state.ttfbMicros(), durationMicros, request.bytesRead(),
+                response.bytesWritten(), consumerResolver.consumer(request), consumerResolver.context(request));
+            long overheadNanos = state.overheadNanos + System.nanoTime() - begin;
+            governor.record(overheadNanos, durationMicros * 1000);
+            events.capture(state.event, request.method().name(), state.endpoint, response.getStatusCode(), durationMicros, overheadNanos);
+        } catch (Exception e) {
+            LOG.debugf("Telemetry recording failed: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Resolve the route template like /users/{userid} for the matched resource method.
+     * Templates are precomputed at build time, so this is a cached map read per request.
+     */
+    String buildRouteTemplate(UriInfo uriInfo) {
+        try {
+            if (resourceInfo != null) {
+                String template = RouteTemplates.lookup(resourceInfo.getResourceClass(), resourceInfo.getResourceMethod());
+                if (template != null) {
+                    return template;
+                }
+            }
+        } catch (Exception e) {
+            LOG.debugf("Error building route template: %s", e.getMessage());
+        }
+
+        // Fallback to the actual path, with ids and other variable segments replaced
+        return pathNormalizer.normalize(uriInfo.getPath());
+    }
+}
@@ -0,0 +1,117 @@
+package dev.muzy.malti.telemetry;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers the telemetry pipeline's counters, gauges and histograms with Micrometer. Buffer meters
+ * are registered per pipeline with a {@code pipeline} tag; the send meters cover all pipelines.
+ * Only made a bean by the deployment module when the application uses Micrometer, since this
+ * class cannot be loaded without it. Counters are function counters over the existing
+ * {@code LongAdder}s, so nothing is counted twice on the request path.
+ */
+public class TelemetryMeterBinder implements MeterBinder {
+
+    static final String PREFIX = "malti.telemetry.";
+
+    @Inject
+    TelemetryPipelines pipelines;
+
+    @Inject
+    TelemetryMetrics metrics;
+
+    @Inject
+    OverheadGovernor governor;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (TelemetryPipeline pipeline : pipelines.all()) {
+            bindBuffer(registry, pipeline.buffer(), Tags.of("pipeline", pipeline.name()));
+        }
+
+        FunctionCounter.builder(PREFIX + "batches.sent", metrics, TelemetryMetrics::batchesSent)
+            .register(registry);
+        FunctionCounter.builder(PREFIX + "batches.failed", metrics, TelemetryMetrics::batchesFailed)
+            .register(registry);
+        FunctionCounter.builder(PREFIX + "send.retries", metrics, TelemetryMetrics::retries)
+            .register(registry);
+        FunctionCounter.builder(PREFIX + "bytes.sent", metrics, TelemetryMetrics::bytesSent)
+            .baseUnit("bytes")
+            .register(registry);
+        Gauge.builder(PREFIX + "sends.in.flight", metrics, TelemetryMetrics::sendsInFlight)
+            .register(registry);
+        Gauge.builder(PREFIX + "send.consecutive.failures", metrics, TelemetryMetrics::consecutiveFailures)
+            .description("Batches failed since the last successful send; non-zero while the server is unreachable")
+            .register(registry);
+
+        Timer send = Timer.builder(PREFIX + "send.duration")
+            .description("Duration of one HTTP send attempt")
+            .publishPercentileHistogram()
+            .register(registry);
+        metrics.sendMicros().exportTo(micros -> send.record(micros, TimeUnit.MICROSECONDS));
+
+        Timer encode = Timer.builder(PREFIX + "batch.encode.duration")
+            .register(registry);
+        metrics.encodeMicros().exportTo(micros -> encode.record(micros, TimeUnit.MICROSECONDS));
+
+        Timer age = Timer.builder(PREFIX + "record.age")
+            .description("Time records spent in the buffer before being sent")
+            .publishPercentileHistogram()
+            .register(registry);
+        metrics.recordAgeMillis().exportTo(millis -> age.record(millis, TimeUnit.MILLISECONDS));
+
+        DistributionSummary size = DistributionSummary.builder(PREFIX + "batch.size")
+            .baseUnit("records")
+            .register(registry);
+        metrics.batchRecords().exportTo(size::record);
+
+        Gauge.builder(PREFIX + "degradation.level", governor, g -> g.level().ordinal())
+            .description("Overhead degradation level: 0 normal, 1 sample harder, 2 aggregate only, 3 disabled")
+            .register(registry);
+    }
+
+    /**
+     * Buffer meters of one pipeline, tagged with its name.
+     */
+    private static void bindBuffer(MeterRegistry registry, TelemetryBuffer buffer, Tags tags) {
+        FunctionCounter.builder(PREFIX + "records.enqueued", buffer, TelemetryBuffer::totalAdded)
+            .description("Records added to the send buffer")
+            .tags(tags)
+            .register(registry);
+        FunctionCounter.builder(PREFIX + "records.evicted", buffer, TelemetryBuffer::totalEvicted)
+            .description("Records dropped because the buffer was full")
+            .tags(tags)
+            .register(registry);
+        FunctionCounter.builder(PREFIX + "records.expired", buffer, TelemetryBuffer::totalExpired)
+            .description("Records dropped because they were older than the max age")
+            .tags(tags)
+            .register(registry);
+        FunctionCounter.builder(PREFIX + "records.sent", buffer, TelemetryBuffer::totalSent)
+            .tags(tags)
+            .register(registry);
+        FunctionCounter.builder(PREFIX + "records.failed", buffer, TelemetryBuffer::totalFailed)
+            .description("Records in batches that failed after all retries")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(PREFIX + "buffer.size", buffer, TelemetryBuffer::size)
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(PREFIX + "buffer.fill", buffer, b -> (double) b.size() / b.getMaxSize())
+            .description("Fraction of the buffer in use")
+            .tags(tags)
+            .register(registry);
+        TimeGauge.builder(PREFIX + "buffer.oldest.age", buffer, TimeUnit.MILLISECONDS, TelemetryBuffer::oldestRecordAgeMillis)
+            .description("Age of the oldest buffered record")
+            .tags(tags)
+            .register(registry);
+    }
+}
@@ -0,0 +1,185 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Health of the send pipeline: batch encoding, HTTP sends, retries and how long records wait in
+ * the buffer. Buffer-side counters (enqueued, evicted) live in {@link TelemetryBuffer}. Everything
+ * here is lock-free and available through {@link #getStats()}; when Micrometer is present the
+ * same values are also registered as meters by {@link TelemetryMeterBinder}.
+ */
+@ApplicationScoped
+public class TelemetryMetrics {
+
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder batchesFailed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final AtomicInteger sendsInFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final Distribution recordAgeMillis = new Distribution();
+    private final Distribution encodeMicros = new Distribution();
+    private final Distribution sendMicros = new Distribution();
+    private final Distribution batchRecords = new Distribution();
+
+    /**
+     * A batch was taken from the buffer; records its size and how long each record waited.
+     */
+    void batchTaken(List<TelemetryRecord> batch) {
+        batchRecords.record(batch.size());
+        long now = System.currentTimeMillis();
+        for (TelemetryRecord record : batch) {
+            recordAgeMillis.record(record.ageMillis(now));
+        }
+    }
+
+    void batchEncoded(long micros) {
+        encodeMicros.record(micros);
+    }
+
+    void sendStarted(int attempt) {
+        sendsInFlight.incrementAndGet();
+        if (attempt > 1) {
+            retries.increment();
+        }
+    }
+
+    void sendFinished(long micros) {
+        sendsInFlight.decrementAndGet();
+        sendMicros.record(micros);
+    }
+
+    void batchSent(long bytes) {
+        batchesSent.increment();
+        bytesSent.add(bytes);
+        consecutiveFailures.set(0);
+    }
+
+    void batchFailed() {
+        batchesFailed.increment();
+        consecutiveFailures.incrementAndGet();
+    }
+
+    long batchesSent() {
+        return batchesSent.sum();
+    }
+
+    long batchesFailed() {
+        return batchesFailed.sum();
+    }
+
+    long retries() {
+        return retries.sum();
+    }
+
+    long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    int sendsInFlight() {
+        return sendsInFlight.get();
+    }
+
+    int consecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    Distribution recordAgeMillis() {
+        return recordAgeMillis;
+    }
+
+    Distribution encodeMicros() {
+        return encodeMicros;
+    }
+
+    Distribution sendMicros() {
+        return sendMicros;
+    }
+
+    Distribution batchRecords() {
+        return batchRecords;
+    }
+
+    public PipelineStats getStats() {
+        return new PipelineStats(
+            batchesSent(),
+            batchesFailed(),
+            retries(),
+            bytesSent(),
+            sendsInFlight(),
+            consecutiveFailures(),
+            batchRecords.mean(),
+            recordAgeMillis.mean(),
+            recordAgeMillis.max(),
+            encodeMicros.mean(),
+            sendMicros.mean(),
+            sendMicros.max()
+        );
+    }
+
+    /**
+     * Send pipeline statistics. {@code consecutiveFailures} counts batches that failed after all
+     * retries since the last successful one; durations are in the unit named by each field.
+     */
+    public record PipelineStats(
+        long batchesSent,
+        long batchesFailed,
+        long retries,
+        long bytesSent,
+        int sendsInFlight,
+        int consecutiveFailures,
+        double meanBatchRecords,
+        double meanRecordAgeMillis,
+        long maxRecordAgeMillis,
+        double meanEncodeMicros,
+        double meanSendMicros,
+        long maxSendMicros
+    ) {}
+
+    /**
+     * Count, total and maximum of a recorded value, optionally forwarded to an exporter such as a
+     * Micrometer timer that keeps the full histogram.
+     */
+    static final class Distribution {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private volatile LongConsumer exporter;
+
+        void record(long value) {
+            count.increment();
+            total.add(value);
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max);
+            }
+            LongConsumer e = exporter;
+            if (e != null) {
+                e.accept(value);
+            }
+        }
+
+        void exportTo(LongConsumer exporter) {
+            this.exporter = exporter;
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        double mean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) total.sum() / n;
+        }
+    }
+}
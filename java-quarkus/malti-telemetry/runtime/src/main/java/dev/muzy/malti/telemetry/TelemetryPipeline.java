@@ -0,0 +1,135 @@
+package dev.muzy.malti.telemetry;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One isolated path from capture to the server: its own buffer, service name, API key and sender
+ * threads. Its batch settings live in the current {@link TelemetrySettings}, so they can change at
+ * runtime. Records of one pipeline never evict another pipeline's records, and each pipeline drains on
+ * its own sender, so a noisy service delays only its own telemetry.
+ * <p>
+ * Drains run one at a time on the pipeline's sender thread ({@code malti-sender} for the default
+ * pipeline, {@code malti-sender-<name>} otherwise). With a sender concurrency above one, a drain
+ * sends that many batches at once, on virtual threads of their own.
+ */
+public final class TelemetryPipeline {
+
+    /**
+     * Name of the pipeline configured by the top-level {@code malti.*} settings.
+     */
+    public static final String DEFAULT = "default";
+
+    private final String name;
+    private final String serviceName;
+    private final Optional<String> apiKey;
+    private final TelemetryBuffer buffer;
+    private final TelemetrySettings.Batch configuredBatch;
+    private final ExecutorService sender;
+    private final ExecutorService batchSenders;
+
+    final AtomicBoolean drainRequested = new AtomicBoolean(false);
+    // Records taken from the buffer into a batch that has not been sent or given up yet
+    final AtomicInteger inFlight = new AtomicInteger();
+    private long intervalStartNanos;
+
+    TelemetryPipeline(String name, String serviceName, Optional<String> apiKey, TelemetryBuffer buffer,
+                      TelemetrySettings.Batch configuredBatch) {
+        this.name = name;
+        this.serviceName = serviceName;
+        this.apiKey = apiKey;
+        this.buffer = buffer;
+        this.configuredBatch = configuredBatch;
+        String thread = DEFAULT.equals(name) ? "malti-sender" : "malti-sender-" + name;
+        this.sender = Executors.newSingleThreadExecutor(Thread.ofVirtual().name(thread).factory());
+        // Starts no threads until a drain sends several batches, which the settings may allow later
+        this.batchSenders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(thread + "-", 0).factory());
+        this.intervalStartNanos = System.nanoTime();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String serviceName() {
+        return serviceName;
+    }
+
+    Optional<String> apiKey() {
+        return apiKey;
+    }
+
+    public TelemetryBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Records not sent yet: those still buffered and those in a batch being sent.
+     */
+    int unsent() {
+        return buffer.size() + inFlight.get();
+    }
+
+    /**
+     * Batch settings from configuration, the starting point of the runtime settings.
+     */
+    TelemetrySettings.Batch configuredBatch() {
+        return configuredBatch;
+    }
+
+    ExecutorService sender() {
+        return sender;
+    }
+
+    /**
+     * Runs the extra batches of a drain when the sender concurrency is above one.
+     */
+    ExecutorService batchSenders() {
+        return batchSenders;
+    }
+
+    /**
+     * Whether {@code intervalSeconds} have passed since the current interval started; if so, the next
+     * interval starts at {@code nowNanos}. The interval is passed in on every call, so a changed setting
+     * applies to the interval already running. Only called from the scheduler thread.
+     */
+    boolean intervalElapsed(long nowNanos, int intervalSeconds) {
+        if (nowNanos - intervalStartNanos < TimeUnit.SECONDS.toNanos(intervalSeconds)) {
+            return false;
+        }
+        intervalStartNanos = nowNanos;
+        return true;
+    }
+
+    /**
+     * Stop the sender threads, interrupting a drain still running; records still buffered are not sent.
+     */
+    void stop() {
+        sender.shutdownNow();
+        batchSenders.shutdownNow();
+    }
+
+    /**
+     * Statistics of this pipeline under the given batch settings, normally the current ones.
+     */
+    public Stats getStats(TelemetrySettings.Batch batch) {
+        return new Stats(name, serviceName, batch.size(), batch.intervalSeconds(), batch.senderConcurrency(),
+            buffer.getStats());
+    }
+
+    /**
+     * Settings and buffer statistics of one pipeline.
+     */
+    public record Stats(
+        String name,
+        String serviceName,
+        int batchSize,
+        int intervalSeconds,
+        int senderConcurrency,
+        TelemetryBuffer.BufferStats buffer
+    ) {}
+}
@@ -0,0 +1,185 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The default pipeline and the named pipelines from {@code malti.pipelines.<name>.*}. A request goes to
+ * the pipeline listing its JAX-RS resource class, otherwise to the pipeline with the longest route
+ * prefix matching its route template, otherwise to the default pipeline. Prefixes match whole segments,
+ * so {@code /api/billing} takes {@code /api/billing/invoices} but not {@code /api/billing-v2}.
+ * Without named pipelines every lookup returns the default pipeline straight away.
+ */
+@ApplicationScoped
+public class TelemetryPipelines {
+
+    private static final Logger LOG = Logger.getLogger(TelemetryPipelines.class);
+
+    @Inject
+    TelemetryConfig config;
+
+    @Inject
+    TelemetryBuffer buffer;
+
+    private TelemetryPipeline defaultPipeline;
+    private List<TelemetryPipeline> all = List.of();
+    private final Map<String, TelemetryPipeline> byResourceClass = new HashMap<>();
+    private final List<Prefix> prefixes = new ArrayList<>();
+
+    private record Prefix(String route, TelemetryPipeline pipeline) {}
+
+    public TelemetryPipelines() {
+    }
+
+    TelemetryPipelines(TelemetryConfig config, TelemetryBuffer buffer) {
+        configure(config, buffer);
+    }
+
+    @PostConstruct
+    void init() {
+        configure(config, buffer);
+    }
+
+    private void configure(TelemetryConfig config, TelemetryBuffer buffer) {
+        TelemetryConfig.Batch batch = config.batch();
+        defaultPipeline = new TelemetryPipeline(TelemetryPipeline.DEFAULT, config.serviceName(), config.apiKey(),
+            buffer, batch(TelemetryPipeline.DEFAULT, batch.size(), batch.intervalSeconds(), batch.senderConcurrency()));
+        List<TelemetryPipeline> pipelines = new ArrayList<>();
+        pipelines.add(defaultPipeline);
+
+        // Sorted by name, so conflicts are reported the same way on every start
+        for (Map.Entry<String, TelemetryConfig.Pipeline> entry : new TreeMap<>(config.pipelines()).entrySet()) {
+            String name = entry.getKey();
+            TelemetryConfig.Pipeline settings = entry.getValue();
+            if (TelemetryPipeline.DEFAULT.equals(name)) {
+                throw new IllegalArgumentException("malti.pipelines." + name
+                    + " is reserved; the default pipeline is configured by the top-level malti.* settings");
+            }
+            TelemetryPipeline pipeline = new TelemetryPipeline(name,
+                settings.serviceName().orElse(config.serviceName()),
+                settings.apiKey().or(config::apiKey),
+                new TelemetryBuffer(settings.bufferSize(), config.buffer().maxAgeSeconds().orElse(0),
+                    config.buffer().segmentSeconds(), config.buffer().drainOrder()),
+                batch(name,
+                    settings.batch().size().orElse(batch.size()),
+                    settings.batch().intervalSeconds().orElse(batch.intervalSeconds()),
+                    settings.batch().senderConcurrency().orElse(batch.senderConcurrency())));
+
+            List<String> classes = settings.resourceClasses().orElse(List.of());
+            List<String> routes = settings.routes().orElse(List.of());
+            if (classes.isEmpty() && routes.isEmpty()) {
+                throw new IllegalArgumentException("malti.pipelines." + name
+                    + " selects no requests; set its routes or resource-classes");
+            }
+            for (String resourceClass : classes) {
+                TelemetryPipeline previous = byResourceClass.putIfAbsent(resourceClass.trim(), pipeline);
+                if (previous != null) {
+                    throw new IllegalArgumentException("Resource class " + resourceClass + " is selected by both pipeline '"
+                        + previous.name() + "' and pipeline '" + name + "'");
+                }
+            }
+            for (String route : routes) {
+                String prefix = normalize(route);
+                for (Prefix existing : prefixes) {
+                    if (existing.route().equals(prefix)) {
+                        throw new IllegalArgumentException("Route prefix " + prefix + " is selected by both pipeline '"
+                            + existing.pipeline().name() + "' and pipeline '" + name + "'");
+                    }
+                }
+                prefixes.add(new Prefix(prefix, pipeline));
+            }
+            pipelines.add(pipeline);
+        }
+        // Longest prefix first, so the most specific pipeline wins
+        prefixes.sort(Comparator.comparingInt((Prefix p) -> p.route().length()).reversed());
+        all = List.copyOf(pipelines);
+        if (all.size() > 1) {
+            LOG.debugf("Configured %d named telemetry pipelines", all.size() - 1);
+        }
+    }
+
+    private static TelemetrySettings.Batch batch(String pipeline, int size, int intervalSeconds, int senderConcurrency) {
+        try {
+            return new TelemetrySettings.Batch(size, intervalSeconds, senderConcurrency);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Pipeline '" + pipeline + "': " + e.getMessage(), e);
+        }
+    }
+
+    private static String normalize(String route) {
+        String prefix = route.trim();
+        if (!prefix.startsWith("/")) {
+            prefix = "/" + prefix;
+        }
+        while (prefix.length() > 1 && prefix.endsWith("/")) {
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        return prefix;
+    }
+
+    /**
+     * Pipeline for a request matched to a JAX-RS resource class, which may be null, and route template.
+     */
+    public TelemetryPipeline forResource(Class<?> resourceClass, String template) {
+        if (all.size() == 1) {
+            return defaultPipeline;
+        }
+        if (resourceClass != null && !byResourceClass.isEmpty()) {
+            TelemetryPipeline pipeline = byResourceClass.get(resourceClass.getName());
+            if (pipeline != null) {
+                return pipeline;
+            }
+        }
+        return forRoute(template);
+    }
+
+    /**
+     * Pipeline for a route template or normalized path.
+     */
+    public TelemetryPipeline forRoute(String template) {
+        if (all.size() == 1 || template == null) {
+            return defaultPipeline;
+        }
+        for (Prefix prefix : prefixes) {
+            String route = prefix.route();
+            if (template.startsWith(route) && (template.length() == route.length() || route.length() == 1
+                    || template.charAt(route.length()) == '/')) {
+                return prefix.pipeline();
+            }
+        }
+        return defaultPipeline;
+    }
+
+    /**
+     * The pipeline configured by the top-level settings, which also takes outbound calls.
+     */
+    public TelemetryPipeline defaultPipeline() {
+        return defaultPipeline;
+    }
+
+    /**
+     * All pipelines, the default one first.
+     */
+    public List<TelemetryPipeline> all() {
+        return all;
+    }
+
+    /**
+     * Stop every pipeline's sender threads, after {@link TelemetryService} has had its bounded shutdown flush;
+     * records still buffered are not sent.
+     */
+    @PreDestroy
+    void stop() {
+        all.forEach(TelemetryPipeline::stop);
+    }
+}
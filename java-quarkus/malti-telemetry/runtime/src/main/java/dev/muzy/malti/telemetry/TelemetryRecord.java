@@ -0,0 +1,188 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
+
+/**
+ * Represents a single telemetry record that tracks HTTP request metrics.
+ * This mirrors the Python implementation's TelemetryRecord structure.
+ */
+public class TelemetryRecord {
+    
+    @JsonProperty("service")
+    private String service;
+    
+    @JsonProperty("method")
+    private String method;
+    
+    @JsonProperty("endpoint")
+    private String endpoint;
+    
+    @JsonProperty("status")
+    private int status;
+    
+    @JsonProperty("response_time")
+    private int responseTime;
+    
+    /**
+     * Time to first byte (response headers written) in microseconds; only serialized when measured.
+     */
+    @JsonProperty("ttfb_us")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private long ttfbMicros;
+    
+    /**
+     * Time to last byte (response fully written) in microseconds; only serialized when measured.
+     */
+    @JsonProperty("ttlb_us")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private long ttlbMicros;
+    
+    /**
+     * Request body bytes read; only serialized when non-zero.
+     */
+    @JsonProperty("request_bytes")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private long requestBytes;
+    
+    /**
+     * Response body bytes written; only serialized when non-zero.
+     */
+    @JsonProperty("response_bytes")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private long responseBytes;
+    
+    /**
+     * Downstream host and port for outbound REST client calls; absent for inbound requests.
+     */
+    @JsonProperty("target")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String target;
+    
+    @JsonProperty("consumer")
+    private String consumer;
+    
+    @JsonProperty("node")
+    private String node;
+    
+    @JsonProperty("context")
+    private String context;
+    
+    /**
+     * ISO-8601 creation time, formatted from {@link #created} only when first read, i.e. at send time.
+     */
+    @JsonProperty("created_at")
+    private String createdAt;
+    
+    private final Instant created = Instant.now();
+    
+    /**
+     * Probability this record was kept with; each record stands for {@code 1 / sampleRate} requests.
+     * Only serialized when the record was actually sampled.
+     */
+    @JsonProperty("sample_rate")
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UnsampledFilter.class)
+    private double sampleRate = 1.0;
+    
+    public TelemetryRecord() {
+    }
+    
+    public TelemetryRecord(String service, String method, String endpoint, int status, 
+                          int responseTime, String consumer, String node, String context) {
+        this.service = service;
+        this.method = method;
+        this.endpoint = endpoint;
+        this.status = status;
+        this.responseTime = responseTime;
+        this.consumer = consumer;
+        this.node = node;
+        this.context = context;
+    }
+    
+    // Getters and setters
+    public String getService() { return service; }
+    public void setService(String service) { this.service = service; }
+    
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+    
+    public String getEndpoint() { return endpoint; }
+    public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+    
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+    
+    public int getResponseTime() { return responseTime; }
+    public void setResponseTime(int responseTime) { this.responseTime = responseTime; }
+    
+    public long getTtfbMicros() { return ttfbMicros; }
+    public void setTtfbMicros(long ttfbMicros) { this.ttfbMicros = ttfbMicros; }
+    
+    public long getTtlbMicros() { return ttlbMicros; }
+    public void setTtlbMicros(long ttlbMicros) { this.ttlbMicros = ttlbMicros; }
+    
+    public long getRequestBytes() { return requestBytes; }
+    public void setRequestBytes(long requestBytes) { this.requestBytes = requestBytes; }
+    
+    public long getResponseBytes() { return responseBytes; }
+    public void setResponseBytes(long responseBytes) { this.responseBytes = responseBytes; }
+    
+    public String getTarget() { return target; }
+    public void setTarget(String target) { this.target = target; }
+    
+    public String getConsumer() { return consumer; }
+    public void setConsumer(String consumer) { this.consumer = consumer; }
+    
+    public String getNode() { return node; }
+    public void setNode(String node) { this.node = node; }
+    
+    public String getContext() { return context; }
+    public void setContext(String context) { this.context = context; }
+    
+    public String getCreatedAt() {
+        if (createdAt == null) {
+            createdAt = created.toString();
+        }
+        return createdAt;
+    }
+    public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
+    
+    /**
+     * Milliseconds since this record was created.
+     */
+    long ageMillis(long nowMillis) {
+        return nowMillis - created.toEpochMilli();
+    }
+    
+    /**
+     * Creation time in nanoseconds since the epoch; records are created when the request completes.
+     */
+    long createdEpochNanos() {
+        return created.getEpochSecond() * 1_000_000_000L + created.getNano();
+    }
+    
+    public double getSampleRate() { return sampleRate; }
+    public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+    
+    @Override
+    public String toString() {
+        return String.format("TelemetryRecord{service='%s', method='%s', endpoint='%s', status=%d, responseTime=%d, consumer='%s'}",
+                service, method, endpoint, status, responseTime, consumer);
+    }
+    
+    /**
+     * Jackson value filter that omits {@code sample_rate} for unsampled records.
+     */
+    static final class UnsampledFilter {
+        @Override
+        public boolean equals(Object value) {
+            return value instanceof Double rate && rate >= 1.0;
+        }
+        
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dev.muzy.malti.telemetry;
+
+import io.quarkus.vertx.http.runtime.filters.Filters;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+/**
+ * Router-level request capture, active when {@code malti.capture-mode=vertx}.
+ * Registered as a Vert.x HTTP filter ahead of security and resource matching, so it also sees
+ * Reactive Routes, static resources and requests rejected before reaching JAX-RS. The request
+ * phase only starts a {@link RequestState} and stores it in the routing context; all other work happens
+ * once the response has been written. When a JAX-RS resource method was matched, {@link TelemetryFilter}
+ * tags that state with its route template and pipeline, otherwise the path is templated by the
+ * {@link PathNormalizer} and the pipeline chosen by route prefix alone.
+ * Time spent here is reported to the {@link OverheadGovernor}; requests pass straight through while it
+ * has disabled telemetry.
+ */
+@ApplicationScoped
+public class TelemetryRouteHandler implements Handler<RoutingContext> {
+
+    static final String STATE_KEY = "malti.state";
+
+    /**
+     * Runs before the Quarkus CORS and authentication filters so rejected requests are timed too.
+     */
+    static final int FILTER_PRIORITY = 10_000;
+
+    private static final Logger LOG = Logger.getLogger(TelemetryRouteHandler.class);
+
+    @Inject
+    TelemetryService telemetryService;
+
+    @Inject
+    TelemetryRules rules;
+
+    @Inject
+    TelemetryPipelines pipelines;
+
+    @Inject
+    PathNormalizer pathNormalizer;
+
+    @Inject
+    ConsumerResolver consumerResolver;
+
+    @Inject
+    OverheadGovernor governor;
+
+    @Inject
+    TelemetryEvents events;
+
+    @Inject
+    TelemetryConfig config;
+
+    private final RequestState.Recorder recorder = this::record;
+
+    private volatile boolean active;
+
+    void register(@Observes Filters filters) {
+        if (config.enabled() && config.captureMode() == TelemetryConfig.CaptureMode.VERTX) {
+            filters.register(this, FILTER_PRIORITY);
+            active = true;
+            LOG.debug("Capturing requests at the Vert.x router");
+        }
+    }
+
+    /**
+     * Whether requests are recorded here rather than by {@link TelemetryFilter}.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public void handle(RoutingContext routingContext) {
+        if (governor.captures()) {
+            long begin = System.nanoTime();
+            RequestState state = RequestState.start(routingContext, recorder);
+            state.event = events.beginCapture();
+            routingContext.put(STATE_KEY, state);
+            state.overheadNanos = System.nanoTime() - begin;
+        }
+        routingContext.next();
+    }
+
+    void record(RoutingContext routingContext, RequestState state) {
+        long begin = System.nanoTime();
+        try {
+            long durationMicros = state.elapsedMicros();
+            HttpServerRequest request = routingContext.request();
+            String method = request.method().name();
+
+            String endpoint = state.endpoint;
+            TelemetryRules.RouteDecision route = state.route;
+            TelemetryPipeline pipeline = state.pipeline;
+            if (endpoint == null || route == null || pipeline == null) {
+                endpoint = pathNormalizer.normalize(routingContext.normalizedPath());
+                route = rules.forTemplate(endpoint);
+                pipeline = pipelines.forRoute(endpoint);
+            }
+            if (route.excludesRequest(method)) {
+                return;
+            }
+
+            // Byte counts come from the connection, so bodies are never buffered or copied
+            HttpServerResponse response = routingContext.response();
+            telemetryService.recordRequest(pipeline, route, method, endpoint, response.getStatusCode(), state.ttfbMicros(),
+                durationMicros, request.bytesRead(), response.bytesWritten(),
+                consumerResolver.consumer(request), consumerResolver.context(request));
+            long overheadNanos = state.overheadNanos + System.nanoTime() - begin;
+            governor.record(overheadNanos, durationMicros * 1000);
+            events.capture(state.event, method, endpoint, response.getStatusCode(), durationMicros, overheadNanos);
+        } catch (Exception e) {
+            LOG.debugf("Telemetry recording failed: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Per-route sampling and exclusion rules from {@code malti.rules[n].*}, compiled once at startup.
+ * Route patterns are stored in a segment trie, so finding the rules that apply to a route template
+ * costs one walk over its segments. Results are cached per JAX-RS resource method and the resource class
+ * it is invoked on, so for matched routes the decision is a cache read. {@code **} may only end a pattern. Rules are evaluated in declaration order and the first
+ * rule whose route, method, status and consumer all match wins.
+ */
+@ApplicationScoped
+public class TelemetryRules {
+
+    private static final Logger LOG = Logger.getLogger(TelemetryRules.class);
+
+    /**
+     * What to do with a matching request.
+     */
+    public enum Action {
+        /** Do not record the request at all */
+        EXCLUDE,
+        /** Record with the rule's fixed sampling rate instead of adaptive sampling */
+        SAMPLE,
+        /** Always record, bypassing clean mode and adaptive sampling */
+        KEEP
+    }
+
+    @Inject
+    TelemetryConfig config;
+
+    private final TrieNode root = new TrieNode();
+    private final ResourceMethodCache<RouteDecision> byResourceMethod = new ResourceMethodCache<>();
+    private boolean empty = true;
+
+    public TelemetryRules() {
+    }
+
+    TelemetryRules(List<TelemetryConfig.Rule> rules) {
+        compile(rules);
+    }
+
+    @PostConstruct
+    void init() {
+        compile(config.rules());
+    }
+
+    private void compile(List<TelemetryConfig.Rule> rules) {
+        for (int i = 0; i < rules.size(); i++) {
+            CompiledRule rule = CompiledRule.of(i, rules.get(i));
+            root.insert(segments(rule.route), 0, rule);
+        }
+        empty = rules.isEmpty();
+        if (!empty) {
+            LOG.debugf("Compiled %d telemetry rules", rules.size());
+        }
+    }
+
+    /**
+     * Rules applying to a route template, cached per resource method and the resource class it is invoked
+     * on, since an inherited method has a different template on each subclass.
+     */
+    public RouteDecision forResourceMethod(Class<?> resourceClass, Method resourceMethod, String template) {
+        if (empty) {
+            return RouteDecision.NONE;
+        }
+        if (resourceMethod == null) {
+            return forTemplate(template);
+        }
+        Class<?> owner = resourceClass != null ? resourceClass : resourceMethod.getDeclaringClass();
+        RouteDecision decision = byResourceMethod.get(owner, resourceMethod);
+        if (decision == null) {
+            decision = byResourceMethod.putIfAbsent(owner, resourceMethod, forTemplate(template));
+        }
+        return decision;
+    }
+
+    /**
+     * Rules applying to a route template or raw path, looked up in the trie without caching.
+     */
+    public RouteDecision forTemplate(String template) {
+        if (empty) {
+            return RouteDecision.NONE;
+        }
+        List<CompiledRule> matches = new ArrayList<>();
+        root.collect(segments(template), 0, matches);
+        if (matches.isEmpty()) {
+            return RouteDecision.NONE;
+        }
+        matches.sort((a, b) -> Integer.compare(a.index, b.index));
+        return new RouteDecision(matches.toArray(new CompiledRule[0]));
+    }
+
+    private static String[] segments(String path) {
+        if (path == null) {
+            return new String[0];
+        }
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        if (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+
+    /**
+     * The rules whose route pattern matches one route, in declaration order.
+     */
+    public static final class RouteDecision {
+
+        static final RouteDecision NONE = new RouteDecision(new CompiledRule[0]);
+
+        private final CompiledRule[] candidates;
+
+        RouteDecision(CompiledRule[] candidates) {
+            this.candidates = candidates;
+        }
+
+        /**
+         * True when the request is excluded regardless of its response or consumer,
+         * so the filter can skip all telemetry work up front.
+         */
+        public boolean excludesRequest(String method) {
+            for (CompiledRule rule : candidates) {
+                if (!rule.matchesMethod(method)) {
+                    continue;
+                }
+                // A rule that depends on the response decides later
+                return rule.action == Action.EXCLUDE && !rule.dependsOnResponse();
+            }
+            return false;
+        }
+
+        /**
+         * First rule matching the full request, or null when no rule applies.
+         */
+        public CompiledRule match(String method, int status, String consumer) {
+            for (CompiledRule rule : candidates) {
+                if (rule.matchesMethod(method) && rule.matchesStatus(status) && rule.matchesConsumer(consumer)) {
+                    return rule;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A rule with its matchers prepared for the hot path.
+     */
+    public static final class CompiledRule {
+        final int index;
+        final String route;
+        final Set<String> methods;
+        final int[] statusRanges;
+        final String consumer;
+        final Action action;
+        final double rate;
+
+        private CompiledRule(int index, String route, Set<String> methods, int[] statusRanges,
+                             String consumer, Action action, double rate) {
+            this.index = index;
+            this.route = route;
+            this.methods = methods;
+            this.statusRanges = statusRanges;
+            this.consumer = consumer;
+            this.action = action;
+            this.rate = rate;
+        }
+
+        static CompiledRule of(int index, TelemetryConfig.Rule rule) {
+            Set<String> methods = rule.methods()
+                .map(list -> {
+                    Set<String> set = new TreeSet<>();
+                    list.forEach(m -> set.add(m.trim().toUpperCase(Locale.ROOT)));
+                    return set;
+                })
+                .orElse(null);
+            int[] statusRanges = rule.status().map(CompiledRule::parseStatus).orElse(null);
+            String[] segments = segments(rule.route());
+            for (int i = 0; i < segments.length - 1; i++) {
+                if ("**".equals(segments[i])) {
+                    throw new IllegalArgumentException("malti.rules[" + index + "].route: ** is only allowed as the last "
+                        + "segment, was " + rule.route());
+                }
+            }
+            double rate = rule.rate();
+            if (rule.action() == Action.SAMPLE && (rate <= 0 || rate > 1)) {
+                throw new IllegalArgumentException("malti.rules[" + index + "].rate must be in (0, 1], was " + rate);
+            }
+            return new CompiledRule(index, rule.route(), methods, statusRanges,
+                rule.consumer().orElse(null), rule.action(), rate);
+        }
+
+        /**
+         * Parse "404", "4xx" or "500-599", comma separated, into [lo, hi] pairs.
+         */
+        static int[] parseStatus(String spec) {
+            String[] parts = spec.split(",");
+            int[] ranges = new int[parts.length * 2];
+            for (int i = 0; i < parts.length; i++) {
+                String p = parts[i].trim().toLowerCase(Locale.ROOT);
+                int lo;
+                int hi;
+                if (p.length() == 3 && p.endsWith("xx")) {
+                    lo = (p.charAt(0) - '0') * 100;
+                    hi = lo + 99;
+                } else if (p.contains("-")) {
+                    lo = Integer.parseInt(p.substring(0, p.indexOf('-')).trim());
+                    hi = Integer.parseInt(p.substring(p.indexOf('-') + 1).trim());
+                } else {
+                    lo = Integer.parseInt(p);
+                    hi = lo;
+                }
+                ranges[2 * i] = lo;
+                ranges[2 * i + 1] = hi;
+            }
+            return ranges;
+        }
+
+        boolean dependsOnResponse() {
+            return statusRanges != null || consumer != null;
+        }
+
+        boolean matchesMethod(String method) {
+            return methods == null || methods.contains(method);
+        }
+
+        boolean matchesStatus(int status) {
+            if (statusRanges == null) {
+                return true;
+            }
+            for (int i = 0; i < statusRanges.length; i += 2) {
+                if (status >= statusRanges[i] && status <= statusRanges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean matchesConsumer(String value) {
+            return consumer == null || consumer.equals(value == null ? "" : value);
+        }
+
+        public Action action() {
+            return action;
+        }
+
+        public double rate() {
+            return rate;
+        }
+    }
+
+    /**
+     * Segment trie over route patterns. {@code *} matches exactly one segment,
+     * {@code **} matches any remaining segments (including none) and is always a pattern's last segment.
+     */
+    private static final class TrieNode {
+        final Map<String, TrieNode> literals = new HashMap<>();
+        TrieNode anySegment;
+        final List<CompiledRule> anyRemainder = new ArrayList<>();
+        final List<CompiledRule> terminal = new ArrayList<>();
+
+        void insert(String[] segments, int depth, CompiledRule rule) {
+            if (depth == segments.length) {
+                terminal.add(rule);
+                return;
+            }
+            String segment = segments[depth];
+            if ("**".equals(segment)) {
+                anyRemainder.add(rule);
+            } else if ("*".equals(segment)) {
+                if (anySegment == null) {
+                    anySegment = new TrieNode();
+                }
+                anySegment.insert(segments, depth + 1, rule);
+            } else {
+                literals.computeIfAbsent(segment, s -> new TrieNode()).insert(segments, depth + 1, rule);
+            }
+        }
+
+        void collect(String[] segments, int depth, List<CompiledRule> into) {
+            into.addAll(anyRemainder);
+            if (depth == segments.length) {
+                into.addAll(terminal);
+                return;
+            }
+            TrieNode literal = literals.get(segments[depth]);
+            if (literal != null) {
+                literal.collect(segments, depth + 1, into);
+            }
+            if (anySegment != null) {
+                anySegment.collect(segments, depth + 1, into);
+            }
+        }
+    }
+}
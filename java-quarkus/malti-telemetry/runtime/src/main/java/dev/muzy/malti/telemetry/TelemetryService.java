@@ -0,0 +1,662 @@
+package dev.muzy.malti.telemetry;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Main telemetry service that handles batching and sending telemetry data.
+ * This mirrors the Python implementation's BatchSender functionality.
+ */
+@ApplicationScoped
+public class TelemetryService {
+    
+    private static final Logger LOG = Logger.getLogger(TelemetryService.class);
+    
+    @Inject
+    TelemetryConfig config;
+    
+    @Inject
+    TelemetryPipelines pipelines;
+    
+    @Inject
+    TelemetryTuning tuning;
+    
+    @Inject
+    RollingWindowStore windowStore;
+    
+    @Inject
+    HeavyHitterTracker heavyHitters;
+    
+    @Inject
+    CardinalityGuard cardinalityGuard;
+    
+    @Inject
+    AdaptiveSampler sampler;
+    
+    @Inject
+    TelemetryRules rules;
+    
+    @Inject
+    TelemetryMetrics metrics;
+    
+    @Inject
+    OverheadGovernor governor;
+    
+    @Inject
+    TelemetryEvents events;
+    
+    @Inject
+    @RestClient
+    MaltiClient maltiClient;
+    
+    @Inject
+    @RestClient
+    OtlpClient otlpClient;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    /**
+     * Record a telemetry record asynchronously.
+     * This is the main entry point for adding telemetry data.
+     */
+    public void recordRequest(String method, String endpoint, int status, 
+                            int responseTime, String consumer, String context) {
+        if (!config.enabled()) {
+            return;
+        }
+        recordRequest(pipelines.forRoute(endpoint), rules.forTemplate(endpoint), method, endpoint, status, 0,
+            responseTime * 1000L, 0, 0, consumer, context);
+    }
+    
+    /**
+     * Record a request whose pipeline and matching rules were already resolved, e.g. per resource method by
+     * the filter. Durations are in microseconds and sizes in body bytes; zero means not measured.
+     */
+    void recordRequest(TelemetryPipeline pipeline, TelemetryRules.RouteDecision route, String method,
+                       String endpoint, int status,
+                       long ttfbMicros, long durationMicros, long requestBytes, long responseBytes,
+                       String consumer, String context) {
+        
+        TelemetryRules.CompiledRule rule = route.match(method, status, consumer);
+        if (rule != null && rule.action() == TelemetryRules.Action.EXCLUDE) {
+            return;
+        }
+        boolean alwaysKeep = rule != null && rule.action() == TelemetryRules.Action.KEEP;
+
+        // Skip recording if in clean mode and status is 401 or 404
+        if (!alwaysKeep && shouldIgnoreStatus(status)) {
+            return;
+        }
+
+        // Heavy hitters see the raw consumer so abusive clients are found even beyond the cardinality cap
+        heavyHitters.record(consumer, status, durationMicros);
+
+        endpoint = cardinalityGuard.endpoint(endpoint);
+        consumer = cardinalityGuard.consumer(consumer);
+        context = cardinalityGuard.context(context);
+
+        windowStore.record(method, endpoint, consumer != null ? consumer : "", status, durationMicros,
+            requestBytes, responseBytes);
+
+        // Under overhead pressure only the in-process aggregates are kept up to date
+        if (governor.level().compareTo(OverheadGovernor.DegradationLevel.AGGREGATE_ONLY) >= 0) {
+            return;
+        }
+
+        if (!hasDestination(pipeline)) {
+            LOG.warn("No API key or OTLP export configured, skipping telemetry record");
+            return;
+        }
+
+        // The one read of the runtime settings for this request; everything below uses this snapshot
+        TelemetrySettings settings = tuning.current();
+        double sampleRate = sampleRate(settings, rule, status, durationMicros);
+        if (!alwaysKeep) {
+            sampleRate = governor.degrade(sampleRate, status);
+        }
+        if (sampleRate == 0) {
+            return;
+        }
+
+        TelemetryRecord record = new TelemetryRecord(
+            pipeline.serviceName(),
+            method,
+            endpoint,
+            status,
+            (int) (durationMicros / 1000),
+            consumer != null ? consumer : "",
+            config.node(),
+            context != null ? context : ""
+        );
+        record.setTtfbMicros(ttfbMicros);
+        record.setTtlbMicros(durationMicros);
+        record.setRequestBytes(requestBytes);
+        record.setResponseBytes(responseBytes);
+        record.setSampleRate(sampleRate);
+        
+        enqueue(pipeline, record, settings);
+    }
+    
+    /**
+     * Whether outbound REST client calls are recorded.
+     */
+    public boolean isOutboundEnabled() {
+        return config.enabled() && config.outbound().enabled();
+    }
+
+    /**
+     * Whether requests are captured at all, {@code malti.enabled}.
+     */
+    public boolean isEnabled() {
+        return config.enabled();
+    }
+    
+    /**
+     * Record an outbound call made with the REST client to {@code target} (host and port).
+     * Outbound calls go to the default pipeline's buffer only; rolling windows and heavy hitters describe
+     * inbound traffic.
+     */
+    public void recordOutbound(String method, String target, String endpoint, int status, long durationMicros) {
+        TelemetryPipeline pipeline = pipelines.defaultPipeline();
+        if (shouldIgnoreStatus(status) || !hasDestination(pipeline)
+            || governor.level().compareTo(OverheadGovernor.DegradationLevel.AGGREGATE_ONLY) >= 0) {
+            return;
+        }
+        TelemetrySettings settings = tuning.current();
+        double sampleRate = governor.degrade(sampler.sample(settings.sampling(), status, durationMicros), status);
+        if (sampleRate == 0) {
+            return;
+        }
+
+        TelemetryRecord record = new TelemetryRecord(
+            pipeline.serviceName(),
+            method,
+            cardinalityGuard.endpoint(endpoint),
+            status,
+            (int) (durationMicros / 1000),
+            "",
+            config.node(),
+            ""
+        );
+        record.setTarget(target);
+        record.setTtlbMicros(durationMicros);
+        record.setSampleRate(sampleRate);
+        
+        enqueue(pipeline, record, settings);
+    }
+    
+    private void enqueue(TelemetryPipeline pipeline, TelemetryRecord record, TelemetrySettings settings) {
+        TelemetryBuffer buffer = pipeline.buffer();
+        // Only a full buffer evicts, so only then is an eviction event started
+        TelemetryEvents.EvictionEvent eviction = buffer.size() >= buffer.getMaxSize() ? events.beginEviction() : null;
+        if (buffer.add(record)) {
+            events.evicted(eviction, buffer.size());
+        }
+        
+        // Check if we need to send immediately due to overflow threshold
+        double currentFillPercentage = (double) buffer.size() / buffer.getMaxSize() * 100.0;
+        if (currentFillPercentage >= settings.overflowThresholdPercent()) {
+            if (!hasDestination(pipeline)) {
+                LOG.warn("Buffer overflow threshold reached but no API key or OTLP export configured, skipping telemetry send");
+                return;
+            }
+            LOG.debugf("Buffer overflow threshold reached (%.1f%%) in pipeline %s, triggering immediate send",
+                currentFillPercentage, pipeline.name());
+            requestDrain(pipeline);
+        }
+    }
+    
+    /**
+     * Scheduled method to send batches periodically. Ticks every second, drops expired records and drains
+     * each pipeline whose own batch interval, as currently set, has elapsed.
+     */
+    @Scheduled(every = "1s", skipExecutionIf = TelemetryDisabled.class)
+    public void scheduledSend() {
+        long now = System.nanoTime();
+        TelemetrySettings settings = tuning.current();
+        for (TelemetryPipeline pipeline : pipelines.all()) {
+            int expired = pipeline.buffer().expire();
+            if (expired > 0) {
+                LOG.debugf("Dropped %d records older than the max age from pipeline %s", expired, pipeline.name());
+            }
+            if (!pipeline.intervalElapsed(now, settings.batch(pipeline.name()).intervalSeconds())) {
+                continue;
+            }
+            if (!hasDestination(pipeline)) {
+                LOG.warn("No API key or OTLP export configured, skipping scheduled telemetry send");
+                continue;
+            }
+            if (!pipeline.buffer().isEmpty()) {
+                LOG.debugf("Scheduled batch send triggered for pipeline %s", pipeline.name());
+                requestDrain(pipeline);
+            }
+        }
+    }
+    
+    /**
+     * Send what is still buffered before the pipelines are stopped, waiting at most
+     * {@code malti.batch.shutdown-timeout-seconds} for all pipelines together. Drains still running then are
+     * interrupted when the sender threads stop, and their records are lost.
+     */
+    void flushOnShutdown(@Observes ShutdownEvent event) {
+        if (!config.enabled()) {
+            return;
+        }
+        List<Future<?>> flushes = new ArrayList<>();
+        for (TelemetryPipeline pipeline : pipelines.all()) {
+            if (hasDestination(pipeline) && !pipeline.buffer().isEmpty()) {
+                try {
+                    flushes.add(pipeline.sender().submit(() -> drain(pipeline)));
+                } catch (RejectedExecutionException e) {
+                    // Already stopped
+                }
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.batch().shutdownTimeoutSeconds());
+        try {
+            for (Future<?> flush : flushes) {
+                flush.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            int left = pipelines.all().stream().mapToInt(TelemetryPipeline::unsent).sum();
+            LOG.warnf("Shutdown flush timed out, %d telemetry records were not sent", left);
+        } catch (ExecutionException e) {
+            LOG.warnf(e.getCause(), "Shutdown flush failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * The batching and sampling settings in effect now.
+     */
+    public TelemetrySettings getSettings() {
+        return tuning.current();
+    }
+    
+    /**
+     * Change the batching and sampling settings without a restart. {@code change} gets the current settings
+     * and returns the new ones, e.g. {@code s -> s.withOverflowThresholdPercent(50)}; they replace the
+     * current settings as a whole. Sending is re-planned straight away: pipelines at or above the new
+     * overflow threshold are drained now, a changed interval applies to the interval already running, and
+     * the batch size and sender concurrency apply from the next batch.
+     *
+     * @return the settings now in effect
+     * @throws IllegalArgumentException if the new settings are invalid; the current ones stay in effect
+     */
+    public TelemetrySettings updateSettings(UnaryOperator<TelemetrySettings> change) {
+        TelemetrySettings settings = tuning.update(change);
+        for (TelemetryPipeline pipeline : pipelines.all()) {
+            TelemetryBuffer buffer = pipeline.buffer();
+            if (hasDestination(pipeline)
+                    && (double) buffer.size() / buffer.getMaxSize() * 100.0 >= settings.overflowThresholdPercent()) {
+                requestDrain(pipeline);
+            }
+        }
+        return settings;
+    }
+    
+    /**
+     * Send one batch of the default pipeline on its sender thread. The returned Uni completes once the
+     * batch has been sent, or has failed after all retries.
+     */
+    public Uni<Void> sendBatchAsync() {
+        TelemetryPipeline pipeline = pipelines.defaultPipeline();
+        return Uni.createFrom().completionStage(() -> CompletableFuture.runAsync(
+            () -> sendBatch(pipeline, tuning.current().batch(pipeline.name()).size()),
+            pipeline.sender()));
+    }
+    
+    /**
+     * Ask the pipeline's sender thread to send what is buffered, in batches. Never blocks, so it is safe on
+     * event-loop threads; requests made while a drain is pending are folded into it.
+     */
+    private void requestDrain(TelemetryPipeline pipeline) {
+        if (pipeline.drainRequested.compareAndSet(false, true)) {
+            try {
+                pipeline.sender().execute(() -> drain(pipeline));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                pipeline.drainRequested.set(false);
+            }
+        }
+    }
+    
+    private void drain(TelemetryPipeline pipeline) {
+        pipeline.drainRequested.set(false);
+        TelemetryBuffer buffer = pipeline.buffer();
+        // Settings are read once, so a drain never mixes old and new batch sizes
+        TelemetrySettings.Batch settings = tuning.current().batch(pipeline.name());
+        // Only what is buffered now: records arriving meanwhile wait for the next drain instead of being
+        // chased in ever smaller batches. A failed batch ends the drain; the rest stays buffered until the next interval
+        int perRound = settings.size() * settings.senderConcurrency();
+        for (int pending = buffer.size(); pending > 0 && !Thread.currentThread().isInterrupted()
+                && sendBatches(pipeline, settings, pending); pending -= perRound) {
+            LOG.debugf("%d records left to drain in pipeline %s", buffer.size(), pipeline.name());
+        }
+    }
+    
+    /**
+     * Send up to the pipeline's sender concurrency of batches at once, enough for {@code pending} records,
+     * and wait for all of them.
+     *
+     * @return false if any of the batches failed
+     */
+    private boolean sendBatches(TelemetryPipeline pipeline, TelemetrySettings.Batch settings, int pending) {
+        int batches = Math.min(settings.senderConcurrency(), (pending + settings.size() - 1) / settings.size());
+        if (batches <= 1) {
+            return sendBatch(pipeline, settings.size());
+        }
+        List<Callable<Boolean>> sends = new ArrayList<>(batches);
+        for (int i = 0; i < batches; i++) {
+            sends.add(() -> sendBatch(pipeline, settings.size()));
+        }
+        try {
+            boolean sent = true;
+            for (Future<Boolean> send : pipeline.batchSenders().invokeAll(sends)) {
+                sent &= send.get();
+            }
+            return sent;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | RejectedExecutionException e) {
+            LOG.errorf("Failed to send telemetry batches of pipeline %s: %s", pipeline.name(), e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Take a batch from the pipeline's buffer, encode it and send it, blocking until every destination has
+     * answered. The batch goes to the Malti server when the pipeline has an API key and to the OTLP
+     * receiver when OTLP export is enabled; it counts as sent once every destination has accepted it.
+     * Runs on the pipeline's sender threads only.
+     *
+     * @return false if the batch could not be encoded, failed after all retries or was abandoned at shutdown
+     */
+    private boolean sendBatch(TelemetryPipeline pipeline, int batchSize) {
+        TelemetryBuffer buffer = pipeline.buffer();
+        TelemetryEvents.DrainEvent drain = events.beginDrain();
+        List<TelemetryRecord> batch = buffer.getBatch(batchSize);
+
+        if (batch.isEmpty()) {
+            LOG.debug("No records to send");
+            return true;
+        }
+
+        pipeline.inFlight.addAndGet(batch.size());
+        try {
+            LOG.debugf("Sending batch of %d records from pipeline %s", batch.size(), pipeline.name());
+            metrics.batchTaken(batch);
+            events.drained(drain, batch.size(), buffer.size());
+            return send(pipeline, batch);
+        } finally {
+            pipeline.inFlight.addAndGet(-batch.size());
+        }
+    }
+
+    private boolean send(TelemetryPipeline pipeline, List<TelemetryRecord> batch) {
+        TelemetryBuffer buffer = pipeline.buffer();
+        // Encoded once per destination, so retries resend the same bytes and encoding is timed on its own
+        byte[] payload = null;
+        byte[] otlpPayload = null;
+        HeavyHitterTracker.Snapshot hitters = null;
+        try {
+            TelemetryEvents.EncodeEvent encode = events.beginEncode();
+            long encodeStart = System.nanoTime();
+            if (pipeline.apiKey().isPresent()) {
+                TelemetryBatchRequest batchRequest = new TelemetryBatchRequest(batch);
+                // Heavy hitters span all pipelines and are reported once, with the default pipeline's batches
+                if (pipeline == pipelines.defaultPipeline() && config.heavyHitters().export() && heavyHitters.isEnabled()) {
+                    hitters = heavyHitters.drain();
+                    batchRequest.setHeavyHitters(hitters);
+                }
+                payload = objectMapper.writeValueAsBytes(batchRequest);
+            }
+            if (config.otlp().enabled()) {
+                otlpPayload = OtlpEncoder.encode(batch, pipeline.serviceName(), config.node());
+            }
+            long encodeMicros = (System.nanoTime() - encodeStart) / 1000;
+            metrics.batchEncoded(encodeMicros);
+            events.encoded(encode, batch.size(), size(payload) + size(otlpPayload), encodeMicros);
+        } catch (Exception e) {
+            LOG.errorf("Failed to encode telemetry batch: %s", e.getMessage());
+            restore(hitters);
+            buffer.updateStats(0, batch.size());
+            metrics.batchFailed();
+            return false;
+        }
+
+        byte[] maltiPayload = payload;
+        byte[] spans = otlpPayload;
+        // Both destinations are tried even if the first one fails
+        boolean sent = (maltiPayload == null
+                || withRetry("Malti", maltiPayload.length,
+                    () -> maltiClient.sendTelemetryBatch(pipeline.apiKey().get(), maltiPayload)))
+            & (spans == null || withRetry("OTLP", spans.length, () -> otlpClient.exportTraces(spans)));
+
+        if (sent) {
+            buffer.updateStats(batch.size(), 0);
+            metrics.batchSent(size(payload) + size(otlpPayload));
+            LOG.debugf("Successfully sent batch of %d records", batch.size());
+        } else {
+            restore(hitters);
+            buffer.updateStats(0, batch.size());
+            metrics.batchFailed();
+            if (Thread.currentThread().isInterrupted()) {
+                LOG.warnf("Abandoned batch of %d records from pipeline %s at shutdown", batch.size(), pipeline.name());
+            } else {
+                LOG.errorf("Failed to send batch of %d records after all retries", batch.size());
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Put heavy hitters drained for a batch that was not sent back, so they go out with the next one.
+     */
+    private void restore(HeavyHitterTracker.Snapshot hitters) {
+        if (hitters != null) {
+            heavyHitters.restore(hitters);
+        }
+    }
+    
+    /**
+     * Send with exponential backoff retry logic, timing each attempt. Blocks the sender thread,
+     * including while waiting between attempts. Gives up without retrying once the sender is interrupted,
+     * which happens only when the pipelines stop.
+     */
+    private boolean withRetry(String destination, int bytes, Runnable send) {
+        long backoffMillis = TimeUnit.SECONDS.toMillis(config.batch().retryDelaySeconds());
+        long maxBackoffMillis = TimeUnit.SECONDS.toMillis(config.batch().maxRetryDelaySeconds());
+        for (int attempt = 1; ; attempt++) {
+            metrics.sendStarted(attempt);
+            TelemetryEvents.SendEvent event = events.beginSend();
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                send.run();
+                success = true;
+                return true;
+            } catch (RuntimeException e) {
+                if (interrupted(e)) {
+                    LOG.debugf("Send of telemetry batch to %s interrupted at shutdown: %s", destination, describe(e));
+                    return false;
+                }
+                if (attempt > config.batch().maxRetries()) {
+                    LOG.errorf("Failed to send telemetry batch to %s (attempt %d): %s", destination, attempt,
+                        describe(e));
+                    return false;
+                }
+                LOG.debugf("Attempt %d to send telemetry batch to %s failed: %s", attempt, destination, describe(e));
+            } finally {
+                long micros = (System.nanoTime() - start) / 1000;
+                metrics.sendFinished(micros);
+                events.sent(event, attempt, bytes, micros, success);
+            }
+            try {
+                Thread.sleep(retryDelayMillis(attempt, backoffMillis, maxBackoffMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+    
+    /**
+     * Delay before retrying after failed attempt {@code attempt}: exponential backoff from {@code baseMillis},
+     * capped at {@code maxMillis}, with full jitter so senders that failed together spread their retries.
+     */
+    static long retryDelayMillis(int attempt, long baseMillis, long maxMillis) {
+        long bound = Math.min(maxMillis, baseMillis << Math.min(attempt - 1, 30));
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
+    }
+    
+    /**
+     * Whether a send failed because the sender was interrupted. A client that turned the interrupt into an
+     * exception may have cleared the flag; it is set again, so the drain stops as well.
+     */
+    private static boolean interrupted(RuntimeException failure) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = failure.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Failure message, with the status and body of the response when the server answered.
+     */
+    private static String describe(RuntimeException failure) {
+        if (failure instanceof WebApplicationException webEx) {
+            try {
+                return "status " + webEx.getResponse().getStatus() + ", " + webEx.getResponse().readEntity(String.class);
+            } catch (RuntimeException e) {
+                return "status " + webEx.getResponse().getStatus();
+            }
+        }
+        return failure.getMessage();
+    }
+    
+    private static long size(byte[] payload) {
+        return payload != null ? payload.length : 0;
+    }
+    
+    /**
+     * Whether a pipeline's records have anywhere to go: the Malti server or an OTLP receiver.
+     */
+    private boolean hasDestination(TelemetryPipeline pipeline) {
+        return pipeline.apiKey().isPresent() || config.otlp().enabled();
+    }
+    
+    /**
+     * Sampling rate for a request: fixed by a matching rule, otherwise adaptive. Zero means drop.
+     */
+    private double sampleRate(TelemetrySettings settings, TelemetryRules.CompiledRule rule, int status,
+                              long latencyMicros) {
+        if (rule == null) {
+            return sampler.sample(settings.sampling(), status, latencyMicros);
+        }
+        if (rule.action() == TelemetryRules.Action.KEEP || rule.rate() >= 1.0) {
+            return 1.0;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rule.rate() ? rule.rate() : 0;
+    }
+    
+    /**
+     * Check if a status code should be ignored based on clean mode configuration.
+     */
+    private boolean shouldIgnoreStatus(int status) {
+        return config.cleanMode() && (status == 401 || status == 404);
+    }
+    
+    /**
+     * Get telemetry system statistics, summed over all pipelines.
+     */
+    public TelemetryBuffer.BufferStats getStats() {
+        List<TelemetryPipeline> all = pipelines.all();
+        if (all.size() == 1) {
+            return all.get(0).buffer().getStats();
+        }
+        return TelemetryBuffer.BufferStats.sum(all.stream().map(p -> p.buffer().getStats()).toList());
+    }
+    
+    /**
+     * Get the settings and buffer statistics of each pipeline, the default one first.
+     */
+    public List<TelemetryPipeline.Stats> getPipelines() {
+        TelemetrySettings settings = tuning.current();
+        return pipelines.all().stream().map(p -> p.getStats(settings.batch(p.name()))).toList();
+    }
+    
+    /**
+     * Query rolling window statistics for recent traffic on this node.
+     */
+    public List<RollingWindowStore.WindowStats> queryWindows(RollingWindowStore.WindowQuery query) {
+        return windowStore.query(query);
+    }
+    
+    /**
+     * Get the heaviest consumers by requests, errors and latency.
+     */
+    public HeavyHitterTracker.Snapshot getHeavyHitters() {
+        return heavyHitters.snapshot();
+    }
+    
+    /**
+     * Get distinct value estimates and suppression counts per dimension.
+     */
+    public List<CardinalityGuard.CardinalityStats> getCardinalityStats() {
+        return cardinalityGuard.getStats();
+    }
+    
+    /**
+     * Get send pipeline statistics: batches, retries, encode and send times, record age.
+     */
+    public TelemetryMetrics.PipelineStats getPipelineStats() {
+        return metrics.getStats();
+    }
+    
+    /**
+     * Get the current degradation level and the overhead it was chosen from.
+     */
+    public OverheadGovernor.OverheadStats getOverheadStats() {
+        return governor.getStats();
+    }
+    
+    /**
+     * Get adaptive sampling statistics.
+     */
+    public AdaptiveSampler.SamplingStats getSamplingStats() {
+        return sampler.getStats();
+    }
+}
@@ -0,0 +1,85 @@
+package dev.muzy.malti.telemetry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The batching and sampling settings that can be changed while the application runs, as one immutable
+ * snapshot. Every constructor validates, so a snapshot that exists is a valid one; {@link TelemetryTuning}
+ * swaps whole snapshots, and readers see either the old settings or the new ones, never a mix.
+ *
+ * @param overflowThresholdPercent buffer fill at which a pipeline is drained before its interval
+ * @param sampling                 adaptive sampling of successful requests
+ * @param batches                  batch settings per pipeline name, including {@link TelemetryPipeline#DEFAULT}
+ */
+public record TelemetrySettings(double overflowThresholdPercent, Sampling sampling, Map<String, Batch> batches) {
+
+    public TelemetrySettings {
+        if (!(overflowThresholdPercent > 0 && overflowThresholdPercent <= 100)) {
+            throw new IllegalArgumentException("overflowThresholdPercent must be in (0, 100], was "
+                + overflowThresholdPercent);
+        }
+        if (sampling == null || batches == null || !batches.containsKey(TelemetryPipeline.DEFAULT)) {
+            throw new IllegalArgumentException("Sampling and the default pipeline's batch settings are required");
+        }
+        batches = Map.copyOf(batches);
+    }
+
+    /**
+     * Batch settings of a pipeline.
+     */
+    public Batch batch(String pipeline) {
+        Batch batch = batches.get(pipeline);
+        if (batch == null) {
+            throw new IllegalArgumentException("Unknown pipeline: " + pipeline);
+        }
+        return batch;
+    }
+
+    public TelemetrySettings withOverflowThresholdPercent(double overflowThresholdPercent) {
+        return new TelemetrySettings(overflowThresholdPercent, sampling, batches);
+    }
+
+    public TelemetrySettings withSampling(Sampling sampling) {
+        return new TelemetrySettings(overflowThresholdPercent, sampling, batches);
+    }
+
+    public TelemetrySettings withBatch(String pipeline, Batch batch) {
+        batch(pipeline);
+        Map<String, Batch> changed = new HashMap<>(batches);
+        changed.put(pipeline, batch);
+        return new TelemetrySettings(overflowThresholdPercent, sampling, changed);
+    }
+
+    /**
+     * @param enabled                whether successful fast requests are sampled
+     * @param targetRecordsPerSecond target number of buffered records per second
+     * @param slowThresholdMs        requests at least this slow are always kept
+     */
+    public record Sampling(boolean enabled, double targetRecordsPerSecond, long slowThresholdMs) {
+
+        public Sampling {
+            if (!(targetRecordsPerSecond >= 1)) {
+                throw new IllegalArgumentException("targetRecordsPerSecond must be at least 1, was " + targetRecordsPerSecond);
+            }
+            if (slowThresholdMs < 0) {
+                throw new IllegalArgumentException("slowThresholdMs must not be negative, was " + slowThresholdMs);
+            }
+        }
+    }
+
+    /**
+     * @param size              records per batch
+     * @param intervalSeconds   seconds between scheduled drains
+     * @param senderConcurrency batches sent at the same time during a drain
+     */
+    public record Batch(int size, int intervalSeconds, int senderConcurrency) {
+
+        public Batch {
+            if (size < 1 || intervalSeconds < 1 || senderConcurrency < 1) {
+                throw new IllegalArgumentException("Batch size, interval and sender concurrency must be positive, was "
+                    + size + ", " + intervalSeconds + " s and " + senderConcurrency);
+            }
+        }
+    }
+}
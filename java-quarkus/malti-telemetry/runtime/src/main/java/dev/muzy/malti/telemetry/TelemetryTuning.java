@@ -0,0 +1,88 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the current {@link TelemetrySettings}, starting from configuration. Readers take the whole
+ * snapshot with a single volatile read; updates are serialized, validated by building the new snapshot,
+ * and published by swapping the reference, together with the {@link AdaptiveSampler}'s copy of the
+ * sampling settings. Apply changes through {@link TelemetryService#updateSettings}, which also re-plans
+ * sending.
+ */
+@ApplicationScoped
+public class TelemetryTuning {
+
+    private static final Logger LOG = Logger.getLogger(TelemetryTuning.class);
+
+    @Inject
+    TelemetryConfig config;
+
+    @Inject
+    TelemetryPipelines pipelines;
+
+    @Inject
+    AdaptiveSampler sampler;
+
+    private volatile TelemetrySettings settings;
+
+    public TelemetryTuning() {
+    }
+
+    TelemetryTuning(TelemetryConfig config, TelemetryPipelines pipelines, AdaptiveSampler sampler) {
+        this.sampler = sampler;
+        configure(config, pipelines);
+    }
+
+    @PostConstruct
+    void init() {
+        configure(config, pipelines);
+    }
+
+    private void configure(TelemetryConfig config, TelemetryPipelines pipelines) {
+        TelemetryConfig.Sampling sampling = config.sampling();
+        Map<String, TelemetrySettings.Batch> batches = new HashMap<>();
+        for (TelemetryPipeline pipeline : pipelines.all()) {
+            batches.put(pipeline.name(), pipeline.configuredBatch());
+        }
+        settings = new TelemetrySettings(config.overflowThresholdPercent(),
+            new TelemetrySettings.Sampling(sampling.enabled(), Math.max(1.0, sampling.targetRecordsPerSecond()),
+                sampling.slowThresholdMs()),
+            batches);
+        sampler.reconfigure(settings.sampling());
+    }
+
+    /**
+     * The settings in effect now.
+     */
+    public TelemetrySettings current() {
+        return settings;
+    }
+
+    /**
+     * Replace the settings with {@code change} applied to the current ones. Pipelines cannot be added
+     * or removed at runtime.
+     *
+     * @return the settings now in effect
+     * @throws IllegalArgumentException if the changed settings are invalid; the current ones stay in effect
+     */
+    synchronized TelemetrySettings update(UnaryOperator<TelemetrySettings> change) {
+        TelemetrySettings previous = settings;
+        TelemetrySettings next = change.apply(previous);
+        if (!next.batches().keySet().equals(previous.batches().keySet())) {
+            throw new IllegalArgumentException("Pipelines cannot be added or removed at runtime, expected "
+                + previous.batches().keySet());
+        }
+        // Under the lock, so concurrent updates leave the sampler with the settings that won
+        sampler.reconfigure(next.sampling());
+        settings = next;
+        LOG.infof("Telemetry settings changed to %s", next);
+        return next;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveSamplerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testKeepsEverythingUnderBudget() {
+        AdaptiveSampler sampler = new AdaptiveSampler(1000, 500);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(1.0, sampler.sample(200, 1000, now));
+        }
+        sampler.sample(200, 1000, now + SECOND);
+        assertEquals(1.0, sampler.currentRate());
+    }
+
+    @Test
+    void testRateConvergesToBudget() {
+        AdaptiveSampler sampler = new AdaptiveSampler(100, 500);
+        long now = System.nanoTime();
+
+        for (int second = 1; second <= 5; second++) {
+            for (int i = 0; i < 10_000; i++) {
+                sampler.sample(200, 1000, now);
+            }
+            now += SECOND;
+        }
+        sampler.sample(200, 1000, now);
+
+        assertEquals(0.01, sampler.currentRate(), 0.002);
+    }
+
+    @Test
+    void testErrorsAndSlowRequestsAlwaysKept() {
+        AdaptiveSampler sampler = new AdaptiveSampler(1, 500);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            sampler.sample(200, 1000, now);
+        }
+        now += SECOND;
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1.0, sampler.sample(503, 1000, now));
+            assertEquals(1.0, sampler.sample(200, 600_000, now));
+        }
+        assertTrue(sampler.currentRate() < 1.0);
+    }
+
+    @Test
+    void testSampleRateSerialization() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        TelemetryRecord record = new TelemetryRecord(
+            "test-service", "GET", "/test", 200, 100, "consumer", "node", "context"
+        );
+
+        assertFalse(mapper.writeValueAsString(record).contains("sample_rate"));
+
+        record.setSampleRate(0.25);
+        assertTrue(mapper.writeValueAsString(record).contains("\"sample_rate\":0.25"));
+    }
+}
@@ -0,0 +1,112 @@
+package dev.muzy.malti.telemetry;
+
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guards the per-request allocation of the recording path, measured with the thread allocation
+ * counter. Budgets leave headroom over what the path allocates today, so they only fail on
+ * regressions such as boxing, varargs logging or per-request lookup keys.
+ */
+class AllocationBudgetTest {
+
+    private static final int REQUESTS = 10_000;
+
+    /**
+     * A recorded request: the batch record, plus its share of the buffer segment's ArrayDeque growing, which
+     * allocates no node per record, with room for window and tracker updates.
+     */
+    private static final long RECORDED_BUDGET_BYTES = 256;
+
+    /**
+     * A request dropped by an exclude rule before any state is touched.
+     */
+    private static final long EXCLUDED_BUDGET_BYTES = 16;
+
+    private TelemetryService service;
+    private TelemetryPipeline pipeline;
+    private TelemetryRules.RouteDecision route;
+    private TelemetryRules.RouteDecision excluded;
+
+    @BeforeEach
+    void setUp() {
+        TelemetryConfig config = new SmallRyeConfigBuilder()
+            .withMapping(TelemetryConfig.class)
+            .withSources(new PropertiesConfigSource(Map.of(
+                "malti.api-key", "test-key",
+                "malti.rules[0].route", "/health/**",
+                "malti.rules[0].action", "exclude"
+            ), "test", 100))
+            .build()
+            .getConfigMapping(TelemetryConfig.class);
+
+        service = new TelemetryService();
+        service.config = config;
+        service.pipelines = new TelemetryPipelines(config, new TelemetryBuffer());
+        service.sampler = new AdaptiveSampler(1000, 1000);
+        service.tuning = new TelemetryTuning(config, service.pipelines, service.sampler);
+        service.windowStore = new RollingWindowStore(128, 15);
+        service.heavyHitters = new HeavyHitterTracker(100, 10);
+        service.cardinalityGuard = new CardinalityGuard(500, 1000, 100);
+        service.rules = new TelemetryRules(config.rules());
+        service.governor = new OverheadGovernor(2.0, 200, 0.1, 3);
+        service.events = new TelemetryEvents(false, 100);
+
+        pipeline = service.pipelines.defaultPipeline();
+        route = service.rules.forTemplate("/users/{id}");
+        excluded = service.rules.forTemplate("/health/live");
+    }
+
+    @Test
+    void testRecordedRequestStaysWithinBudget() {
+        long perRequest = allocatedPerRequest(() ->
+            service.recordRequest(pipeline, route, "GET", "/users/{id}", 200, 150, 1200, 64, 512, "mobile-app", "checkout"));
+
+        assertTrue(perRequest <= RECORDED_BUDGET_BYTES,
+            "Recording allocated " + perRequest + " bytes per request, budget is " + RECORDED_BUDGET_BYTES);
+    }
+
+    @Test
+    void testExcludedRequestAllocatesNothing() {
+        long perRequest = allocatedPerRequest(() ->
+            service.recordRequest(pipeline, excluded, "GET", "/health/live", 200, 150, 1200, 0, 0, "", null));
+
+        assertTrue(perRequest <= EXCLUDED_BUDGET_BYTES,
+            "Excluded request allocated " + perRequest + " bytes, budget is " + EXCLUDED_BUDGET_BYTES);
+    }
+
+    private long allocatedPerRequest(Runnable request) {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // Warm up so first-seen series, counters and JIT compilation are not counted
+        for (int i = 0; i < REQUESTS; i++) {
+            request.run();
+        }
+        drain();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < REQUESTS; i++) {
+            request.run();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        drain();
+        return allocated / REQUESTS;
+    }
+
+    private void drain() {
+        List<TelemetryRecord> batch;
+        do {
+            batch = pipeline.buffer().getBatch(1000);
+        } while (!batch.isEmpty());
+    }
+}
@@ -0,0 +1,72 @@
+package dev.muzy.malti.telemetry;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardinalityGuardTest {
+
+    @Test
+    void testValuesBeyondLimitCollapse() {
+        CardinalityGuard guard = new CardinalityGuard(2, 10, 10);
+
+        assertEquals("/a", guard.endpoint("/a"));
+        assertEquals("/b", guard.endpoint("/b"));
+        assertEquals(CardinalityGuard.OTHER, guard.endpoint("/c"));
+        assertEquals(CardinalityGuard.OTHER, guard.endpoint("/c"));
+        // Admitted values keep passing through
+        assertEquals("/a", guard.endpoint("/a"));
+
+        CardinalityGuard.CardinalityStats stats = guard.getStats().get(0);
+        assertEquals("endpoint", stats.dimension());
+        assertEquals(2, stats.tracked());
+        assertEquals(2, stats.suppressed());
+        assertEquals(3, stats.estimatedDistinct());
+    }
+
+    @Test
+    void testEmptyValuesAreNotCounted() {
+        CardinalityGuard guard = new CardinalityGuard(1, 1, 1);
+
+        assertEquals("", guard.consumer(""));
+        assertNull(guard.context(null));
+        assertEquals("alice", guard.consumer("alice"));
+        assertEquals(0, guard.getStats().get(2).tracked());
+    }
+
+    @Test
+    void testHyperLogLogEstimate() {
+        HyperLogLog hll = new HyperLogLog(12);
+        for (int i = 0; i < 100_000; i++) {
+            hll.add("/items/" + i);
+            hll.add("/items/" + i);
+        }
+
+        // Standard error at precision 12 is ~1.6%; allow 5%
+        assertEquals(100_000, hll.estimate(), 5_000);
+    }
+
+    @Test
+    void testHyperLogLogConcurrentAdds() throws Exception {
+        HyperLogLog concurrent = new HyperLogLog(12);
+        HyperLogLog sequential = new HyperLogLog(12);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t * 10_000;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    concurrent.add("/items/" + (offset + i));
+                }
+            });
+            threads[t].start();
+        }
+        for (int i = 0; i < 80_000; i++) {
+            sequential.add("/items/" + i);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Registers only ever take their maximum rank, so the order of adds does not matter
+        assertEquals(sequential.estimate(), concurrent.estimate());
+    }
+}
@@ -0,0 +1,64 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+class ConsumerResolverTest {
+
+    @Test
+    void testClaimDecodedOncePerToken() {
+        CountingObjectMapper mapper = new CountingObjectMapper();
+        ConsumerResolver resolver = new ConsumerResolver(List.of("jwt:sub"), "Authorization", 10, mapper);
+        String authorization = "Bearer " + token("{\"sub\":\"alice\",\"tenant\":\"acme\"}");
+
+        assertEquals("alice", resolver.claim(authorization, "sub"));
+        assertEquals("alice", resolver.claim(authorization, "sub"));
+        assertEquals(1, mapper.decoded);
+
+        // Each claim of the same token is cached separately
+        assertEquals("acme", resolver.claim(authorization, "tenant"));
+        assertEquals(2, mapper.decoded);
+    }
+
+    @Test
+    void testUnreadableTokens() {
+        ConsumerResolver resolver = new ConsumerResolver(List.of("jwt:sub"), "Authorization", 10, new ObjectMapper());
+
+        assertNull(resolver.claim(null, "sub"));
+        assertNull(resolver.claim("Basic dXNlcjpwYXNz", "sub"));
+        assertEquals("", resolver.claim("Bearer opaque-token", "sub"));
+        assertEquals("", resolver.claim("Bearer a.!!!.c", "sub"));
+        assertEquals("", resolver.claim("Bearer " + token("{\"sub\":{\"id\":1}}"), "sub"));
+    }
+
+    @Test
+    void testInvalidSource() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> new ConsumerResolver(List.of("header:X-Consumer-Id", "cookie:session"), "Authorization", 10,
+                new ObjectMapper()));
+        assertTrue(e.getMessage().contains("malti.consumer.sources[1]"));
+    }
+
+    private static String token(String claims) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(claims.getBytes(StandardCharsets.UTF_8)) + ".";
+    }
+
+    private static final class CountingObjectMapper extends ObjectMapper {
+        int decoded;
+
+        @Override
+        public JsonNode readTree(byte[] content) throws IOException {
+            decoded++;
+            return super.readTree(content);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dev.muzy.malti.telemetry;
+
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+import io.opentelemetry.proto.trace.v1.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OtlpEncoderTest {
+
+    @Test
+    void testEncodesRecordsAsSpans() throws Exception {
+        TelemetryRecord inbound = new TelemetryRecord("orders", "GET", "/orders/{id}", 200, 12,
+            "mobile-app", "node-1", "");
+        inbound.setTtlbMicros(12_345);
+        inbound.setResponseBytes(512);
+        inbound.setSampleRate(0.25);
+        TelemetryRecord outbound = new TelemetryRecord("orders", "POST", "/charges", 503, 40, "", "node-1", "");
+        outbound.setTarget("payments:8080");
+
+        ExportTraceServiceRequest request = ExportTraceServiceRequest.parseFrom(
+            OtlpEncoder.encode(List.of(inbound, outbound), "orders", "node-1"));
+
+        ResourceSpans resourceSpans = request.getResourceSpans(0);
+        assertEquals("orders", value(resourceSpans.getResource().getAttributesList(), "service.name").getStringValue());
+        assertEquals("node-1", value(resourceSpans.getResource().getAttributesList(), "service.instance.id").getStringValue());
+        assertEquals(OtlpEncoder.SCOPE_NAME, resourceSpans.getScopeSpans(0).getScope().getName());
+
+        List<Span> spans = resourceSpans.getScopeSpans(0).getSpansList();
+        assertEquals(2, spans.size());
+
+        Span server = spans.get(0);
+        assertEquals("GET /orders/{id}", server.getName());
+        assertEquals(Span.SpanKind.SPAN_KIND_SERVER, server.getKind());
+        assertEquals(16, server.getTraceId().size());
+        assertEquals(8, server.getSpanId().size());
+        assertEquals(12_345_000, server.getEndTimeUnixNano() - server.getStartTimeUnixNano());
+        assertEquals("/orders/{id}", value(server.getAttributesList(), "http.route").getStringValue());
+        assertEquals(200, value(server.getAttributesList(), "http.response.status_code").getIntValue());
+        assertEquals(512, value(server.getAttributesList(), "http.response.body.size").getIntValue());
+        assertEquals("mobile-app", value(server.getAttributesList(), "malti.consumer").getStringValue());
+        assertEquals(0.25, value(server.getAttributesList(), "malti.sample_rate").getDoubleValue());
+        assertNull(value(server.getAttributesList(), "malti.context"));
+        assertEquals(Status.StatusCode.STATUS_CODE_UNSET, server.getStatus().getCode());
+
+        Span client = spans.get(1);
+        assertEquals(Span.SpanKind.SPAN_KIND_CLIENT, client.getKind());
+        assertEquals(40_000_000, client.getEndTimeUnixNano() - client.getStartTimeUnixNano());
+        assertEquals("payments:8080", value(client.getAttributesList(), "server.address").getStringValue());
+        assertEquals(Status.StatusCode.STATUS_CODE_ERROR, client.getStatus().getCode());
+    }
+
+    @Test
+    void testEncodesLargeBatches() throws Exception {
+        List<TelemetryRecord> batch = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            batch.add(new TelemetryRecord("orders", "GET", "/orders/" + "x".repeat(i % 300), 200, i,
+                "consumer-" + i, "node-1", "context"));
+        }
+
+        ExportTraceServiceRequest request = ExportTraceServiceRequest.parseFrom(
+            OtlpEncoder.encode(batch, "orders", "node-1"));
+
+        List<Span> spans = request.getResourceSpans(0).getScopeSpans(0).getSpansList();
+        assertEquals(2_000, spans.size());
+        assertEquals("GET /orders/" + "x".repeat(299), spans.get(299).getName());
+        assertEquals("consumer-1999", value(spans.get(1999).getAttributesList(), "malti.consumer").getStringValue());
+    }
+
+    private static AnyValue value(List<KeyValue> attributes, String key) {
+        return attributes.stream().filter(a -> a.getKey().equals(key)).map(KeyValue::getValue).findFirst().orElse(null);
+    }
+}
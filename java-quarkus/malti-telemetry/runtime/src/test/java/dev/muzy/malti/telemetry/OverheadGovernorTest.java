@@ -0,0 +1,116 @@
+package dev.muzy.malti.telemetry;
+
+import dev.muzy.malti.telemetry.OverheadGovernor.DegradationLevel;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverheadGovernorTest {
+
+    @Test
+    void testDegradesOneLevelPerInterval() {
+        OverheadGovernor governor = new OverheadGovernor(2.0, 200, 0.1, 3);
+
+        governor.record(1_000, 100_000);
+        governor.evaluate();
+        assertEquals(DegradationLevel.NORMAL, governor.level());
+
+        for (DegradationLevel expected : new DegradationLevel[] {
+            DegradationLevel.SAMPLE_HARDER, DegradationLevel.AGGREGATE_ONLY, DegradationLevel.DISABLED,
+            DegradationLevel.DISABLED}) {
+            governor.record(5_000, 100_000);
+            governor.evaluate();
+            assertEquals(expected, governor.level());
+        }
+
+        OverheadGovernor.OverheadStats stats = governor.getStats();
+        assertEquals(5.0, stats.overheadPercent(), 0.001);
+        assertEquals(3, stats.levelChanges());
+    }
+
+    @Test
+    void testDegradesOnEventLoopLag() {
+        OverheadGovernor governor = new OverheadGovernor(2.0, 200, 0.1, 3);
+
+        governor.recordLag(300_000_000L);
+        governor.evaluate();
+
+        assertEquals(DegradationLevel.SAMPLE_HARDER, governor.level());
+        assertEquals(300, governor.getStats().eventLoopLagMillis());
+    }
+
+    @Test
+    void testRecoversAfterCalmIntervals() {
+        OverheadGovernor governor = new OverheadGovernor(2.0, 200, 0.1, 2);
+        governor.record(5_000, 100_000);
+        governor.evaluate();
+        governor.record(5_000, 100_000);
+        governor.evaluate();
+        assertEquals(DegradationLevel.AGGREGATE_ONLY, governor.level());
+
+        // Within budget but above half of it does not count towards recovery
+        governor.record(1_500, 100_000);
+        governor.evaluate();
+        governor.record(1_500, 100_000);
+        governor.evaluate();
+        assertEquals(DegradationLevel.AGGREGATE_ONLY, governor.level());
+
+        // Intervals without captured requests are not calm
+        governor.evaluate();
+        governor.evaluate();
+        assertEquals(DegradationLevel.AGGREGATE_ONLY, governor.level());
+
+        for (int i = 0; i < 2; i++) {
+            governor.record(500, 100_000);
+            governor.evaluate();
+        }
+        assertEquals(DegradationLevel.SAMPLE_HARDER, governor.level());
+        for (int i = 0; i < 2; i++) {
+            governor.record(500, 100_000);
+            governor.evaluate();
+        }
+        assertEquals(DegradationLevel.NORMAL, governor.level());
+    }
+
+    @Test
+    void testDisabledStillProbesRequests() {
+        OverheadGovernor governor = new OverheadGovernor(2.0, 200, 0.1, 1);
+        assertTrue(governor.captures());
+        for (int i = 0; i < 3; i++) {
+            governor.record(5_000, 100_000);
+            governor.evaluate();
+        }
+        assertEquals(DegradationLevel.DISABLED, governor.level());
+
+        int probed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (governor.captures()) {
+                probed++;
+            }
+        }
+        assertTrue(probed > 50 && probed < 150, "probed " + probed);
+
+        governor.record(500, 100_000);
+        governor.evaluate();
+        assertEquals(DegradationLevel.AGGREGATE_ONLY, governor.level());
+    }
+
+    @Test
+    void testSamplesSuccessfulRequestsHarder() {
+        OverheadGovernor governor = new OverheadGovernor(2.0, 200, 0.25, 3);
+        assertEquals(0.5, governor.degrade(0.5, 200));
+
+        governor.record(5_000, 100_000);
+        governor.evaluate();
+
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            double rate = governor.degrade(1.0, 200);
+            if (rate > 0) {
+                assertEquals(0.25, rate);
+                kept++;
+            }
+        }
+        assertTrue(kept > 2_000 && kept < 3_000, "kept " + kept);
+        assertEquals(1.0, governor.degrade(1.0, 503));
+    }
+}
@@ -0,0 +1,113 @@
+package dev.muzy.malti.telemetry;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathNormalizerTest {
+
+    @Test
+    void testReplacesValueSegments() {
+        PathNormalizer normalizer = new PathNormalizer(50, 1000, 1000);
+
+        assertEquals("/items/{id}", normalizer.normalize("/items/123"));
+        assertEquals("/items/{id}", normalizer.normalize("items/124/"));
+        assertEquals("/orders/{uuid}/lines",
+            normalizer.normalize("/orders/3f2504e0-4f89-11d3-9a0c-0305e82c3301/lines"));
+        assertEquals("/commits/{hex}", normalizer.normalize("/commits/9fceb02d0ae598e95dc970b74767f19372d61af8"));
+        assertEquals("/reset/{token}", normalizer.normalize("/reset/aZ3k9Qx_P0vLm2Ty7Rb4Wn"));
+        assertEquals("/", normalizer.normalize("/"));
+    }
+
+    @Test
+    void testKeepsLiteralSegments() {
+        PathNormalizer normalizer = new PathNormalizer(50, 1000, 1000);
+
+        assertEquals("/api/v2/users", normalizer.normalize("/api/v2/users"));
+        assertEquals("/docs/getting-started", normalizer.normalize("/docs/getting-started"));
+        assertEquals("/files/deadbeefcafebabe", normalizer.normalize("/files/deadbeefcafebabe"));
+    }
+
+    @Test
+    void testLearnsVariableSegments() {
+        PathNormalizer normalizer = new PathNormalizer(3, 1000, 1000);
+
+        assertEquals("/users/alice/profile", normalizer.normalize("/users/alice/profile"));
+        normalizer.normalize("/users/bob/profile");
+        normalizer.normalize("/users/carol/profile");
+
+        // The fourth distinct name makes the position variable, including for names seen before
+        assertEquals("/users/{param}/profile", normalizer.normalize("/users/dave/profile"));
+        assertEquals("/users/{param}/profile", normalizer.normalize("/users/alice/profile"));
+        assertEquals("/users/{param}/orders/{id}", normalizer.normalize("/users/erin/orders/42"));
+    }
+
+    @Test
+    void testRootIsNeverVariable() {
+        PathNormalizer normalizer = new PathNormalizer(2, 1000, 1000);
+
+        normalizer.normalize("/a");
+        normalizer.normalize("/b");
+        normalizer.normalize("/c");
+
+        assertEquals("/health", normalizer.normalize("/health"));
+    }
+
+    @Test
+    void testFullTriePassesLiteralsThrough() {
+        PathNormalizer normalizer = new PathNormalizer(2, 1, 0);
+
+        assertEquals("/a/x", normalizer.normalize("/a/x"));
+        assertEquals("/a/y", normalizer.normalize("/a/y"));
+        assertEquals("/a/z/{id}", normalizer.normalize("/a/z/7"));
+    }
+
+    @Test
+    void testDisabledOnlyAddsLeadingSlash() {
+        PathNormalizer normalizer = new PathNormalizer();
+
+        assertEquals("/items/123", normalizer.normalize("items/123"));
+        assertEquals("/items/123", normalizer.normalize("/items/123"));
+    }
+
+    @Test
+    void testCacheEvictsInsteadOfClearing() {
+        PathNormalizer normalizer = new PathNormalizer(3, 1000, 2);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("/health", normalizer.normalize("/health"));
+            assertEquals("/items/{id}", normalizer.normalize("/items/" + i));
+        }
+        assertEquals("/health", normalizer.normalize("/health"));
+    }
+
+    @Test
+    void testLearningInvalidatesCachedLiterals() {
+        PathNormalizer normalizer = new PathNormalizer(2, 1000, 100);
+
+        assertEquals("/users/alice", normalizer.normalize("/users/alice"));
+        normalizer.normalize("/users/bob");
+        normalizer.normalize("/users/carol");
+
+        assertEquals("/users/{param}", normalizer.normalize("/users/alice"));
+    }
+
+    @Test
+    void testTrieLimitHoldsUnderConcurrentLearning() throws Exception {
+        PathNormalizer normalizer = new PathNormalizer(1000, 50, 0);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    normalizer.normalize("/t" + thread + "/s" + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(normalizer.nodeCount() <= 50, "trie has " + normalizer.nodeCount() + " nodes");
+    }
+}
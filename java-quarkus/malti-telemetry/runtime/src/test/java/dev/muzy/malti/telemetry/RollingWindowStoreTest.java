@@ -0,0 +1,153 @@
+package dev.muzy.malti.telemetry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+class RollingWindowStoreTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private RollingWindowStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RollingWindowStore(4, 15);
+    }
+
+    @Test
+    void testRequestsAndErrors() {
+        for (int i = 0; i < 8; i++) {
+            store.record("GET", "/test", "consumer", 200, 10_000, NOW);
+        }
+        store.record("GET", "/test", "consumer", 500, 10_000, NOW);
+        store.record("GET", "/test", "consumer", 404, 10_000, NOW);
+
+        List<RollingWindowStore.WindowStats> stats = store.query(query(60, null, false), NOW);
+        assertEquals(1, stats.size());
+        assertEquals(10, stats.get(0).requests());
+        assertEquals(2, stats.get(0).errors());
+        assertEquals(0.2, stats.get(0).errorRate(), 0.0001);
+    }
+
+    @Test
+    void testByteTotals() {
+        store.record("POST", "/upload", "b", 201, 10_000, 1_024, 64, NOW - 120_000);
+        store.record("POST", "/upload", "a", 201, 10_000, 4_096, 64, NOW);
+        store.record("POST", "/upload", "b", 201, 10_000, 1_024, 64, NOW);
+
+        List<RollingWindowStore.WindowStats> stats = store.query(query(60, null, false), NOW);
+        assertEquals(1, stats.size());
+        assertEquals(5_120, stats.get(0).requestBytes());
+        assertEquals(128, stats.get(0).responseBytes());
+    }
+
+    @Test
+    void testPercentiles() {
+        for (int i = 1; i <= 100; i++) {
+            store.record("GET", "/test", "", 200, i * 1000L, NOW);
+        }
+
+        RollingWindowStore.WindowStats stats = store.query(query(60, null, false), NOW).get(0);
+        // Log-linear buckets have at most 25% relative error
+        assertEquals(50.0, stats.p50Millis(), 50.0 * 0.25);
+        assertEquals(99.0, stats.p99Millis(), 99.0 * 0.25);
+        assertTrue(stats.p50Millis() <= stats.p95Millis());
+        assertTrue(stats.p95Millis() <= stats.p99Millis());
+    }
+
+    @Test
+    void testOldSlotsExpire() {
+        store.record("GET", "/test", "", 200, 1000, NOW - 120_000);
+        store.record("GET", "/test", "", 200, 1000, NOW);
+
+        assertEquals(1, store.query(query(60, null, false), NOW).get(0).requests());
+        assertEquals(2, store.query(query(300, null, false), NOW).get(0).requests());
+    }
+
+    @Test
+    void testGroupByConsumer() {
+        store.record("GET", "/test", "alice", 200, 1000, NOW);
+        store.record("GET", "/test", "alice", 200, 1000, NOW);
+        store.record("GET", "/test", "bob", 200, 1000, NOW);
+
+        List<RollingWindowStore.WindowStats> byEndpoint = store.query(query(60, null, false), NOW);
+        assertEquals(1, byEndpoint.size());
+        assertEquals(3, byEndpoint.get(0).requests());
+
+        List<RollingWindowStore.WindowStats> byConsumer = store.query(query(60, null, true), NOW);
+        assertEquals(2, byConsumer.size());
+        assertEquals("alice", byConsumer.get(0).consumer());
+
+        List<RollingWindowStore.WindowStats> filtered = store.query(query(60, "bob", true), NOW);
+        assertEquals(1, filtered.size());
+        assertEquals(1, filtered.get(0).requests());
+    }
+
+    @Test
+    void testSeriesCapFoldsIntoOther() {
+        for (int i = 0; i < 10; i++) {
+            store.record("GET", "/test" + i, "", 200, 1000, NOW);
+        }
+
+        assertEquals(4, store.seriesCount());
+        List<RollingWindowStore.WindowStats> stats = store.query(query(60, null, false), NOW);
+        RollingWindowStore.WindowStats other = stats.stream()
+            .filter(s -> RollingWindowStore.OTHER.equals(s.endpoint()))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(6, other.requests());
+    }
+
+    @Test
+    void testIdleSeriesEvictedToFreeSlots() {
+        for (int i = 0; i < 4; i++) {
+            store.record("GET", "/idle" + i, "", 200, 1000, NOW);
+        }
+        store.record("GET", "/busy", "", 200, 1000, NOW + 1_000);
+        assertEquals(4, store.seriesCount());
+
+        // Past the 15 minute retention the idle series make room for the new one
+        long later = NOW + Duration.ofMinutes(15).toMillis() + 1_000;
+        store.record("GET", "/busy", "", 200, 1000, later);
+
+        assertEquals(1, store.seriesCount());
+        List<RollingWindowStore.WindowStats> stats = store.query(query(60, null, false), later);
+        assertEquals(List.of("/busy"), stats.stream().map(RollingWindowStore.WindowStats::endpoint).toList());
+    }
+
+    @Test
+    void testSeriesCapHoldsUnderConcurrentFirstRequests() throws InterruptedException {
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t * 100;
+            threads[t] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 100; i++) {
+                    store.record("GET", "/test" + (offset + i), "", 200, 1000, NOW);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4, store.seriesCount());
+    }
+
+    @Test
+    void testLatencyBuckets() {
+        for (long micros : new long[] {0, 15, 63, 64, 1000, 123_456, 60_000_000}) {
+            int index = RollingWindowStore.LatencyBuckets.indexOf(micros);
+            assertTrue(RollingWindowStore.LatencyBuckets.upperBoundMicros(index) > micros);
+        }
+        assertEquals(RollingWindowStore.LatencyBuckets.COUNT - 1,
+            RollingWindowStore.LatencyBuckets.indexOf(Long.MAX_VALUE));
+    }
+
+    private static RollingWindowStore.WindowQuery query(int seconds, String consumer, boolean byConsumer) {
+        return new RollingWindowStore.WindowQuery(Duration.ofSeconds(seconds), null, null, consumer, byConsumer, 0);
+    }
+}
@@ -0,0 +1,42 @@
+package dev.muzy.malti.telemetry;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTemplatesTest {
+
+    @Test
+    void testInheritedMethodTakesEachResourceClassPath() throws NoSuchMethodException {
+        Method get = BaseResource.class.getMethod("get");
+
+        assertEquals("/base/items", RouteTemplates.lookup(BaseResource.class, get));
+        assertEquals("/a/items", RouteTemplates.lookup(AResource.class, get));
+        assertEquals("/b/items", RouteTemplates.lookup(BResource.class, get));
+        // Resolved once per class, then served from the cache
+        assertSame(RouteTemplates.lookup(AResource.class, get), RouteTemplates.lookup(AResource.class, get));
+        assertEquals("/base/items", RouteTemplates.lookup(null, get));
+    }
+
+    @Path("/base")
+    public static class BaseResource {
+
+        @GET
+        @Path("items")
+        public String get() {
+            return "";
+        }
+    }
+
+    @Path("/a")
+    public static class AResource extends BaseResource {
+    }
+
+    @Path("/b")
+    public static class BResource extends BaseResource {
+    }
+}
@@ -0,0 +1,113 @@
+package dev.muzy.malti.telemetry;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class SpaceSavingTest {
+
+    @Test
+    void testExactCountsBelowCapacity() {
+        SpaceSaving sketch = new SpaceSaving(10);
+        for (int i = 0; i < 5; i++) {
+            sketch.add("alice", 1);
+        }
+        sketch.add("bob", 3);
+
+        List<SpaceSaving.Entry> top = sketch.top(10);
+        assertEquals(2, top.size());
+        assertEquals("alice", top.get(0).key());
+        assertEquals(5, top.get(0).count());
+        assertEquals(0, top.get(0).error());
+        assertEquals(3, top.get(1).count());
+    }
+
+    @Test
+    void testHeavyHitterSurvivesLongTail() {
+        SpaceSaving sketch = new SpaceSaving(8);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("abuser", 1);
+            sketch.add("user-" + i, 1);
+        }
+
+        List<SpaceSaving.Entry> top = sketch.top(1);
+        assertEquals("abuser", top.get(0).key());
+        assertTrue(top.get(0).count() >= 10_000);
+        assertTrue(top.get(0).count() - top.get(0).error() <= 10_000);
+    }
+
+    @Test
+    void testWeightedCounts() {
+        SpaceSaving sketch = new SpaceSaving(2);
+        sketch.add("fast", 10);
+        sketch.add("slow", 5_000);
+        sketch.add("other", 1);
+
+        assertEquals("slow", sketch.top(1).get(0).key());
+        assertEquals(2, sketch.top(5).size());
+    }
+
+    @Test
+    void testMergeAddsCountsAcrossSketches() {
+        SpaceSaving first = new SpaceSaving(4);
+        SpaceSaving second = new SpaceSaving(4);
+        first.add("alice", 5);
+        first.add("bob", 1);
+        second.add("alice", 2);
+        second.add("carol", 4);
+
+        List<SpaceSaving.Entry> top = SpaceSaving.merge(List.of(first, second), 2);
+        assertEquals(2, top.size());
+        assertEquals(new SpaceSaving.Entry("alice", 7, 0), top.get(0));
+        assertEquals(new SpaceSaving.Entry("carol", 4, 0), top.get(1));
+    }
+
+    @Test
+    void testTrackerCountsFromManyThreads() throws Exception {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(16, 3);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    tracker.record("alice", 200, 10);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8000, tracker.snapshot().byRequests().get(0).value());
+    }
+
+    @Test
+    void testTrackerRestoresSnapshotThatWasNotSent() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(16, 3);
+        tracker.record("alice", 500, 1000);
+        HeavyHitterTracker.Snapshot failed = tracker.drain();
+        tracker.record("alice", 200, 1000);
+
+        tracker.restore(failed);
+
+        HeavyHitterTracker.Snapshot snapshot = tracker.drain();
+        assertEquals(failed.since(), snapshot.since());
+        assertEquals(2, snapshot.byRequests().get(0).value());
+        assertEquals(1, snapshot.byErrors().get(0).value());
+        assertEquals(2000, snapshot.byLatency().get(0).value());
+    }
+
+    @Test
+    void testTrackerIgnoresAnonymousConsumers() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(16, 3);
+        tracker.record("", 200, 1000);
+        tracker.record(null, 200, 1000);
+        tracker.record("alice", 500, 1000);
+
+        HeavyHitterTracker.Snapshot snapshot = tracker.drain();
+        assertEquals(1, snapshot.byRequests().size());
+        assertEquals("alice", snapshot.byErrors().get(0).consumer());
+        assertTrue(tracker.snapshot().byRequests().isEmpty());
+    }
+}
@@ -80,10 +80,63 @@ class TelemetryBufferTest {
         TelemetryBuffer.BufferStats updatedStats = buffer.getStats();
         assertEquals(10, updatedStats.totalSent());
         assertEquals(2, updatedStats.totalFailed());
+        assertEquals(10, buffer.totalSent());
+        assertEquals(2, buffer.totalFailed());
     }
 
     @Test
     void testMaxSize() {
         assertEquals(25000, buffer.getMaxSize());
     }
+
+    @Test
+    void testExpiredSegmentsDropped() {
+        // 60 s max age in 10 s segments
+        buffer = new TelemetryBuffer(100, 60, 10, TelemetryConfig.DrainOrder.OLDEST_FIRST);
+        long now = System.currentTimeMillis();
+        buffer.add(record("/old0"), now);
+        buffer.add(record("/old1"), now + 5_000);
+        buffer.add(record("/new"), now + 30_000);
+
+        // The first segment's newest record is 60 s old, not older, so nothing expires yet
+        assertEquals(0, buffer.getBatch(0, now + 65_000).size());
+        assertEquals(3, buffer.size());
+
+        List<TelemetryRecord> batch = buffer.getBatch(10, now + 66_000);
+        assertEquals(List.of("/new"), batch.stream().map(TelemetryRecord::getEndpoint).toList());
+        assertEquals(2, buffer.getStats().totalExpired());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testNewestFirstDrain() {
+        buffer = new TelemetryBuffer(3, 0, 10, TelemetryConfig.DrainOrder.NEWEST_FIRST);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 4; i++) {
+            buffer.add(record("/test" + i), now + i * 5_000L);
+        }
+
+        // The oldest record was evicted; the rest drain newest first across segments
+        assertEquals(1, buffer.getStats().totalEvicted());
+        assertEquals(List.of("/test3", "/test2"),
+            buffer.getBatch(2, now + 20_000).stream().map(TelemetryRecord::getEndpoint).toList());
+        assertEquals(List.of("/test1"),
+            buffer.getBatch(2, now + 20_000).stream().map(TelemetryRecord::getEndpoint).toList());
+    }
+
+    @Test
+    void testOldestRecordAge() {
+        assertEquals(0, buffer.oldestRecordAgeMillis());
+        TelemetryRecord oldest = record("/test0");
+        buffer.add(oldest);
+        buffer.add(record("/test1"));
+
+        long now = System.currentTimeMillis() + 5_000;
+        assertEquals(oldest.ageMillis(now), buffer.oldestRecordAgeMillis(now));
+        assertTrue(buffer.getStats().oldestRecordAgeMillis() >= 0);
+    }
+
+    private static TelemetryRecord record(String endpoint) {
+        return new TelemetryRecord("test-service", "GET", endpoint, 200, 100, "consumer", "node", "context");
+    }
 }
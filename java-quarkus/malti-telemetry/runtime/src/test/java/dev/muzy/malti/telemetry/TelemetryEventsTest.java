@@ -0,0 +1,85 @@
+package dev.muzy.malti.telemetry;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelemetryEventsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testEmitsPipelineEvents() throws Exception {
+        TelemetryEvents events = new TelemetryEvents(true, 1);
+
+        List<RecordedEvent> recorded = record(e -> {
+            e.capture(e.beginCapture(), "GET", "/users/{id}", 200, 1500, 2000);
+            e.evicted(e.beginEviction(), 25000);
+            e.drained(e.beginDrain(), 500, 120);
+            e.encoded(e.beginEncode(), 500, 64_000, 800);
+            TelemetryEvents.SendEvent send = e.beginSend();
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ex) {
+                throw new AssertionError(ex);
+            }
+            e.sent(send, 2, 64_000, 12_000, false);
+        }, events);
+
+        assertEquals(5, recorded.size());
+        RecordedEvent capture = find(recorded, "dev.muzy.malti.Capture");
+        assertEquals("/users/{id}", capture.getString("endpoint"));
+        assertEquals(200, capture.getInt("status"));
+        assertEquals(1_500_000, capture.getDuration("requestDuration").toNanos());
+        assertEquals(500, find(recorded, "dev.muzy.malti.Drain").getInt("records"));
+        assertEquals(64_000, find(recorded, "dev.muzy.malti.Encode").getLong("bytes"));
+        RecordedEvent send = find(recorded, "dev.muzy.malti.Send");
+        assertEquals(2, send.getInt("attempt"));
+        assertFalse(send.getBoolean("success"));
+        // The event spans the work between begin and commit
+        assertTrue(send.getDuration().toMillis() >= 5, send.getDuration().toString());
+    }
+
+    @Test
+    void testDisabledEmitsNothing() throws Exception {
+        TelemetryEvents events = new TelemetryEvents(false, 1);
+
+        List<RecordedEvent> recorded = record(e -> {
+            assertNull(e.beginCapture());
+            assertNull(e.beginDrain());
+            e.capture(null, "GET", "/users/{id}", 200, 1500, 2000);
+            e.sent(e.beginSend(), 1, 64_000, 12_000, true);
+        }, events);
+
+        assertTrue(recorded.isEmpty());
+    }
+
+    private List<RecordedEvent> record(Consumer<TelemetryEvents> emit, TelemetryEvents events) throws Exception {
+        Path file = dir.resolve("telemetry.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("Capture", "Eviction", "Drain", "Encode", "Send")) {
+                recording.enable("dev.muzy.malti." + name);
+            }
+            recording.start();
+            emit.accept(events);
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+            .filter(e -> e.getEventType().getName().startsWith("dev.muzy.malti."))
+            .toList();
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).findFirst().orElseThrow();
+    }
+}
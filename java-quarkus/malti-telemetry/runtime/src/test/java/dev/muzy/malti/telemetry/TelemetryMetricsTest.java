@@ -0,0 +1,46 @@
+package dev.muzy.malti.telemetry;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class TelemetryMetricsTest {
+
+    @Test
+    void testConsecutiveFailuresResetBySuccess() {
+        TelemetryMetrics metrics = new TelemetryMetrics();
+
+        metrics.batchFailed();
+        metrics.batchFailed();
+        assertEquals(2, metrics.getStats().consecutiveFailures());
+
+        metrics.batchSent(1_000);
+        TelemetryMetrics.PipelineStats stats = metrics.getStats();
+        assertEquals(0, stats.consecutiveFailures());
+        assertEquals(2, stats.batchesFailed());
+        assertEquals(1, stats.batchesSent());
+        assertEquals(1_000, stats.bytesSent());
+    }
+
+    @Test
+    void testRetriesAndSendTiming() {
+        TelemetryMetrics metrics = new TelemetryMetrics();
+        List<Long> exported = new ArrayList<>();
+        metrics.sendMicros().exportTo(exported::add);
+
+        metrics.sendStarted(1);
+        assertEquals(1, metrics.getStats().sendsInFlight());
+        metrics.sendFinished(300);
+        metrics.sendStarted(2);
+        metrics.sendFinished(100);
+
+        TelemetryMetrics.PipelineStats stats = metrics.getStats();
+        assertEquals(1, stats.retries());
+        assertEquals(0, stats.sendsInFlight());
+        assertEquals(200.0, stats.meanSendMicros());
+        assertEquals(300, stats.maxSendMicros());
+        assertEquals(List.of(300L, 100L), exported);
+    }
+}
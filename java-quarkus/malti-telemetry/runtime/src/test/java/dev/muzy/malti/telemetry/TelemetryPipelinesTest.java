@@ -0,0 +1,100 @@
+package dev.muzy.malti.telemetry;
+
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class TelemetryPipelinesTest {
+
+    private TelemetryPipelines pipelines;
+
+    @AfterEach
+    void tearDown() {
+        if (pipelines != null) {
+            pipelines.stop();
+        }
+    }
+
+    @Test
+    void testOnlyDefaultPipeline() {
+        pipelines = pipelines(Map.of());
+
+        TelemetryPipeline pipeline = pipelines.forResource(String.class, "/api/billing");
+        assertSame(pipelines.defaultPipeline(), pipeline);
+        assertEquals(TelemetryPipeline.DEFAULT, pipeline.name());
+        assertEquals(1, pipelines.all().size());
+    }
+
+    @Test
+    void testRoutePrefixMatchesWholeSegments() {
+        pipelines = pipelines(Map.of(
+            "malti.pipelines.billing.routes", "/api/billing/",
+            "malti.pipelines.invoices.routes", "/api/billing/invoices"));
+
+        assertEquals("billing", pipelines.forRoute("/api/billing").name());
+        assertEquals("billing", pipelines.forRoute("/api/billing/{id}").name());
+        assertEquals("invoices", pipelines.forRoute("/api/billing/invoices/{id}").name());
+        assertEquals(TelemetryPipeline.DEFAULT, pipelines.forRoute("/api/billing-v2").name());
+        assertEquals(TelemetryPipeline.DEFAULT, pipelines.forRoute("/api/users").name());
+    }
+
+    @Test
+    void testResourceClassWinsOverRoute() {
+        pipelines = pipelines(Map.of(
+            "malti.pipelines.billing.routes", "/api/billing",
+            "malti.pipelines.admin.resource-classes", String.class.getName()));
+
+        assertEquals("admin", pipelines.forResource(String.class, "/api/billing/{id}").name());
+        assertEquals("billing", pipelines.forResource(Integer.class, "/api/billing/{id}").name());
+        assertEquals("billing", pipelines.forResource(null, "/api/billing/{id}").name());
+    }
+
+    @Test
+    void testSettingsFallBackToTopLevel() {
+        pipelines = pipelines(Map.of(
+            "malti.service-name", "gateway",
+            "malti.batch.size", "200",
+            "malti.pipelines.billing.routes", "/api/billing",
+            "malti.pipelines.billing.api-key", "billing-key",
+            "malti.pipelines.billing.buffer-size", "1000",
+            "malti.pipelines.billing.batch.sender-concurrency", "4"));
+
+        TelemetryPipeline billing = pipelines.forRoute("/api/billing");
+        assertEquals("gateway", billing.serviceName());
+        assertEquals("billing-key", billing.apiKey().orElseThrow());
+        assertEquals(new TelemetrySettings.Batch(200, 60, 4), billing.configuredBatch());
+        assertEquals(1000, billing.buffer().getMaxSize());
+        assertEquals("test-key", pipelines.defaultPipeline().apiKey().orElseThrow());
+        assertEquals(1, pipelines.defaultPipeline().configuredBatch().senderConcurrency());
+    }
+
+    @Test
+    void testInvalidPipelines() {
+        assertThrows(IllegalArgumentException.class, () -> pipelines(Map.of(
+            "malti.pipelines.default.routes", "/api")));
+        assertThrows(IllegalArgumentException.class, () -> pipelines(Map.of(
+            "malti.pipelines.billing.service-name", "billing")));
+        assertThrows(IllegalArgumentException.class, () -> pipelines(Map.of(
+            "malti.pipelines.billing.routes", "/api/billing",
+            "malti.pipelines.payments.routes", "/api/billing/")));
+        assertThrows(IllegalArgumentException.class, () -> pipelines(Map.of(
+            "malti.pipelines.billing.routes", "/api/billing",
+            "malti.pipelines.billing.batch.sender-concurrency", "0")));
+    }
+
+    private static TelemetryPipelines pipelines(Map<String, String> properties) {
+        Map<String, String> merged = new HashMap<>(Map.of("malti.api-key", "test-key"));
+        merged.putAll(properties);
+        SmallRyeConfig config = new SmallRyeConfigBuilder()
+            .withMapping(TelemetryConfig.class)
+            .withSources(new PropertiesConfigSource(merged, "test", 100))
+            .build();
+        return new TelemetryPipelines(config.getConfigMapping(TelemetryConfig.class), new TelemetryBuffer());
+    }
+}
@@ -0,0 +1,97 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class TelemetryRecordTest {
+
+    @Test
+    void testTelemetryRecordCreation() {
+        TelemetryRecord record = new TelemetryRecord(
+            "test-service",
+            "GET",
+            "/api/test",
+            200,
+            150,
+            "test-consumer",
+            "test-node",
+            "test-context"
+        );
+
+        assertEquals("test-service", record.getService());
+        assertEquals("GET", record.getMethod());
+        assertEquals("/api/test", record.getEndpoint());
+        assertEquals(200, record.getStatus());
+        assertEquals(150, record.getResponseTime());
+        assertEquals("test-consumer", record.getConsumer());
+        assertEquals("test-node", record.getNode());
+        assertEquals("test-context", record.getContext());
+        assertNotNull(record.getCreatedAt());
+    }
+
+    @Test
+    void testDefaultConstructor() {
+        TelemetryRecord record = new TelemetryRecord();
+        assertNotNull(record.getCreatedAt());
+    }
+
+    @Test
+    void testToString() {
+        TelemetryRecord record = new TelemetryRecord(
+            "test-service",
+            "POST",
+            "/api/users",
+            201,
+            250,
+            "user123",
+            "node-1",
+            "signup"
+        );
+
+        String result = record.toString();
+        assertTrue(result.contains("test-service"));
+        assertTrue(result.contains("POST"));
+        assertTrue(result.contains("/api/users"));
+        assertTrue(result.contains("201"));
+        assertTrue(result.contains("250"));
+        assertTrue(result.contains("user123"));
+    }
+
+    @Test
+    void testTimingFieldsOnlySerializedWhenMeasured() {
+        ObjectMapper mapper = new ObjectMapper();
+        TelemetryRecord record = new TelemetryRecord(
+            "test-service", "GET", "/api/test", 200, 0, "", "node-1", "");
+
+        JsonNode unmeasured = mapper.valueToTree(record);
+        assertEquals(0, unmeasured.get("response_time").asInt());
+        assertFalse(unmeasured.has("ttfb_us"));
+        assertFalse(unmeasured.has("ttlb_us"));
+
+        record.setTtfbMicros(120);
+        record.setTtlbMicros(850);
+        JsonNode measured = mapper.valueToTree(record);
+        assertEquals(120, measured.get("ttfb_us").asLong());
+        assertEquals(850, measured.get("ttlb_us").asLong());
+    }
+
+    @Test
+    void testOutboundCallsSentSeparately() {
+        ObjectMapper mapper = new ObjectMapper();
+        TelemetryRecord inbound = new TelemetryRecord("orders", "GET", "/orders/{id}", 200, 5, "", "node-1", "");
+        TelemetryRecord outbound = new TelemetryRecord("orders", "GET", "/users/{id}", 200, 3, "", "node-1", "");
+        outbound.setTarget("users-service:8080");
+
+        JsonNode batch = mapper.valueToTree(new TelemetryBatchRequest(List.of(inbound, outbound)));
+        assertEquals(1, batch.get("requests").size());
+        assertEquals("/orders/{id}", batch.get("requests").get(0).get("endpoint").asText());
+        assertEquals("users-service:8080", batch.get("outbound").get(0).get("target").asText());
+
+        JsonNode inboundOnly = mapper.valueToTree(new TelemetryBatchRequest(List.of(inbound)));
+        assertFalse(inboundOnly.has("outbound"));
+    }
+}
@@ -0,0 +1,137 @@
+package dev.muzy.malti.telemetry;
+
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+class TelemetryRulesTest {
+
+    @Test
+    void testNoRules() {
+        TelemetryRules rules = new TelemetryRules(config(Map.of()).rules());
+
+        assertSame(TelemetryRules.RouteDecision.NONE, rules.forTemplate("/api/users"));
+        assertFalse(rules.forTemplate("/api/users").excludesRequest("GET"));
+    }
+
+    @Test
+    void testExcludeByRoutePrefix() {
+        TelemetryRules rules = new TelemetryRules(config(Map.of(
+            "malti.rules[0].route", "/health/**",
+            "malti.rules[0].action", "exclude"
+        )).rules());
+
+        assertTrue(rules.forTemplate("/health").excludesRequest("GET"));
+        assertTrue(rules.forTemplate("/health/live").excludesRequest("GET"));
+        assertFalse(rules.forTemplate("/api/health").excludesRequest("GET"));
+    }
+
+    @Test
+    void testSingleSegmentWildcardAndMethods() {
+        TelemetryRules rules = new TelemetryRules(config(Map.of(
+            "malti.rules[0].route", "/api/*/items",
+            "malti.rules[0].methods", "get,head",
+            "malti.rules[0].action", "exclude"
+        )).rules());
+
+        assertTrue(rules.forTemplate("/api/demo/items").excludesRequest("GET"));
+        assertFalse(rules.forTemplate("/api/demo/items").excludesRequest("POST"));
+        assertFalse(rules.forTemplate("/api/demo/items/{id}").excludesRequest("GET"));
+    }
+
+    @Test
+    void testFirstMatchingRuleWins() {
+        TelemetryRules rules = new TelemetryRules(config(Map.of(
+            "malti.rules[0].route", "/api/**",
+            "malti.rules[0].status", "5xx",
+            "malti.rules[0].action", "keep",
+            "malti.rules[1].route", "/api/demo/**",
+            "malti.rules[1].action", "sample",
+            "malti.rules[1].rate", "0.1"
+        )).rules());
+
+        TelemetryRules.RouteDecision route = rules.forTemplate("/api/demo/items");
+        // Status-dependent rules cannot exclude up front
+        assertFalse(route.excludesRequest("GET"));
+        assertEquals(TelemetryRules.Action.KEEP, route.match("GET", 503, "").action());
+        TelemetryRules.CompiledRule sample = route.match("GET", 200, "");
+        assertEquals(TelemetryRules.Action.SAMPLE, sample.action());
+        assertEquals(0.1, sample.rate());
+    }
+
+    @Test
+    void testConsumerAndStatusRanges() {
+        TelemetryRules rules = new TelemetryRules(config(Map.of(
+            "malti.rules[0].route", "/**",
+            "malti.rules[0].consumer", "load-tester",
+            "malti.rules[0].status", "200-299,404",
+            "malti.rules[0].action", "exclude"
+        )).rules());
+
+        TelemetryRules.RouteDecision route = rules.forTemplate("/api/users");
+        assertNotNull(route.match("GET", 204, "load-tester"));
+        assertNotNull(route.match("GET", 404, "load-tester"));
+        assertNull(route.match("GET", 500, "load-tester"));
+        assertNull(route.match("GET", 200, "someone-else"));
+    }
+
+    @Test
+    void testInvalidSampleRate() {
+        TelemetryConfig config = config(Map.of(
+            "malti.rules[0].route", "/**",
+            "malti.rules[0].action", "sample",
+            "malti.rules[0].rate", "0"
+        ));
+
+        assertThrows(IllegalArgumentException.class, () -> new TelemetryRules(config.rules()));
+    }
+
+    @Test
+    void testDoubleWildcardOnlyAsLastSegment() {
+        TelemetryConfig config = config(Map.of(
+            "malti.rules[0].route", "/api/**/health",
+            "malti.rules[0].action", "exclude"
+        ));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new TelemetryRules(config.rules()));
+        assertTrue(e.getMessage().startsWith("malti.rules[0].route: ** is only allowed as the last segment"), e.getMessage());
+    }
+
+    @Test
+    void testInheritedMethodDecidedPerResourceClass() throws NoSuchMethodException {
+        TelemetryRules rules = new TelemetryRules(config(Map.of(
+            "malti.rules[0].route", "/a/**",
+            "malti.rules[0].action", "exclude"
+        )).rules());
+        Method get = BaseResource.class.getMethod("get");
+
+        assertTrue(rules.forResourceMethod(AResource.class, get, "/a/items").excludesRequest("GET"));
+        assertFalse(rules.forResourceMethod(BResource.class, get, "/b/items").excludesRequest("GET"));
+        assertTrue(rules.forResourceMethod(AResource.class, get, "/a/items").excludesRequest("GET"));
+    }
+
+    public static class BaseResource {
+        public String get() {
+            return "";
+        }
+    }
+
+    public static class AResource extends BaseResource {
+    }
+
+    public static class BResource extends BaseResource {
+    }
+
+    private static TelemetryConfig config(Map<String, String> properties) {
+        SmallRyeConfig config = new SmallRyeConfigBuilder()
+            .withMapping(TelemetryConfig.class)
+            .withSources(new PropertiesConfigSource(properties, "test", 100))
+            .build();
+        return config.getConfigMapping(TelemetryConfig.class);
+    }
+}
@@ -0,0 +1,255 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Thread ownership and blocking retries of the send path, against a stub Malti client.
+ */
+class TelemetrySenderTest {
+
+    private final List<String> sendThreads = new CopyOnWriteArrayList<>();
+    private final List<String> apiKeys = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long sendMillis;
+    private TelemetryService service;
+
+    @AfterEach
+    void tearDown() {
+        service.pipelines.stop();
+    }
+
+    @Test
+    void testBatchesSentOnSenderThread() {
+        service = service(Map.of());
+        record(3);
+
+        service.sendBatchAsync().await().indefinitely();
+
+        assertEquals(List.of("malti-sender"), sendThreads);
+        assertEquals(3, service.getStats().totalSent());
+        assertEquals(1, service.getPipelineStats().batchesSent());
+    }
+
+    @Test
+    void testOverflowHandsDrainToSender() throws InterruptedException {
+        // 0.02% of 25,000 records: every fifth record crosses the threshold
+        service = service(Map.of("malti.overflow-threshold-percent", "0.02", "malti.batch.size", "2"));
+        record(5);
+
+        // The drain sends all five buffered records, in batches of two
+        awaitSent(5);
+        assertEquals(List.of("malti-sender", "malti-sender", "malti-sender"), sendThreads);
+    }
+
+    @Test
+    void testRetriesUntilAccepted() {
+        service = service(Map.of("malti.batch.max-retries", "2"));
+        failuresLeft.set(2);
+        record(1);
+
+        service.sendBatchAsync().await().indefinitely();
+
+        assertEquals(3, sendThreads.size());
+        assertEquals(1, service.getStats().totalSent());
+        assertEquals(2, service.getPipelineStats().retries());
+    }
+
+    @Test
+    void testBatchFailsAfterAllRetries() {
+        service = service(Map.of("malti.batch.max-retries", "1"));
+        failuresLeft.set(Integer.MAX_VALUE);
+        record(2);
+
+        service.sendBatchAsync().await().indefinitely();
+
+        assertEquals(2, sendThreads.size());
+        assertEquals(2, service.getStats().totalFailed());
+        assertEquals(1, service.getPipelineStats().batchesFailed());
+        assertEquals(1, service.getPipelineStats().consecutiveFailures());
+    }
+
+    @Test
+    void testRetryDelayCappedAndJittered() {
+        service = service(Map.of());
+        for (int attempt = 1; attempt <= 100; attempt++) {
+            long delay = TelemetryService.retryDelayMillis(attempt, 5_000, 60_000);
+            assertTrue(delay >= 0 && delay <= Math.min(60_000, 5_000L << Math.min(attempt - 1, 30)),
+                attempt + ": " + delay);
+        }
+        assertEquals(0, TelemetryService.retryDelayMillis(3, 0, 60_000));
+    }
+
+    @Test
+    void testBufferedRecordsSentOnShutdown() {
+        service = service(Map.of());
+        record(3);
+
+        service.flushOnShutdown(null);
+
+        assertEquals(3, service.getStats().totalSent());
+        assertEquals(0, service.getStats().currentSize());
+    }
+
+    @Test
+    void testShutdownAbandonsBatchInFlight() throws InterruptedException {
+        service = service(Map.of("malti.batch.shutdown-timeout-seconds", "0", "malti.batch.max-retries", "3"));
+        sendMillis = 60_000;
+        failuresLeft.set(Integer.MAX_VALUE);
+        record(3);
+
+        service.flushOnShutdown(null);
+        while (inFlight.get() == 0) {
+            Thread.sleep(10);
+        }
+        // Taken from the buffer, but not sent
+        TelemetryPipeline pipeline = service.pipelines.defaultPipeline();
+        assertEquals(0, pipeline.buffer().size());
+        assertEquals(3, pipeline.unsent());
+
+        service.pipelines.stop();
+        while (pipeline.unsent() > 0) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, service.getPipelineStats().batchesFailed());
+        assertEquals(0, service.getPipelineStats().retries());
+    }
+
+    @Test
+    void testPipelinesSendIndependently() throws InterruptedException {
+        // The billing buffer holds two records, so its second record crosses the overflow threshold
+        service = service(Map.of(
+            "malti.pipelines.billing.routes", "/api/billing",
+            "malti.pipelines.billing.api-key", "billing-key",
+            "malti.pipelines.billing.buffer-size", "2"));
+        record(1);
+        service.recordRequest("GET", "/api/billing/{id}", 200, 12, "mobile-app", "");
+        service.recordRequest("GET", "/api/billing/{id}", 200, 12, "mobile-app", "");
+
+        awaitSent(2);
+        assertEquals(List.of("malti-sender-billing"), sendThreads);
+        assertEquals(List.of("billing-key"), apiKeys);
+        List<TelemetryPipeline.Stats> pipelines = service.getPipelines();
+        assertEquals(TelemetryPipeline.DEFAULT, pipelines.get(0).name());
+        assertEquals(1, pipelines.get(0).buffer().currentSize());
+        assertEquals("billing", pipelines.get(1).name());
+        assertEquals(2, pipelines.get(1).buffer().totalSent());
+        assertEquals(3, service.getStats().totalAdded());
+    }
+
+    @Test
+    void testSenderConcurrencySendsBatchesInParallel() throws InterruptedException {
+        service = service(Map.of("malti.overflow-threshold-percent", "0.02", "malti.batch.size", "2",
+            "malti.batch.sender-concurrency", "2"));
+        sendMillis = 100;
+        record(5);
+
+        // Two batches at once, then the last record on its own
+        awaitSent(5);
+        assertEquals(3, sendThreads.size());
+        assertEquals(2, maxInFlight.get());
+        assertTrue(sendThreads.containsAll(List.of("malti-sender-0", "malti-sender-1", "malti-sender")),
+            sendThreads.toString());
+    }
+
+    @Test
+    void testSettingsChangeReplansSending() throws InterruptedException {
+        service = service(Map.of());
+        record(5);
+        assertEquals(0, service.getStats().totalSent());
+
+        assertThrows(IllegalArgumentException.class, () -> service.updateSettings(s -> s.withOverflowThresholdPercent(0)));
+        assertEquals(90, service.getSettings().overflowThresholdPercent());
+
+        // The buffer is already above the new threshold, so it drains now with the new batch size
+        TelemetrySettings settings = service.updateSettings(s -> s.withOverflowThresholdPercent(0.01)
+            .withBatch(TelemetryPipeline.DEFAULT, new TelemetrySettings.Batch(2, 60, 1)));
+        assertSame(settings, service.getSettings());
+        awaitSent(5);
+        assertEquals(3, sendThreads.size());
+        assertEquals(2, service.getPipelines().get(0).batchSize());
+    }
+
+    @Test
+    void testSamplingSettingsFollowTuning() {
+        service = service(Map.of("malti.sampling.target-records-per-second", "0.5"));
+        assertEquals(1, service.getSettings().sampling().targetRecordsPerSecond());
+        assertEquals(1, service.getSamplingStats().targetRecordsPerSecond());
+
+        service.updateSettings(s -> s.withSampling(new TelemetrySettings.Sampling(true, 200, 1000)));
+        assertEquals(200, service.getSamplingStats().targetRecordsPerSecond());
+    }
+
+        private void awaitSent(int records) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.getStats().totalSent() < records && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(records, service.getStats().totalSent());
+    }
+
+    private void record(int requests) {
+        for (int i = 0; i < requests; i++) {
+            service.recordRequest("GET", "/users/{id}", 200, 12, "mobile-app", "");
+        }
+    }
+
+    private TelemetryService service(Map<String, String> properties) {
+        Map<String, String> merged = new HashMap<>(Map.of(
+            "malti.api-key", "test-key",
+            "malti.batch.retry-delay-seconds", "0"));
+        merged.putAll(properties);
+        TelemetryConfig config = new SmallRyeConfigBuilder()
+            .withMapping(TelemetryConfig.class)
+            .withSources(new PropertiesConfigSource(merged, "test", 100))
+            .build()
+            .getConfigMapping(TelemetryConfig.class);
+
+        TelemetryService service = new TelemetryService();
+        service.config = config;
+        service.pipelines = new TelemetryPipelines(config, new TelemetryBuffer());
+        service.sampler = new AdaptiveSampler();
+        service.tuning = new TelemetryTuning(config, service.pipelines, service.sampler);
+        service.windowStore = new RollingWindowStore(128, 15);
+        service.heavyHitters = new HeavyHitterTracker(100, 10);
+        service.cardinalityGuard = new CardinalityGuard(500, 1000, 100);
+        service.rules = new TelemetryRules(config.rules());
+        service.metrics = new TelemetryMetrics();
+        service.governor = new OverheadGovernor(2.0, 200, 0.1, 3);
+        service.events = new TelemetryEvents(false, 100);
+        service.objectMapper = new ObjectMapper();
+        service.maltiClient = new MaltiClient() {
+            @Override
+            public void sendTelemetryBatch(String apiKey, byte[] payload) {
+                sendThreads.add(Thread.currentThread().getName());
+                apiKeys.add(apiKey);
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(sendMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                if (failuresLeft.getAndDecrement() > 0) {
+                    throw new WebApplicationException(503);
+                }
+            }
+        };
+        return service;
+    }
+}
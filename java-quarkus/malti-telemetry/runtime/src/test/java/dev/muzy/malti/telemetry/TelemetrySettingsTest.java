@@ -0,0 +1,55 @@
+package dev.muzy.malti.telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelemetrySettingsTest {
+
+    private static final TelemetrySettings SETTINGS = new TelemetrySettings(90,
+        new TelemetrySettings.Sampling(true, 500, 1000),
+        Map.of(TelemetryPipeline.DEFAULT, new TelemetrySettings.Batch(500, 60, 1),
+            "billing", new TelemetrySettings.Batch(100, 10, 2)));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testInvalidSettingsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SETTINGS.withOverflowThresholdPercent(0));
+        assertThrows(IllegalArgumentException.class, () -> SETTINGS.withOverflowThresholdPercent(101));
+        assertThrows(IllegalArgumentException.class, () -> new TelemetrySettings.Sampling(true, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new TelemetrySettings.Batch(500, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> SETTINGS.withBatch("unknown", new TelemetrySettings.Batch(500, 60, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new TelemetrySettings(90, SETTINGS.sampling(),
+            Map.of("billing", new TelemetrySettings.Batch(100, 10, 2))));
+    }
+
+    @Test
+    void testApplyChangesOnlyNamedSettings() throws Exception {
+        TelemetrySettings next = TelemetryAdminRoute.apply(SETTINGS, objectMapper.readTree("""
+            {"sampling": {"targetRecordsPerSecond": 200},
+             "batches": {"billing": {"size": 50, "senderConcurrency": 4}}}"""));
+
+        assertEquals(90, next.overflowThresholdPercent());
+        assertEquals(new TelemetrySettings.Sampling(true, 200, 1000), next.sampling());
+        assertEquals(new TelemetrySettings.Batch(50, 10, 4), next.batch("billing"));
+        assertEquals(SETTINGS.batch(TelemetryPipeline.DEFAULT), next.batch(TelemetryPipeline.DEFAULT));
+    }
+
+    @Test
+    void testApplyRejectsUnknownAndMistypedSettings() {
+        for (String changes : new String[] {
+                "{\"batchSize\": 100}",
+                "{\"sampling\": {\"enabled\": \"no\"}}",
+                "{\"batches\": {\"default\": {\"size\": 1.5}}}",
+                "{\"batches\": {\"payments\": {\"size\": 100}}}",
+                "[]"}) {
+            assertThrows(IllegalArgumentException.class,
+                () -> TelemetryAdminRoute.apply(SETTINGS, objectMapper.readTree(changes)), changes);
+        }
+    }
+}
@@ -6,8 +6,11 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import dev.muzy.malti.telemetry.TelemetryService;
 import dev.muzy.malti.telemetry.TelemetryBuffer;
+import dev.muzy.malti.telemetry.RollingWindowStore;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -40,8 +43,14 @@ public class TelemetryStatsResource {
                     "totalAdded", stats.totalAdded(),
                     "totalSent", stats.totalSent(),
                     "totalFailed", stats.totalFailed(),
+                    "totalExpired", stats.totalExpired(),
+                    "oldestRecordAgeMillis", stats.oldestRecordAgeMillis(),
                     "utilizationPercent", utilizationPercent
                 ),
+                "pipelines", telemetryService.getPipelines(),
+                "heavyHitters", telemetryService.getHeavyHitters(),
+                "cardinality", telemetryService.getCardinalityStats(),
+                "sampling", telemetryService.getSamplingStats(),
                 "timestamp", LocalDateTime.now(),
                 "service", "telemetry-demo"
             )).build();
@@ -56,6 +65,38 @@ public class TelemetryStatsResource {
         }
     }
 
+    /**
+     * Query rolling window statistics (RPS, error rate, latency percentiles) for recent traffic
+     * on this node, optionally filtered by method, endpoint and consumer.
+     */
+    @GET
+    @Path("/windows")
+    public Response getWindows(@QueryParam("seconds") @DefaultValue("60") int seconds,
+                               @QueryParam("method") String method,
+                               @QueryParam("endpoint") String endpoint,
+                               @QueryParam("consumer") String consumer,
+                               @QueryParam("byConsumer") @DefaultValue("false") boolean byConsumer,
+                               @QueryParam("limit") @DefaultValue("20") int limit) {
+        if (seconds < 1) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of(
+                    "error", "seconds must be positive",
+                    "timestamp", LocalDateTime.now()
+                ))
+                .build();
+        }
+
+        List<RollingWindowStore.WindowStats> windows = telemetryService.queryWindows(
+            new RollingWindowStore.WindowQuery(Duration.ofSeconds(seconds), method, endpoint, consumer, byConsumer, limit)
+        );
+
+        return Response.ok(Map.of(
+            "windowSeconds", seconds,
+            "series", windows,
+            "timestamp", LocalDateTime.now()
+        )).build();
+    }
+
     /**
      * Get telemetry service health status
      */
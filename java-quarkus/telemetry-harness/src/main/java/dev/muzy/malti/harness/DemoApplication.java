@@ -0,0 +1,110 @@
+package dev.muzy.malti.harness;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The demo application, started from its packaged runner jar in a JVM of its own so that the
+ * harness's load generation and mock server do not share its heap or CPU accounting.
+ */
+final class DemoApplication implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private final Process process;
+    private final String url;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DemoApplication(Process process, int port) {
+        this.process = process;
+        this.url = "http://localhost:" + port;
+    }
+
+    /**
+     * Start the application with {@code properties} as system properties, which take precedence over
+     * its {@code application.properties}, and wait until it is ready. Output goes to {@code log}.
+     */
+    static DemoApplication start(Path runnerJar, int port, List<String> jvmArgs, Map<String, String> properties,
+                                 Path log) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(runnerJar)) {
+            throw new IllegalArgumentException(runnerJar + " not found; package the demo first with 'mvn package'");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-Dquarkus.http.port=" + port);
+        properties.forEach((name, value) -> command.add("-D" + name + "=" + value));
+        command.add("-jar");
+        command.add(runnerJar.toString());
+
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        DemoApplication app = new DemoApplication(process, port);
+        try {
+            app.awaitReady();
+        } catch (IOException | RuntimeException e) {
+            app.close();
+            throw e;
+        }
+        return app;
+    }
+
+    String url() {
+        return url;
+    }
+
+    private void awaitReady() throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Demo application exited with " + process.exitValue() + " during startup");
+            }
+            try {
+                if (get("/health/ready").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(200);
+        }
+        throw new IOException("Demo application not ready within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * The demo's {@code /api/telemetry/stats} buffer statistics.
+     */
+    JsonNode bufferStats() throws IOException, InterruptedException {
+        HttpResponse<String> response = get("/api/telemetry/stats");
+        return objectMapper.readTree(response.body()).get("bufferStats");
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url + path)).timeout(Duration.ofSeconds(5)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
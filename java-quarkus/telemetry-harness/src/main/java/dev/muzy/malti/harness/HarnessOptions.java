@@ -0,0 +1,79 @@
+package dev.muzy.malti.harness;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options, given as {@code --name=value}. Every option has a default, so the harness runs
+ * without arguments from the {@code telemetry-harness} directory once the demo has been packaged.
+ */
+record HarnessOptions(
+    Path app,
+    int appPort,
+    List<String> appJvmArgs,
+    int rate,
+    Duration warmup,
+    Duration duration,
+    List<String> phases,
+    int batchIntervalSeconds,
+    boolean overheadGovernor,
+    Duration drainTimeout,
+    int ingestPort,
+    MockIngestServer.Behavior ingest
+) {
+
+    static final Set<String> PHASES = Set.of("off", "on");
+
+    static HarnessOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        HarnessOptions options = new HarnessOptions(
+            Path.of(take(values, "app", "../telemetry-demo/target/quarkus-app/quarkus-run.jar")),
+            Integer.parseInt(take(values, "app-port", "8089")),
+            list(take(values, "app-jvm-args", "-Xms512m,-Xmx512m")),
+            Integer.parseInt(take(values, "rate", "500")),
+            Duration.ofSeconds(Long.parseLong(take(values, "warmup-seconds", "10"))),
+            Duration.ofSeconds(Long.parseLong(take(values, "duration-seconds", "30"))),
+            list(take(values, "phases", "off,on")),
+            Integer.parseInt(take(values, "batch-interval-seconds", "2")),
+            Boolean.parseBoolean(take(values, "overhead-governor", "false")),
+            Duration.ofSeconds(Long.parseLong(take(values, "drain-timeout-seconds", "60"))),
+            Integer.parseInt(take(values, "ingest-port", "0")),
+            new MockIngestServer.Behavior(
+                Duration.ofMillis(Long.parseLong(take(values, "ingest-latency-ms", "20"))),
+                Double.parseDouble(take(values, "ingest-error-rate", "0")),
+                Double.parseDouble(take(values, "ingest-throttle-rate", "0")),
+                Integer.parseInt(take(values, "ingest-max-records-per-second", "0"))));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rate() < 1) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        if (!PHASES.containsAll(options.phases())) {
+            throw new IllegalArgumentException("--phases must be a list of " + PHASES + ", got: " + options.phases());
+        }
+        return options;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static List<String> list(String value) {
+        return value.isBlank() ? List.of() : List.of(value.split(","));
+    }
+}
@@ -0,0 +1,171 @@
+package dev.muzy.malti.harness;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests start on a fixed schedule of {@code rate} per second whether or not earlier
+ * ones have completed, each on its own virtual thread, and latency is measured from the request's
+ * scheduled start rather than from when it was actually sent. A stall in the application then shows
+ * up as latency of every request that was due during it, instead of as fewer requests being sent
+ * (coordinated omission).
+ * <p>
+ * Requests scheduled during the warmup are sent and counted but not measured.
+ */
+final class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int CONSUMERS = 50;
+
+    /**
+     * One kind of request; {@code {id}} in the path is replaced by an item id from 1 to 9, of which
+     * only 1 to 8 exist in the demo.
+     */
+    record Target(String method, String path, String body) {
+
+        static Target get(String path) {
+            return new Target("GET", path, null);
+        }
+    }
+
+    /**
+     * Mix of the demo's endpoints, weighted by repetition.
+     */
+    static final List<Target> DEMO_MIX = List.of(
+        Target.get("/api/demo/hello?name=load"),
+        Target.get("/api/demo/hello?name=load"),
+        Target.get("/api/demo/hello?name=load"),
+        Target.get("/api/demo/items?limit=5"),
+        Target.get("/api/demo/items?limit=5"),
+        Target.get("/api/demo/items/{id}"),
+        Target.get("/api/demo/items/{id}"),
+        Target.get("/api/demo/items/{id}"),
+        new Target("POST", "/api/demo/items", "{\"name\":\"load\",\"value\":1}"),
+        new Target("PUT", "/api/demo/items/{id}", "{\"name\":\"renamed\"}"),
+        new Target("DELETE", "/api/demo/items/{id}", null),
+        Target.get("/api/demo/random"),
+        Target.get("/api/demo/random"),
+        Target.get("/api/demo/secure"));
+
+    /**
+     * Outcome of a run. Latency is in microseconds and covers measured requests only; counts of
+     * requests that got no response include timeouts and refused connections.
+     */
+    record Result(
+        Histogram latencyMicros,
+        long sent,
+        long completed,
+        long failed,
+        Map<Integer, Long> statuses,
+        long warmupCompleted,
+        Duration measured
+    ) {
+
+        double achievedRate() {
+            return completed / (measured.toNanos() / 1e9);
+        }
+    }
+
+    private final String baseUrl;
+    private final List<Target> targets;
+    private final int rate;
+    private final HttpClient client;
+
+    private final Histogram latency = new ConcurrentHistogram(3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder warmupCompleted = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    LoadGenerator(String baseUrl, List<Target> targets, int rate) {
+        this.baseUrl = baseUrl;
+        this.targets = targets;
+        this.rate = rate;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+
+    /**
+     * Run the schedule for {@code warmup} plus {@code duration}, then wait for every request to complete.
+     */
+    Result run(Duration warmup, Duration duration) {
+        SplittableRandom random = new SplittableRandom(42);
+        long warmupNanos = warmup.toNanos();
+        long total = rate * (warmup.toSeconds() + duration.toSeconds());
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * 1_000_000_000L / rate;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                HttpRequest request = request(targets.get(random.nextInt(targets.size())), random);
+                boolean measured = intended - start >= warmupNanos;
+                executor.execute(() -> send(request, intended, measured));
+            }
+        }
+
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        return new Result(latency, sent.sum(), completed.sum(), failed.sum(), statusCounts,
+            warmupCompleted.sum(), duration);
+    }
+
+    private HttpRequest request(Target target, SplittableRandom random) {
+        String path = target.path().replace("{id}", Integer.toString(random.nextInt(1, 10)));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("X-Consumer-Id", "consumer-" + random.nextInt(CONSUMERS));
+        if (target.body() != null) {
+            builder.header("Content-Type", "application/json")
+                .method(target.method(), HttpRequest.BodyPublishers.ofString(target.body()));
+        } else {
+            builder.method(target.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.build();
+    }
+
+    private void send(HttpRequest request, long intended, boolean measured) {
+        if (measured) {
+            sent.increment();
+        }
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (!measured) {
+                warmupCompleted.increment();
+                return;
+            }
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended));
+            completed.increment();
+            statuses.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (measured) {
+                failed.increment();
+            }
+        }
+    }
+}
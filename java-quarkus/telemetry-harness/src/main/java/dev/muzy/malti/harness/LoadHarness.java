@@ -0,0 +1,162 @@
+package dev.muzy.malti.harness;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Measures what telemetry costs the demo application under load. Each phase starts the packaged demo
+ * in its own JVM against a fresh {@link MockIngestServer}, drives it with the {@link LoadGenerator}
+ * at a fixed rate, and, with telemetry on, waits for the buffer to drain before reading how many
+ * records reached the ingest server. The {@code off} phase runs with {@code malti.enabled=false} as
+ * the baseline.
+ * <p>
+ * Both phases run the extension at INFO, with clean mode off, telemetry endpoints excluded and the
+ * overhead governor off unless {@code --overhead-governor=true}, so that every load request is expected
+ * to arrive as exactly one record. Application logs are written to {@code target/harness-<phase>.log}.
+ */
+public final class LoadHarness {
+
+    private static final String API_KEY = "harness-key";
+
+    /**
+     * One phase's results; ingest and buffer figures are empty with telemetry off.
+     */
+    record PhaseResult(
+        String phase,
+        LoadGenerator.Result load,
+        MockIngestServer.Stats ingest,
+        long captured,
+        long failedRecords
+    ) {
+
+        long expectedRecords() {
+            return load.completed() + load.warmupCompleted();
+        }
+
+        boolean telemetry() {
+            return "on".equals(phase);
+        }
+    }
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        HarnessOptions options = HarnessOptions.parse(args);
+        Path logs = Files.createDirectories(Path.of("target"));
+        List<PhaseResult> results = new ArrayList<>();
+        for (String phase : options.phases()) {
+            System.out.printf("Phase '%s': %d requests/s, %d s warmup, %d s measured%n", phase, options.rate(),
+                options.warmup().toSeconds(), options.duration().toSeconds());
+            results.add(runPhase(phase, options, logs.resolve("harness-" + phase + ".log")));
+        }
+        System.out.println();
+        System.out.print(report(results));
+    }
+
+    static PhaseResult runPhase(String phase, HarnessOptions options, Path log) throws Exception {
+        try (MockIngestServer ingest = MockIngestServer.start(options.ingestPort(), options.ingest())) {
+            Map<String, String> properties = new LinkedHashMap<>();
+            properties.put("malti.enabled", Boolean.toString("on".equals(phase)));
+            properties.put("malti.url", ingest.url());
+            properties.put("malti.api-key", API_KEY);
+            properties.put("malti.node", "harness");
+            properties.put("malti.clean-mode", "false");
+            properties.put("malti.batch.interval-seconds", Integer.toString(options.batchIntervalSeconds()));
+            properties.put("malti.overhead.enabled", Boolean.toString(options.overheadGovernor()));
+            properties.put("malti.rules[1].route", "/api/telemetry/**");
+            properties.put("malti.rules[1].action", "exclude");
+            // The demo logs the extension at DEBUG; measure at the level applications run at
+            properties.put("quarkus.log.category.\"dev.muzy.malti.telemetry\".level", "INFO");
+
+            try (DemoApplication app = DemoApplication.start(options.app(), options.appPort(), options.appJvmArgs(),
+                    properties, log)) {
+                LoadGenerator.Result load = new LoadGenerator(app.url(), LoadGenerator.DEMO_MIX, options.rate())
+                    .run(options.warmup(), options.duration());
+                if (!"on".equals(phase)) {
+                    return new PhaseResult(phase, load, ingest.stats(), 0, 0);
+                }
+                JsonNode buffer = drain(app, ingest, options);
+                return new PhaseResult(phase, load, ingest.stats(), buffer.get("totalAdded").asLong(),
+                    buffer.get("totalFailed").asLong());
+            }
+        }
+    }
+
+    /**
+     * Wait until the buffer is empty and neither the sender nor the ingest server has made progress
+     * for a whole batch interval, or until the drain timeout.
+     */
+    private static JsonNode drain(DemoApplication app, MockIngestServer ingest, HarnessOptions options)
+            throws IOException, InterruptedException {
+        long pollMillis = (options.batchIntervalSeconds() + 1) * 1000L;
+        long deadline = System.nanoTime() + options.drainTimeout().toNanos();
+        JsonNode buffer = app.bufferStats();
+        long lastProgress = -1;
+        while (System.nanoTime() < deadline) {
+            long progress = buffer.get("totalSent").asLong() + buffer.get("totalFailed").asLong()
+                + ingest.stats().requests();
+            if (buffer.get("currentSize").asLong() == 0 && progress == lastProgress) {
+                return buffer;
+            }
+            lastProgress = progress;
+            Thread.sleep(pollMillis);
+            buffer = app.bufferStats();
+        }
+        System.out.printf("Buffer not drained within %d s; %d records still buffered%n",
+            options.drainTimeout().toSeconds(), buffer.get("currentSize").asLong());
+        return buffer;
+    }
+
+    static String report(List<PhaseResult> results) {
+        StringBuilder out = new StringBuilder();
+        row(out, "", results, r -> "telemetry " + r.phase());
+        row(out, "requests/s achieved", results, r -> "%.1f".formatted(r.load().achievedRate()));
+        row(out, "p50 ms", results, r -> millis(r.load().latencyMicros(), 50));
+        row(out, "p99 ms", results, r -> millis(r.load().latencyMicros(), 99));
+        row(out, "p99.9 ms", results, r -> millis(r.load().latencyMicros(), 99.9));
+        row(out, "max ms", results, r -> "%.2f".formatted(r.load().latencyMicros().getMaxValue() / 1000.0));
+        row(out, "no response", results, r -> Long.toString(r.load().failed()));
+        row(out, "records expected", results, telemetry(r -> Long.toString(r.expectedRecords())));
+        row(out, "records captured", results, telemetry(r -> Long.toString(r.captured())));
+        row(out, "records delivered", results, telemetry(r -> Long.toString(r.ingest().deliveredRecords())));
+        row(out, "records dropped", results, telemetry(r -> {
+            long dropped = r.expectedRecords() - r.ingest().deliveredRecords();
+            return "%d (%.2f%%)".formatted(dropped, 100.0 * dropped / Math.max(1, r.expectedRecords()));
+        }));
+        row(out, "  of which failed sends", results, telemetry(r -> Long.toString(r.failedRecords())));
+        row(out, "ingest requests", results, telemetry(r -> Long.toString(r.ingest().requests())));
+        row(out, "  throttled (429)", results, telemetry(r -> Long.toString(r.ingest().throttled())));
+        row(out, "  errors (4xx/5xx)", results, telemetry(r -> Long.toString(r.ingest().errors())));
+        row(out, "ingest bytes", results, telemetry(r -> Long.toString(r.ingest().bytesReceived())));
+        row(out, "ingest bytes/record", results, telemetry(r -> "%.1f".formatted(
+            (double) r.ingest().bytesReceived() / Math.max(1, r.ingest().deliveredRecords() + r.ingest().rejectedRecords()))));
+        return out.toString();
+    }
+
+    private static Function<PhaseResult, String> telemetry(Function<PhaseResult, String> value) {
+        return r -> r.telemetry() ? value.apply(r) : "-";
+    }
+
+    private static void row(StringBuilder out, String label, List<PhaseResult> results,
+                            Function<PhaseResult, String> value) {
+        out.append("%-24s".formatted(label));
+        for (PhaseResult result : results) {
+            out.append("%18s".formatted(value.apply(result)));
+        }
+        out.append(System.lineSeparator());
+    }
+
+    private static String millis(Histogram histogram, double percentile) {
+        return "%.2f".formatted(histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+}
@@ -0,0 +1,223 @@
+package dev.muzy.malti.harness;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in for the Malti server's {@code POST /api/v1/ingest}, bound to localhost. Every request is
+ * answered after {@link Behavior#latency()}; a share of them fail with 500 or are throttled with 429,
+ * and batches that would take the server over {@link Behavior#maxRecordsPerSecond()} are throttled too.
+ * Only accepted batches count as delivered.
+ * <p>
+ * Also runs on its own, to point a {@code quarkus:dev} application at:
+ * {@code java -cp target/telemetry-harness.jar dev.muzy.malti.harness.MockIngestServer --ingest-port=8000}.
+ */
+public final class MockIngestServer implements AutoCloseable {
+
+    static final String INGEST_PATH = "/api/v1/ingest";
+
+    /**
+     * How the server answers.
+     *
+     * @param latency time taken to answer every request
+     * @param errorRate share of requests answered with 500
+     * @param throttleRate share of requests answered with 429
+     * @param maxRecordsPerSecond records accepted per second before batches are throttled, or 0 for no limit
+     */
+    public record Behavior(Duration latency, double errorRate, double throttleRate, int maxRecordsPerSecond) {
+
+        public static Behavior healthy() {
+            return new Behavior(Duration.ZERO, 0, 0, 0);
+        }
+    }
+
+    /**
+     * What the server has received. Errors are malformed batches and injected 500s; records of
+     * rejected batches are not delivered.
+     */
+    public record Stats(
+        long requests,
+        long errors,
+        long throttled,
+        long unauthorized,
+        long deliveredRecords,
+        long rejectedRecords,
+        long bytesReceived
+    ) {}
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Behavior behavior;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder unauthorized = new LongAdder();
+    private final LongAdder deliveredRecords = new LongAdder();
+    private final LongAdder rejectedRecords = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+
+    private long windowSecond;
+    private long windowRecords;
+
+    private MockIngestServer(int port, Behavior behavior) throws IOException {
+        this.behavior = behavior;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(INGEST_PATH, this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Start on {@code port}, or an ephemeral port when it is 0.
+     */
+    public static MockIngestServer start(int port, Behavior behavior) throws IOException {
+        MockIngestServer ingest = new MockIngestServer(port, behavior);
+        ingest.server.start();
+        return ingest;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Base URL to configure as {@code malti.url}.
+     */
+    public String url() {
+        return "http://localhost:" + port();
+    }
+
+    public Stats stats() {
+        return new Stats(requests.sum(), errors.sum(), throttled.sum(), unauthorized.sum(),
+            deliveredRecords.sum(), rejectedRecords.sum(), bytesReceived.sum());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            requests.increment();
+            bytesReceived.add(body.length);
+            sleep(behavior.latency());
+
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "{\"detail\":\"Method not allowed\"}");
+                return;
+            }
+            if (exchange.getRequestHeaders().getFirst("X-API-Key") == null) {
+                unauthorized.increment();
+                respond(exchange, 401, "{\"detail\":\"Missing API key\"}");
+                return;
+            }
+            int records = countRecords(body);
+            if (records < 0) {
+                errors.increment();
+                respond(exchange, 400, "{\"detail\":\"Malformed batch\"}");
+                return;
+            }
+
+            double outcome = ThreadLocalRandom.current().nextDouble();
+            if (outcome < behavior.errorRate()) {
+                errors.increment();
+                rejectedRecords.add(records);
+                respond(exchange, 500, "{\"detail\":\"Injected error\"}");
+            } else if (outcome < behavior.errorRate() + behavior.throttleRate() || !admit(records)) {
+                throttled.increment();
+                rejectedRecords.add(records);
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 429, "{\"detail\":\"Rate limit exceeded\"}");
+            } else {
+                deliveredRecords.add(records);
+                respond(exchange, 200, "{\"count\":" + records + "}");
+            }
+        }
+    }
+
+    /**
+     * Take {@code records} from the current second's allowance, or refuse the whole batch.
+     */
+    private synchronized boolean admit(int records) {
+        if (behavior.maxRecordsPerSecond() <= 0) {
+            return true;
+        }
+        long second = System.nanoTime() / 1_000_000_000L;
+        if (second != windowSecond) {
+            windowSecond = second;
+            windowRecords = 0;
+        }
+        if (windowRecords + records > behavior.maxRecordsPerSecond()) {
+            return false;
+        }
+        windowRecords += records;
+        return true;
+    }
+
+    private int countRecords(byte[] body) {
+        try {
+            JsonNode batch = objectMapper.readTree(body);
+            JsonNode requests = batch.get("requests");
+            if (requests == null || !requests.isArray()) {
+                return -1;
+            }
+            // Outbound calls are sent in their own list next to the inbound requests
+            JsonNode outbound = batch.get("outbound");
+            return requests.size() + (outbound != null && outbound.isArray() ? outbound.size() : 0);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        HarnessOptions options = HarnessOptions.parse(args);
+        MockIngestServer ingest = start(options.ingestPort() != 0 ? options.ingestPort() : 8000, options.ingest());
+        System.out.printf("Mock ingest listening on %s%s with %s%n", ingest.url(), INGEST_PATH, options.ingest());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ingest.close();
+            System.out.println(ingest.stats());
+        }));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,73 @@
+package dev.muzy.malti.harness;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+
+    @Test
+    void testSendsOnScheduleAndSkipsWarmup() throws Exception {
+        HttpServer server = server(Duration.ZERO);
+        try {
+            LoadGenerator.Result result = new LoadGenerator(url(server), List.of(LoadGenerator.Target.get("/ok")), 100)
+                .run(Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+            assertEquals(100, result.warmupCompleted());
+            assertEquals(100, result.sent());
+            assertEquals(100, result.completed());
+            assertEquals(100, result.latencyMicros().getTotalCount());
+            assertEquals(100L, result.statuses().get(204));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testStallCountsAgainstEveryRequestDueDuringIt() throws Exception {
+        // The first request holds the only server thread for 500 ms; requests scheduled meanwhile queue behind it
+        HttpServer server = server(Duration.ofMillis(500));
+        try {
+            LoadGenerator.Result result = new LoadGenerator(url(server), List.of(LoadGenerator.Target.get("/ok")), 100)
+                .run(Duration.ZERO, Duration.ofSeconds(1));
+
+            assertEquals(100, result.completed());
+            // Requests due in the first 400 ms, 40% of them, waited at least 100 ms behind the stall
+            assertTrue(result.latencyMicros().getValueAtPercentile(70) >= 100_000,
+                "p70 " + result.latencyMicros().getValueAtPercentile(70));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpServer server(Duration firstRequestStall) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        AtomicBoolean stalled = new AtomicBoolean();
+        server.createContext("/", exchange -> {
+            if (!firstRequestStall.isZero() && stalled.compareAndSet(false, true)) {
+                try {
+                    Thread.sleep(firstRequestStall);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+        return server;
+    }
+
+    private static String url(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,73 @@
+package dev.muzy.malti.harness;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockIngestServerTest {
+
+    private static final String BATCH = "{\"requests\":[{\"method\":\"GET\"},{\"method\":\"POST\"},{\"method\":\"PUT\"}]}";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void testCountsDeliveredRecordsAndBytes() throws Exception {
+        try (MockIngestServer ingest = MockIngestServer.start(0, MockIngestServer.Behavior.healthy())) {
+            assertEquals(200, post(ingest, BATCH, "key"));
+            assertEquals(401, post(ingest, BATCH, null));
+            assertEquals(400, post(ingest, "{\"records\":[]}", "key"));
+
+            MockIngestServer.Stats stats = ingest.stats();
+            assertEquals(3, stats.requests());
+            assertEquals(3, stats.deliveredRecords());
+            assertEquals(1, stats.unauthorized());
+            assertEquals(1, stats.errors());
+            assertEquals(2L * BATCH.length() + "{\"records\":[]}".length(), stats.bytesReceived());
+        }
+    }
+
+    @Test
+    void testInjectsErrorsAndThrottling() throws Exception {
+        try (MockIngestServer failing = MockIngestServer.start(0,
+                new MockIngestServer.Behavior(Duration.ZERO, 1.0, 0, 0))) {
+            assertEquals(500, post(failing, BATCH, "key"));
+            assertEquals(3, failing.stats().rejectedRecords());
+        }
+        try (MockIngestServer throttling = MockIngestServer.start(0,
+                new MockIngestServer.Behavior(Duration.ZERO, 0, 1.0, 0))) {
+            assertEquals(429, post(throttling, BATCH, "key"));
+            assertEquals(1, throttling.stats().throttled());
+        }
+    }
+
+    @Test
+    void testThrottlesAboveRecordRate() throws Exception {
+        try (MockIngestServer ingest = MockIngestServer.start(0,
+                new MockIngestServer.Behavior(Duration.ZERO, 0, 0, 4))) {
+            // The second batch would take the current second to 6 records; retry until a new second starts
+            assertEquals(200, post(ingest, BATCH, "key"));
+            int status = post(ingest, BATCH, "key");
+            if (status == 429) {
+                Thread.sleep(1000);
+                status = post(ingest, BATCH, "key");
+            }
+            assertEquals(200, status);
+            assertEquals(6, ingest.stats().deliveredRecords());
+        }
+    }
+
+    private int post(MockIngestServer ingest, String body, String apiKey) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(ingest.url() + MockIngestServer.INGEST_PATH))
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (apiKey != null) {
+            request.header("X-API-Key", apiKey);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}